@@ -47,7 +47,8 @@ public class Movie {
     @JsonIgnore
     private String thumb;
 
-    @ManyToMany(mappedBy = "movies", fetch = FetchType.EAGER)
+    // fetched with an entity graph only if the directors are included, see MovieRepositoryCustomImpl
+    @ManyToMany(mappedBy = "movies", fetch = FetchType.LAZY)
     @JsonIgnore
     @JsonApiRelationships("directors")  // Only used for deserialization, e.g. useful when doing a HTTP POST
     List<Director> directors = new ArrayList<>();
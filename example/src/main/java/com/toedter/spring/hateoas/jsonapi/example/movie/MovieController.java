@@ -17,12 +17,16 @@
 package com.toedter.spring.hateoas.jsonapi.example.movie;
 
 import com.toedter.spring.hateoas.jsonapi.JsonApiConfiguration;
+import com.toedter.spring.hateoas.jsonapi.JsonApiIncludePolicy;
 import com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder;
+import com.toedter.spring.hateoas.jsonapi.JsonApiQuery;
+import com.toedter.spring.hateoas.jsonapi.JsonApiResourceTemplate;
+import com.toedter.spring.hateoas.jsonapi.JsonApiSpecifications;
 import com.toedter.spring.hateoas.jsonapi.example.RootController;
 import com.toedter.spring.hateoas.jsonapi.example.director.Director;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,19 +34,21 @@ import org.springframework.web.bind.annotation.*;
 import javax.persistence.EntityNotFoundException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
-import static com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder.jsonApiModel;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 
 @RestController
 @RequestMapping(value = RootController.API_BASE_PATH, produces = "application/vnd.api+json")
 public class MovieController {
 
+    // only the directors of a page of movies can be included, see MovieRepositoryCustomImpl
+    private static final JsonApiIncludePolicy INCLUDE_POLICY = JsonApiIncludePolicy.of("movies")
+            .relationship("movies", "directors", "directors", 5)
+            .withMaxDepth(1);
+
     private final MovieRepository repository;
     private final MovieModelAssembler movieModelAssembler;
 
@@ -52,27 +58,35 @@ public class MovieController {
     }
 
     @Bean
-    JsonApiConfiguration getConfig() {
+    static JsonApiConfiguration getConfig() {
         return new JsonApiConfiguration().withJsonApiVersionRendered(true);
     }
 
     @GetMapping("/movies")
-    ResponseEntity<RepresentationModel<?>> findAll(
-            @RequestParam(value = "page[number]", defaultValue = "0", required = false) int page,
-            @RequestParam(value = "page[size]", defaultValue = "10", required = false) int size) {
+    ResponseEntity<RepresentationModel<?>> findAll(JsonApiQuery query) {
+
+        // rejects too large pages, unsupported sort fields and too expensive includes with 400
+        // before anything is loaded
+        final Pageable pageRequest = query.toPageable(10, 100, "title", "year", "rating");
+        INCLUDE_POLICY.validate(query, pageRequest.getPageSize());
 
-        final PageRequest pageRequest = PageRequest.of(page, size);
+        final Page<Movie> pagedResult =
+                repository.findAll(JsonApiSpecifications.filter(query, "title", "year"), pageRequest);
 
-        final Page<Movie> pagedResult = repository.findAll(pageRequest);
+        // fetch the requested includes of all movies of the page in one query
+        List<Movie> movies = pagedResult.getContent();
+        if (!query.getIncludes().isEmpty()) {
+            List<Long> ids = movies.stream().map(Movie::getId).collect(Collectors.toList());
+            movies = repository.findAllById(ids, query.getIncludes());
+        }
 
-        List<? extends RepresentationModel<?>> movieResources =
-                StreamSupport.stream(pagedResult.spliterator(), false)
-                        .map(movieModelAssembler::toJsonApiModel)
-                        .collect(Collectors.toList());
+        String queryString = query.getQueryStringWithoutPagination();
+        String pageLinksBase = linkTo(MovieController.class).slash("movies").withSelfRel().getHref()
+                + (queryString.isEmpty() ? "" : "?" + queryString);
 
-        Link selfLink = linkTo(MovieController.class).slash(
-                "movies?page[number]=" + pagedResult.getNumber()
-                        + "&page[size]=" + pagedResult.getSize()).withSelfRel();
+        Link selfLink = Link.of(pageLinksBase + (queryString.isEmpty() ? "?" : "&")
+                + "page[number]=" + pagedResult.getNumber()
+                + "&page[size]=" + pagedResult.getSize()).withSelfRel();
 
         PagedModel.PageMetadata pageMetadata =
                 new PagedModel.PageMetadata(
@@ -81,21 +95,16 @@ public class MovieController {
                         pagedResult.getTotalElements(),
                         pagedResult.getTotalPages());
 
-        final PagedModel<? extends RepresentationModel<?>> pagedModel =
-                PagedModel.of(movieResources, pageMetadata);
-
-        String pageLinksBase = linkTo(MovieController.class).slash("movies").withSelfRel().getHref();
+        // the included directors of all movies are merged, each director is included only once,
+        // the movies are JPA entities, so they are assembled sequentially on the request thread
+        final JsonApiResourceTemplate movieTemplate = movieModelAssembler.movieTemplate();
+        final boolean includeDirectors = query.getIncludes().contains("directors");
         final JsonApiModelBuilder jsonApiModelBuilder =
-                jsonApiModel().model(pagedModel).link(selfLink).pageLinks(pageLinksBase);
-
-        HashMap<Long, Director> directors = new HashMap<>();
-        for (Movie movie : pagedResult.getContent()) {
-            for (Director director : movie.getDirectors()) {
-                directors.put(director.getId(), director);
-            }
-        }
-
-        directors.values().forEach(entry -> jsonApiModelBuilder.included(EntityModel.of(entry)));
+                JsonApiModelBuilder.collection(movies,
+                        movie -> movieModelAssembler.toJsonApiModel(movie, movieTemplate, includeDirectors),
+                        pageMetadata, Runnable::run, Integer.MAX_VALUE)
+                        .link(selfLink)
+                        .pageLinks(pageLinksBase);
 
         final RepresentationModel<?> pagedJsonApiModel = jsonApiModelBuilder.build();
 
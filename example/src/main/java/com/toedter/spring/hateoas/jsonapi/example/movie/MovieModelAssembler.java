@@ -16,9 +16,12 @@
 
 package com.toedter.spring.hateoas.jsonapi.example.movie;
 
+import com.toedter.spring.hateoas.jsonapi.JsonApiConfiguration;
 import com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder;
+import com.toedter.spring.hateoas.jsonapi.JsonApiResourceTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.stereotype.Component;
@@ -33,24 +36,46 @@ class MovieModelAssembler {
 
     private static final String DIRECTORS = "directors";
 
-    public RepresentationModel<?> toJsonApiModel(Movie movie) {
-        Link selfLink = linkTo(methodOn(MovieController.class).findOne(movie.getId())).withSelfRel();
+    private final JsonApiResourceTemplate relativeMovieTemplate;
 
-        // TODO: Spring HATEOAS does not recognize templated links with square brackets
-        // Link templatedMoviesLink = Link.of(moviesLink.getHref() + "{?page[number],page[size]}").withRel("movies");
+    MovieModelAssembler(JsonApiConfiguration jsonApiConfiguration) {
+        this.relativeMovieTemplate =
+                JsonApiResourceTemplate.of("/movies/{id}", jsonApiConfiguration).relationship(DIRECTORS);
+    }
 
-        String relationshipSelfLink = selfLink.getHref() + "/relationships/"  + DIRECTORS;
-        String relationshipRelatedLink = selfLink.getHref() + "/" + DIRECTORS;
+    public RepresentationModel<?> toJsonApiModel(Movie movie) {
+        return toJsonApiModel(movie, movieTemplate());
+    }
 
-        JsonApiModelBuilder builder = jsonApiModel()
-                .model(movie)
+    public RepresentationModel<?> toJsonApiModel(Movie movie, JsonApiResourceTemplate movieTemplate) {
+        // the lazy directors of a single movie are loaded with one query
+        return movieTemplate.builder(movie)
                 .relationship(DIRECTORS, movie.getDirectors())
-                .relationship(DIRECTORS, relationshipSelfLink, relationshipRelatedLink, null)
-                .link(selfLink);
+                .build();
+    }
 
+    /**
+     * Creates the model of a movie of a page. The directors are only rendered if they are included,
+     * then they were fetched together with the movies, otherwise only the relationship links are rendered,
+     * so the lazy directors are not loaded one movie after another.
+     */
+    public RepresentationModel<?> toJsonApiModel(
+            Movie movie, JsonApiResourceTemplate movieTemplate, boolean includeDirectors) {
+        JsonApiModelBuilder builder = movieTemplate.builder(movie);
+        if (includeDirectors) {
+            builder.relationship(DIRECTORS, movie.getDirectors());
+            movie.getDirectors().forEach(director -> builder.included(EntityModel.of(director)));
+        }
         return builder.build();
     }
 
+    /**
+     * Creates the movie template for the current request, meant to be reused for all movies of the request.
+     */
+    public JsonApiResourceTemplate movieTemplate() {
+        return relativeMovieTemplate.withBaseUri(linkTo(MovieController.class).toUri().toString());
+    }
+
     public RepresentationModel<?> directorsToJsonApiModel(Movie movie) {
         Link selfLink = linkTo(methodOn(MovieController.class).findDirectors(movie.getId())).withSelfRel();
 
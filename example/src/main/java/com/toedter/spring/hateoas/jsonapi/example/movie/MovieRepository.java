@@ -16,7 +16,9 @@
 
 package com.toedter.spring.hateoas.jsonapi.example.movie;
 
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
-public interface MovieRepository extends PagingAndSortingRepository<Movie, Long> {
+public interface MovieRepository
+        extends PagingAndSortingRepository<Movie, Long>, JpaSpecificationExecutor<Movie>, MovieRepositoryCustom {
 }
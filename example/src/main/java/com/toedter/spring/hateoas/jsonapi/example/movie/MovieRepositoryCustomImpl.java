@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi.example.movie;
+
+import com.toedter.spring.hateoas.jsonapi.JsonApiEntityGraphs;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Movie> findAllById(List<Long> ids, Collection<String> includes) {
+        EntityGraph<Movie> entityGraph =
+                JsonApiEntityGraphs.create(entityManager, Movie.class, includes, "directors");
+
+        List<Movie> movies = entityManager
+                .createQuery("select distinct m from Movie m where m.id in :ids", Movie.class)
+                .setParameter("ids", ids)
+                .setHint(JsonApiEntityGraphs.FETCH_GRAPH, entityGraph)
+                .getResultList();
+
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        movies.sort(Comparator.comparing(movie -> positions.get(movie.getId())));
+        return movies;
+    }
+}
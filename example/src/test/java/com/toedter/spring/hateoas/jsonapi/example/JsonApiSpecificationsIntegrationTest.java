@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi.example;
+
+import com.toedter.spring.hateoas.jsonapi.JsonApiCursor;
+import com.toedter.spring.hateoas.jsonapi.JsonApiCursorPage;
+import com.toedter.spring.hateoas.jsonapi.JsonApiEntityGraphs;
+import com.toedter.spring.hateoas.jsonapi.JsonApiQuery;
+import com.toedter.spring.hateoas.jsonapi.JsonApiSpecifications;
+import com.toedter.spring.hateoas.jsonapi.example.movie.Movie;
+import com.toedter.spring.hateoas.jsonapi.example.movie.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.AttributeNode;
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Kai Toedter
+ */
+@DataJpaTest
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApiSpecifications Integration Test")
+class JsonApiSpecificationsIntegrationTest {
+    private static final Sort SORT = Sort.by("title", "id");
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    private List<Movie> movies;
+
+    @BeforeEach
+    void beforeEach() {
+        movies = new ArrayList<>();
+        movies.add(movieRepository.save(new Movie("1", "A", 1977, 8.6, 1, null)));
+        movies.add(movieRepository.save(new Movie("2", "A", 1980, 8.7, 2, null)));
+        movies.add(movieRepository.save(new Movie("3", "B", 1983, 8.3, 3, null)));
+        movies.add(movieRepository.save(new Movie("4", "C", 1999, 8.7, 4, null)));
+        movies.add(movieRepository.save(new Movie("5", "C", 2003, 7.2, 5, null)));
+    }
+
+    @Test
+    void should_find_rows_after_and_before_cursor() {
+        Sort sort = Sort.by(Sort.Order.asc("year"), Sort.Order.desc("id"));
+        JsonApiCursor cursor = JsonApiCursor.of(movies.get(2), sort);
+
+        List<Movie> after = movieRepository.findAll(JsonApiSpecifications.keyset(sort, cursor, null), sort);
+        List<Movie> before = movieRepository.findAll(JsonApiSpecifications.keyset(sort, null, cursor), sort);
+
+        assertThat(after).extracting(Movie::getImdbId).containsExactly("4", "5");
+        assertThat(before).extracting(Movie::getImdbId).containsExactly("1", "2");
+    }
+
+    @Test
+    void should_find_cursor_pages_forwards_and_backwards() {
+        JsonApiCursorPage<Movie> firstPage = findCursorPage("");
+        assertThat(firstPage.getContent()).extracting(Movie::getImdbId).containsExactly("1", "2");
+        assertThat(firstPage.hasPrevious()).isFalse();
+        assertThat(firstPage.hasNext()).isTrue();
+
+        JsonApiCursorPage<Movie> secondPage = findCursorPage("page[after]=" + firstPage.getNextCursor().encode());
+        assertThat(secondPage.getContent()).extracting(Movie::getImdbId).containsExactly("3", "4");
+        assertThat(secondPage.hasPrevious()).isTrue();
+        assertThat(secondPage.hasNext()).isTrue();
+
+        JsonApiCursorPage<Movie> lastPage = findCursorPage("page[after]=" + secondPage.getNextCursor().encode());
+        assertThat(lastPage.getContent()).extracting(Movie::getImdbId).containsExactly("5");
+        assertThat(lastPage.hasPrevious()).isTrue();
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(lastPage.getNextCursor()).isNull();
+
+        JsonApiCursorPage<Movie> previousPage =
+                findCursorPage("page[before]=" + lastPage.getPreviousCursor().encode());
+        assertThat(previousPage.getContent()).extracting(Movie::getImdbId).containsExactly("3", "4");
+        assertThat(previousPage.hasPrevious()).isTrue();
+        assertThat(previousPage.hasNext()).isTrue();
+
+        JsonApiCursorPage<Movie> firstPageAgain =
+                findCursorPage("page[before]=" + previousPage.getPreviousCursor().encode());
+        assertThat(firstPageAgain.getContent()).extracting(Movie::getImdbId).containsExactly("1", "2");
+        assertThat(firstPageAgain.hasPrevious()).isFalse();
+        assertThat(firstPageAgain.hasNext()).isTrue();
+        assertThat(firstPageAgain.getPreviousCursor()).isNull();
+    }
+
+    @Test
+    void should_find_cursor_page_with_filter() {
+        JsonApiQuery query = JsonApiQuery.parse("filter[title]=C&page[size]=2");
+
+        JsonApiCursorPage<Movie> page = JsonApiSpecifications.findCursorPage(entityManager, Movie.class,
+                JsonApiSpecifications.filter(query, "title"), query, SORT, 10);
+
+        assertThat(page.getContent()).extracting(Movie::getImdbId).containsExactly("4", "5");
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void should_create_entity_graph_of_includes() {
+        EntityGraph<Movie> entityGraph = JsonApiEntityGraphs.create(entityManager, Movie.class,
+                JsonApiQuery.parse("include=directors.movies,directors"), "directors.movies");
+
+        assertThat(entityGraph.getAttributeNodes()).extracting(AttributeNode::getAttributeName)
+                .containsExactly("directors");
+        Subgraph<?> directorsSubgraph =
+                entityGraph.getAttributeNodes().get(0).getSubgraphs().values().iterator().next();
+        assertThat(directorsSubgraph.getAttributeNodes()).extracting(AttributeNode::getAttributeName)
+                .containsExactly("movies");
+    }
+
+    @Test
+    void should_not_create_entity_graph_with_unsupported_include() {
+        JsonApiQuery query = JsonApiQuery.parse("include=directors.awards");
+
+        assertThatThrownBy(() -> JsonApiEntityGraphs.create(entityManager, Movie.class, query, "directors"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("directors.awards");
+    }
+
+    private JsonApiCursorPage<Movie> findCursorPage(String queryString) {
+        return JsonApiSpecifications.findCursorPage(entityManager, Movie.class, null,
+                JsonApiQuery.parse(queryString + "&page[size]=2"), SORT, 10);
+    }
+}
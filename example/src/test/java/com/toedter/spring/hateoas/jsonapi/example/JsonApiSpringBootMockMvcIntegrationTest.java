@@ -78,4 +78,13 @@ public class JsonApiSpringBootMockMvcIntegrationTest {
                 .andExpect(jsonPath("$.data.attributes.rating", is(9.3)))
                 .andExpect(jsonPath("$.links.self", is("http://localhost/api/movies/1")));
     }
+
+    @Test
+    void should_reject_unsupported_include() throws Exception {
+        this.mockMvc
+                .perform(get("/api/movies?include=directors.movies").accept(JSON_API))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].status", is("400")))
+                .andExpect(jsonPath("$.errors[0].source.parameter", is("include")));
+    }
 }
@@ -16,67 +16,221 @@
 
 package com.toedter.spring.hateoas.jsonapi;
 
+import com.fasterxml.jackson.core.JsonLocation;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
 import com.fasterxml.jackson.databind.deser.std.ContainerDeserializerBase;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.hateoas.mediatype.JacksonHelper;
 import org.springframework.hateoas.mediatype.PropertyUtils;
 import org.springframework.lang.Nullable;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 abstract class AbstractJsonApiModelDeserializer<T> extends ContainerDeserializerBase<T>
         implements ContextualDeserializer {
 
     protected final JavaType contentType;
+    protected final JsonApiConfiguration jsonApiConfiguration;
 
-    AbstractJsonApiModelDeserializer() {
-        this(TypeFactory.defaultInstance().constructSimpleType(JsonApiDocument.class, new JavaType[0]));
+    AbstractJsonApiModelDeserializer(JsonApiConfiguration jsonApiConfiguration) {
+        this(TypeFactory.defaultInstance().constructSimpleType(JsonApiDocument.class, new JavaType[0]),
+                jsonApiConfiguration);
     }
 
-    protected AbstractJsonApiModelDeserializer(JavaType contentType) {
+    protected AbstractJsonApiModelDeserializer(JavaType contentType, JsonApiConfiguration jsonApiConfiguration) {
         super(contentType);
         this.contentType = contentType;
+        this.jsonApiConfiguration = jsonApiConfiguration;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        JsonApiDocument doc = p.getCodec().readValue(p, JsonApiDocument.class);
+        final JsonApiEvents.Deserialization event = JsonApiEvents.beginDeserialization();
+        final long startOffset = getOffset(p.getTokenLocation());
+        final JavaType rootType = JacksonHelper.findRootType(this.contentType);
+        final boolean columnar = isCollection() && JsonApiColumnar.isEnabled(ctxt);
+        JsonApiDocument doc = new JsonApiDocumentReader(rootType.getRawClass(), columnar, jsonApiConfiguration).read(p, ctxt);
+        JsonApiEvents.endDeserialization(event, doc, getOffset(p.getCurrentLocation()) - startOffset);
+
         if (doc.getData() != null && doc.getData() instanceof Collection<?>) {
-            List<HashMap<String, Object>> collection = (List<HashMap<String, Object>>) doc.getData();
-            List<Object> resources = collection.stream()
-                    .map(this::convertToResource)
-                    .collect(Collectors.toList());
+            List<Map<String, Object>> collection = (List<Map<String, Object>>) doc.getData();
+            List<Object> resources = bindResources(p, collection, rootType.getRawClass());
             return convertToRepresentationModel(resources, doc);
         }
-        HashMap<String, Object> data = (HashMap<String, Object>) doc.getData();
-        final Object objectFromProperties = convertToResource(data);
+        Map<String, Object> data = (Map<String, Object>) doc.getData();
+        final Object objectFromProperties = toResource(data, rootType.getRawClass());
         return convertToRepresentationModel(Collections.singletonList(objectFromProperties), doc);
     }
 
-    private Object convertToResource(HashMap<String, Object> data) {
+    /**
+     * Binds the resource objects of a collection, including their relationships.
+     * All resources are bound, so the errors of all invalid resources are reported at once.
+     */
+    private List<Object> bindResources(JsonParser p, List<Map<String, Object>> data, Class<?> resourceClass)
+            throws JsonMappingException {
+        final Object[] resources = new Object[data.size()];
+        final JsonApiError[] errors = new JsonApiError[data.size()];
+        if (data.size() < Math.max(jsonApiConfiguration.getRequestParallelBindingThreshold(), 2)) {
+            bindResources(data, resourceClass, resources, errors, 0, data.size());
+        } else {
+            bindResourcesInParallel(data, resourceClass, resources, errors,
+                    jsonApiConfiguration.getRequestBindingExecutor());
+        }
+
+        JsonApiErrors jsonApiErrors = null;
+        for (JsonApiError error : errors) {
+            if (error != null) {
+                jsonApiErrors = jsonApiErrors == null ? new JsonApiErrors(error) : jsonApiErrors.withError(error);
+            }
+        }
+        if (jsonApiErrors != null) {
+            final JsonApiErrorException errorException = new JsonApiErrorException(jsonApiErrors);
+            throw JsonMappingException.from(p, errorException.getMessage(), errorException);
+        }
+        return Arrays.asList(resources);
+    }
+
+    private static void bindResources(List<Map<String, Object>> data, Class<?> resourceClass,
+                                      Object[] resources, JsonApiError[] errors, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final Map<String, Object> resourceObject = data.get(i);
+            try {
+                final Object resource = toResource(resourceObject, resourceClass);
+                final Object relationships = resourceObject == null ? null : resourceObject.get("relationships");
+                if (resource != null && relationships instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> relationshipMap = (Map<String, Object>) relationships;
+                    JsonApiEntityModelDeserializer.setRelationships(resource, relationshipMap);
+                }
+                resources[i] = resource;
+            } catch (RuntimeException e) {
+                final String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                errors[i] = JsonApiError.create()
+                        .withStatus("400")
+                        .withTitle("Invalid resource")
+                        .withDetail("JSON:API resource " + i + " cannot be bound to "
+                                + resourceClass.getSimpleName() + (cause == null ? "!" : ": " + cause))
+                        .withSourcePointer(getPointer(i, e));
+            }
+        }
+    }
+
+    /**
+     * Returns the pointer to the relationship or attribute that could not be bound,
+     * or to the resource object, if the member is not known.
+     */
+    private static String getPointer(int index, RuntimeException e) {
+        final String pointer = "/data/" + index;
+        if (e instanceof JsonApiEntityModelDeserializer.RelationshipBindingException) {
+            return pointer + "/relationships/"
+                    + escape(((JsonApiEntityModelDeserializer.RelationshipBindingException) e).getRelationshipName());
+        }
+        if (e instanceof RuntimeJsonMappingException && e.getCause() instanceof JsonMappingException) {
+            final List<JsonMappingException.Reference> path = ((JsonMappingException) e.getCause()).getPath();
+            if (!path.isEmpty()) {
+                final StringBuilder memberPointer = new StringBuilder(pointer).append("/attributes");
+                for (JsonMappingException.Reference reference : path) {
+                    memberPointer.append('/').append(reference.getFieldName() != null
+                            ? escape(reference.getFieldName()) : String.valueOf(reference.getIndex()));
+                }
+                return memberPointer.toString();
+            }
+        }
+        return pointer;
+    }
+
+    private static String escape(String memberName) {
+        return memberName.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static void bindResourcesInParallel(List<Map<String, Object>> data, Class<?> resourceClass,
+                                                Object[] resources, JsonApiError[] errors, Executor executor) {
+        // every chunk writes to its own range of the arrays, so the order of the resources is preserved
+        final int chunks = Math.min(data.size(), Runtime.getRuntime().availableProcessors());
+        final int chunkSize = (data.size() + chunks - 1) / chunks;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < data.size(); from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, data.size());
+            futures.add(CompletableFuture.runAsync(
+                    () -> bindResources(data, resourceClass, resources, errors, chunkFrom, chunkTo),
+                    executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Creates an instance of the resource class from the attributes, id and type of a resource object.
+     */
+    @Nullable
+    static Object toResource(@Nullable Map<String, Object> data, Class<?> resourceClass) {
         if (data == null) {
             return null;
         }
         @SuppressWarnings("unchecked")
         Map<String, Object> attributes = (Map<String, Object>) data.get("attributes");
-        JavaType rootType = JacksonHelper.findRootType(this.contentType);
-        final Object objectFromProperties = PropertyUtils.createObjectFromProperties(rootType.getRawClass(), attributes);
+        final Object objectFromProperties;
+        try {
+            objectFromProperties = PropertyUtils.createObjectFromProperties(resourceClass, attributes);
+        } catch (RuntimeException e) {
+            throw new RuntimeJsonMappingException(withAttributePath(e, resourceClass, attributes));
+        }
         JsonApiResource.setJsonApiResourceFieldAttributeForObject(objectFromProperties, JsonApiResource.JsonApiResourceField.id, (String) data.get("id"));
         JsonApiResource.setJsonApiResourceFieldAttributeForObject(objectFromProperties, JsonApiResource.JsonApiResourceField.type, (String) data.get("type"));
         return objectFromProperties;
     }
 
+    /**
+     * Finds the attribute that cannot be set by setting the attributes one by one,
+     * and reports it in the path of the returned exception. Only called if the binding failed.
+     */
+    private static JsonMappingException withAttributePath(RuntimeException e, Class<?> resourceClass,
+                                                          @Nullable Map<String, Object> attributes) {
+        final JsonMappingException mappingException = JsonMappingException.from((JsonParser) null, e.getMessage(), e);
+        try {
+            PropertyUtils.createObjectFromProperties(resourceClass, Collections.emptyMap());
+        } catch (RuntimeException instantiationException) {
+            // the resource itself cannot be created, so no attribute is to blame
+            return mappingException;
+        }
+        if (attributes != null) {
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                try {
+                    PropertyUtils.createObjectFromProperties(resourceClass,
+                            Collections.singletonMap(attribute.getKey(), attribute.getValue()));
+                } catch (RuntimeException attributeException) {
+                    mappingException.prependPath(resourceClass, attribute.getKey());
+                    break;
+                }
+            }
+        }
+        return mappingException;
+    }
+
+    private static long getOffset(JsonLocation location) {
+        // byte offsets are only known for byte based input, fall back to char offsets otherwise
+        final long byteOffset = location.getByteOffset();
+        return byteOffset >= 0 ? byteOffset : location.getCharOffset();
+    }
+
     abstract protected T convertToRepresentationModel(List<Object> resources, JsonApiDocument doc);
 
+    protected boolean isCollection() {
+        return false;
+    }
+
     @Override
     public JavaType getContentType() {
         return this.contentType;
@@ -24,6 +24,7 @@ import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.RepresentationModel;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +42,7 @@ abstract class AbstractJsonApiModelSerializer<T extends RepresentationModel<?>>
 
     @Override
     public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        final JsonApiEvents.Serialization event = JsonApiEvents.beginSerialization();
 
         CollectionModel<?> collectionModel = null;
         if (value instanceof JsonApiModel) {
@@ -52,18 +54,59 @@ abstract class AbstractJsonApiModelSerializer<T extends RepresentationModel<?>>
             collectionModel = (CollectionModel<?>) value;
         }
 
+        final List<Object> includedEntities = value instanceof JsonApiModel
+                ? ((JsonApiModel) value).getIncludedEntities(jsonApiConfiguration) : null;
+        JsonApiResponseBudget.check(collectionModel == null ? null : collectionModel.getContent(),
+                includedEntities, jsonApiConfiguration);
+
+        final JsonApiResponseBudget budget = new JsonApiResponseBudget(jsonApiConfiguration);
+        final long dataStart = JsonApiTimings.start();
         Object data;
-        if (collectionModel != null) {
-            data = JsonApiData.extractCollectionContent(collectionModel, jsonApiConfiguration);
-        } else {
-            final Optional<JsonApiData> jsonApiData = JsonApiData.extractContent(value, true, jsonApiConfiguration);
-            data = jsonApiData.orElse(null);
+        try {
+            if (collectionModel != null) {
+                final JsonApiResourceTemplate resourceTemplate =
+                        value instanceof JsonApiModel ? ((JsonApiModel) value).getResourceTemplate() : null;
+                if (JsonApiColumnar.isEnabled(provider)) {
+                    final JsonApiColumnar.Columns columns = new JsonApiColumnar.Columns(
+                            Math.min(collectionModel.getContent().size(), jsonApiConfiguration.getMaxDataResources()));
+                    budget.extract(collectionModel.getContent(), JsonApiResponseBudget.Part.DATA,
+                            jsonApiData -> columns.add(
+                                    resourceTemplate != null ? resourceTemplate.applyTo(jsonApiData) : jsonApiData));
+                    JsonApiTimings.countResources(dataStart, columns.size());
+                    data = columns.toData();
+                } else {
+                    final List<JsonApiData> dataList =
+                            budget.extract(collectionModel.getContent(), JsonApiResponseBudget.Part.DATA);
+                    if (resourceTemplate != null) {
+                        dataList.replaceAll(resourceTemplate::applyTo);
+                    }
+                    JsonApiTimings.countResources(dataStart, dataList.size());
+                    data = dataList;
+                }
+            } else {
+                final Optional<JsonApiData> jsonApiData = JsonApiData.extractContent(value, true, jsonApiConfiguration);
+                jsonApiData.ifPresent(budget::reserve);
+                JsonApiTimings.countResources(dataStart, jsonApiData.isPresent() ? 1 : 0);
+                data = jsonApiData.orElse(null);
+            }
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.DATA, dataStart);
+        }
+
+        final long includedStart = JsonApiTimings.start();
+        final List<JsonApiData> included;
+        try {
+            included = includedEntities == null
+                    ? null : budget.extract(includedEntities, JsonApiResponseBudget.Part.INCLUDED);
+            JsonApiTimings.countIncluded(includedStart, included == null ? 0 : included.size());
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.INCLUDED, includedStart);
         }
 
         JsonApiDocument doc = new JsonApiDocument()
                 .withData(data)
-                .withLinks(getLinksOrNull(value))
-                .withIncluded(getIncluded(value));
+                .withLinks(budget.withNextLink(getLinksOrNull(value)))
+                .withIncluded(included);
 
         if (jsonApiConfiguration.isJsonApiVersionRendered()) {
             doc = doc.withJsonapi(new JsonApiJsonApi());
@@ -81,18 +124,37 @@ abstract class AbstractJsonApiModelSerializer<T extends RepresentationModel<?>>
             if(doc.getMeta() == null ) {
                 doc = doc.withMeta(metaData);
             } else {
-                final Map<String, Object> meta = doc.getMeta();
+                // the meta of built models is immutable
+                final Map<String, Object> meta = new HashMap<>();
+                meta.putAll(doc.getMeta());
                 // add/override with meta data created with builder
                 // this will override the previous generated page meta data, if the key is the same
                 for( Map.Entry entry: metaData.entrySet()) {
                     meta.put(entry.getKey().toString(), entry.getValue());
                 }
+                doc = doc.withMeta(meta);
+            }
+        }
+
+        if (budget.isTruncated()) {
+            final Map<String, Object> meta = new HashMap<>();
+            if (doc.getMeta() != null) {
+                meta.putAll(doc.getMeta());
             }
+            meta.put(JsonApiResponseBudget.TRUNCATION, budget.getTruncationMeta());
+            doc = doc.withMeta(meta);
+        }
+
+        final long writeStart = JsonApiTimings.start();
+        try {
+            provider
+                    .findValueSerializer(JsonApiDocument.class)
+                    .serialize(doc, gen, provider);
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.WRITE, writeStart);
         }
 
-        provider
-                .findValueSerializer(JsonApiDocument.class)
-                .serialize(doc, gen, provider);
+        JsonApiEvents.endSerialization(event, value.getClass(), data, included);
     }
 
     Links getLinksOrNull(RepresentationModel<?> representationModel) {
@@ -102,13 +164,4 @@ abstract class AbstractJsonApiModelSerializer<T extends RepresentationModel<?>>
         }
         return links;
     }
-
-    private List<JsonApiData> getIncluded(RepresentationModel<?> representationModel) {
-        if (representationModel instanceof JsonApiModel) {
-            final List<RepresentationModel<?>> includedEntities = ((JsonApiModel) representationModel).getIncludedEntities();
-            final CollectionModel<RepresentationModel<?>> collectionModel = CollectionModel.of(includedEntities);
-            return JsonApiData.extractCollectionContent(collectionModel, jsonApiConfiguration);
-        }
-        return null;
-    }
 }
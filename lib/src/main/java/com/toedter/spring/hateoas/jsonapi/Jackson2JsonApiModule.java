@@ -22,6 +22,11 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.springframework.hateoas.*;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
 /**
  * Jackson {@link SimpleModule} for {@literal JSON:API} serializers and deserializers.
  *
@@ -44,6 +49,12 @@ public class Jackson2JsonApiModule extends SimpleModule {
         // Links has no default constructor so we cannot use a Mixin
         addSerializer(Links.class, new JsonApiLinksSerializer());
         addDeserializer(Links.class, new JsonApiLinksDeserializer());
+
+        // number buffers are written without boxing their elements
+        addSerializer(DoubleBuffer.class, new JsonApiBufferSerializer());
+        addSerializer(LongBuffer.class, new JsonApiBufferSerializer());
+        addSerializer(IntBuffer.class, new JsonApiBufferSerializer());
+        addSerializer(FloatBuffer.class, new JsonApiBufferSerializer());
     }
 
     @JsonSerialize(using = JsonApiEntityModelSerializer.class)
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Builds a JSON:API representation with relationships, included resources and meta
+ * that are looked up asynchronously, e.g. with
+ * <code>
+ * jsonApiModel().model(movie).async()
+ * .relationship("directors", directorService.findByMovie(movie))
+ * .relationship("genres", genreService.findByMovie(movie))
+ * .build()
+ * </code>
+ * All lookups run concurrently, the returned {@link CompletionStage} completes
+ * when the last of them is completed. The results are added in the order of the method calls,
+ * so the rendered document does not depend on which lookup completes first.
+ * If one of the lookups completes exceptionally, the returned stage completes exceptionally, too.
+ * <p>
+ * NOTE: A builder is meant to build one model and is not thread-safe.
+ *
+ * @author Kai Toedter
+ */
+public class JsonApiAsyncModelBuilder {
+    private final JsonApiModelBuilder builder;
+    private final List<CompletableFuture<Consumer<JsonApiModelBuilder>>> parts = new ArrayList<>();
+
+    JsonApiAsyncModelBuilder(JsonApiModelBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Adds or updates a {@literal relationship} with the data of the given {@link CompletionStage}.
+     * The data can be an object, an {@link EntityModel}, a {@link java.util.Collection}
+     * or {@literal null}, if there is no related resource,
+     * see {@link JsonApiModelBuilder#relationship(String, Object)}.
+     *
+     * @param name  must not be {@literal null}.
+     * @param stage must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiAsyncModelBuilder relationship(String name, CompletionStage<?> stage) {
+        Assert.notNull(name, "relationship name must not be null!");
+        return add(stage, data -> modelBuilder -> modelBuilder.resolvedRelationship(name, data));
+    }
+
+    /**
+     * Adds the resources of the given {@link CompletionStage} to the {@literal included} resources.
+     * The stage can complete with an object, an {@link EntityModel}, an {@link Iterable} of them
+     * or {@literal null}.
+     *
+     * @param stage must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiAsyncModelBuilder included(CompletionStage<?> stage) {
+        return add(stage, resources -> modelBuilder -> modelBuilder.resolvedIncluded(resources));
+    }
+
+    /**
+     * Adds the value of the given {@link CompletionStage} to the {@literal JSON:API} meta.
+     *
+     * @param key   must not be {@literal null}.
+     * @param stage must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiAsyncModelBuilder meta(String key, CompletionStage<?> stage) {
+        Assert.notNull(key, "meta key must not be null!");
+        return add(stage, value -> modelBuilder -> modelBuilder.meta(key, value));
+    }
+
+    private JsonApiAsyncModelBuilder add(
+            CompletionStage<?> stage, Function<Object, Consumer<JsonApiModelBuilder>> part) {
+        Assert.notNull(stage, "CompletionStage must not be null!");
+        parts.add(stage.toCompletableFuture().thenApply(part));
+        return this;
+    }
+
+    /**
+     * Creates the {@link RepresentationModel} when all lookups are completed.
+     *
+     * @return will never be {@literal null}.
+     */
+    public CompletionStage<RepresentationModel<?>> build() {
+        final List<CompletableFuture<Consumer<JsonApiModelBuilder>>> allParts = new ArrayList<>(parts);
+        return CompletableFuture.allOf(allParts.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    for (CompletableFuture<Consumer<JsonApiModelBuilder>> part : allParts) {
+                        part.join().accept(builder);
+                    }
+                    return builder.build();
+                });
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.*;
+
+/**
+ * A single operation of a JSON:API Atomic Operations request, see {@link JsonApiAtomicOperations}.
+ * <p>
+ * An operation targets either a resource, identified by {@link #getType()} and {@link #getId()},
+ * or a relationship of a resource, if {@link #getRelationship()} is set.
+ * Local ids ({@literal lid}) that refer to resources added by previous operations of the same request
+ * are replaced by the ids of these resources before the operation is handled.
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiAtomicOperation {
+    private static final String ID = "id";
+    private static final String LID = "lid";
+
+    /**
+     * The kind of an atomic operation.
+     */
+    public enum Op {
+        ADD, UPDATE, REMOVE
+    }
+
+    private final int index;
+    private final Op op;
+    private final Map<String, Object> ref;
+    private final String href;
+    private final Object data;
+    private final Map<String, Object> meta;
+
+    JsonApiAtomicOperation(int index, Op op, @Nullable Map<String, Object> ref, @Nullable String href,
+                           @Nullable Object data, @Nullable Map<String, Object> meta) {
+        this.index = index;
+        this.op = op;
+        this.ref = ref;
+        this.href = href;
+        this.data = data;
+        this.meta = meta;
+    }
+
+    /**
+     * Returns the position of the operation in the request.
+     *
+     * @return the zero based index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the kind of the operation.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Returns the JSON:API type of the target resource, taken from {@literal ref} or {@literal data}.
+     *
+     * @return can be {@literal null}.
+     */
+    @Nullable
+    public String getType() {
+        return getTargetMember("type");
+    }
+
+    /**
+     * Returns the id of the target resource, taken from {@literal ref} or {@literal data}.
+     * A local id of a resource added by a previous operation is already resolved.
+     *
+     * @return {@literal null} for resources to be added without client generated id.
+     */
+    @Nullable
+    public String getId() {
+        return getTargetMember(ID);
+    }
+
+    /**
+     * Returns the local id of a resource to be added,
+     * which can be used by the following operations of the request.
+     *
+     * @return can be {@literal null}.
+     */
+    @Nullable
+    public String getLid() {
+        return op == Op.ADD && ref == null && data instanceof Map ? (String) ((Map<?, ?>) data).get(LID) : null;
+    }
+
+    /**
+     * Returns the name of the target relationship.
+     *
+     * @return {@literal null} if the operation targets a resource.
+     */
+    @Nullable
+    public String getRelationship() {
+        return ref == null ? null : (String) ref.get("relationship");
+    }
+
+    /**
+     * Returns the {@literal href} of the target.
+     *
+     * @return can be {@literal null}.
+     */
+    @Nullable
+    public String getHref() {
+        return href;
+    }
+
+    /**
+     * Returns the {@literal meta} of the operation.
+     *
+     * @return can be {@literal null}.
+     */
+    @Nullable
+    public Map<String, Object> getMeta() {
+        return meta;
+    }
+
+    /**
+     * Creates the resource of the operation data, with the same binding as the
+     * {@literal EntityModel} deserialization, including {@link JsonApiRelationships} fields.
+     *
+     * @param resourceClass must not be {@literal null}.
+     * @param <T> the type of the resource.
+     * @return {@literal null} if the operation has no resource object as data.
+     */
+    @Nullable
+    public <T> T getResource(Class<T> resourceClass) {
+        Assert.notNull(resourceClass, "resource class must not be null!");
+        if (getRelationship() != null || !(data instanceof Map)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> resourceObject = (Map<String, Object>) data;
+        final Object resource = AbstractJsonApiModelDeserializer.toResource(resourceObject, resourceClass);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> relationships = (Map<String, Object>) resourceObject.get("relationships");
+        if (resource != null && relationships != null) {
+            JsonApiEntityModelDeserializer.setRelationships(resource, relationships);
+        }
+        return resourceClass.cast(resource);
+    }
+
+    /**
+     * Returns the ids of the related resources of a relationship operation.
+     *
+     * @return will never be {@literal null}, empty if the relationship is cleared
+     * or the operation does not target a relationship.
+     */
+    public List<String> getRelatedIds() {
+        if (getRelationship() == null || data == null) {
+            return Collections.emptyList();
+        }
+        List<String> ids = new ArrayList<>();
+        for (Object identifier : data instanceof List ? (List<?>) data : Collections.singletonList(data)) {
+            if (identifier instanceof Map) {
+                ids.add((String) ((Map<?, ?>) identifier).get(ID));
+            }
+        }
+        return ids;
+    }
+
+    @Nullable
+    private String getTargetMember(String name) {
+        if (ref != null) {
+            return (String) ref.get(name);
+        }
+        return data instanceof Map ? (String) ((Map<?, ?>) data).get(name) : null;
+    }
+
+    /**
+     * Replaces all local ids of the operation by the ids of the resources added before.
+     */
+    void resolveLocalIds(Map<String, String> ids) {
+        final String pointer = "/atomic:operations/" + index;
+        if (ref != null) {
+            resolveLocalId(ref, ids, pointer + "/ref");
+        }
+        if (data instanceof List) {
+            List<?> identifiers = (List<?>) data;
+            for (int i = 0; i < identifiers.size(); i++) {
+                resolveLocalId(identifiers.get(i), ids, pointer + "/data/" + i);
+            }
+        } else if (data instanceof Map) {
+            Map<?, ?> resourceObject = (Map<?, ?>) data;
+            // the local id of a resource to be added is declared, not referenced
+            if (getLid() == null) {
+                resolveLocalId(resourceObject, ids, pointer + "/data");
+            }
+            if (getRelationship() == null && resourceObject.get("relationships") instanceof Map) {
+                resolveRelationshipLocalIds((Map<?, ?>) resourceObject.get("relationships"), ids,
+                        pointer + "/data/relationships/");
+            }
+        }
+    }
+
+    private static void resolveRelationshipLocalIds(Map<?, ?> relationships, Map<String, String> ids, String pointer) {
+        for (Map.Entry<?, ?> relationship : relationships.entrySet()) {
+            if (!(relationship.getValue() instanceof Map)) {
+                continue;
+            }
+            final String relationshipPointer = pointer + relationship.getKey() + "/data";
+            Object linkage = ((Map<?, ?>) relationship.getValue()).get("data");
+            if (linkage instanceof List) {
+                List<?> identifiers = (List<?>) linkage;
+                for (int i = 0; i < identifiers.size(); i++) {
+                    resolveLocalId(identifiers.get(i), ids, relationshipPointer + "/" + i);
+                }
+            } else {
+                resolveLocalId(linkage, ids, relationshipPointer);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void resolveLocalId(@Nullable Object identifier, Map<String, String> ids, String pointer) {
+        if (!(identifier instanceof Map) || !((Map<?, ?>) identifier).containsKey(LID)) {
+            return;
+        }
+        Map<String, Object> resourceIdentifier = (Map<String, Object>) identifier;
+        final String id = ids.get((String) resourceIdentifier.get(LID));
+        if (id == null) {
+            throw new JsonApiErrorException(JsonApiError.create()
+                    .withStatus("400")
+                    .withTitle("Invalid local id")
+                    .withDetail("JSON:API local id " + resourceIdentifier.get(LID)
+                            + " does not refer to a resource added by a previous operation!")
+                    .withSourcePointer(pointer + "/" + LID));
+        }
+        resourceIdentifier.remove(LID);
+        resourceIdentifier.put(ID, id);
+    }
+}
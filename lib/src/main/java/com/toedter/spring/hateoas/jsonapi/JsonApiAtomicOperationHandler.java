@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Handles a single operation of a JSON:API Atomic Operations request,
+ * see {@link JsonApiAtomicOperations#execute(JsonApiAtomicOperationHandler)}.
+ *
+ * @author Kai Toedter
+ */
+@FunctionalInterface
+public interface JsonApiAtomicOperationHandler {
+
+    /**
+     * Handles the given operation, e.g. by dispatching it to a repository.
+     *
+     * @param operation will never be {@literal null}.
+     * @return the resource to be rendered as result data, like an entity, an {@literal EntityModel}
+     * or a {@link JsonApiModel}, {@literal null} for an empty result.
+     * The resource returned for an {@literal add} operation with local id must have the JSON:API id.
+     */
+    @Nullable
+    Object handle(JsonApiAtomicOperation operation);
+}
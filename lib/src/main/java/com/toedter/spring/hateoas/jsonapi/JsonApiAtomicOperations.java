@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * The operations of a JSON:API Atomic Operations request
+ * ({@literal ext="https://jsonapi.org/ext/atomic"}), which can be used as request body
+ * of Spring MVC and Spring WebFlux controller methods, e.g.
+ * <code>
+ * ResponseEntity&lt;JsonApiAtomicResults&gt; operations(@RequestBody JsonApiAtomicOperations operations)
+ * </code>
+ * The operations are executed in order by {@link #execute(JsonApiAtomicOperationHandler, JsonApiAtomicTransaction)},
+ * which resolves the local ids of resources added by previous operations and can run all operations
+ * in a single transaction.
+ *
+ * @author Kai Toedter
+ */
+@JsonDeserialize(using = JsonApiAtomicOperationsDeserializer.class)
+public final class JsonApiAtomicOperations {
+    private final List<JsonApiAtomicOperation> operations;
+    private final JsonApiConfiguration jsonApiConfiguration;
+
+    JsonApiAtomicOperations(List<JsonApiAtomicOperation> operations, JsonApiConfiguration jsonApiConfiguration) {
+        this.operations = Collections.unmodifiableList(operations);
+        this.jsonApiConfiguration = jsonApiConfiguration;
+    }
+
+    /**
+     * Returns the operations in the requested order.
+     *
+     * @return will never be {@literal null}.
+     */
+    public List<JsonApiAtomicOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Executes all operations in order, without a transaction.
+     *
+     * @param handler must not be {@literal null}.
+     * @return the results in the order of the operations, will never be {@literal null}.
+     * @see #execute(JsonApiAtomicOperationHandler, JsonApiAtomicTransaction)
+     */
+    public JsonApiAtomicResults execute(JsonApiAtomicOperationHandler handler) {
+        return execute(handler, Supplier::get);
+    }
+
+    /**
+     * Executes all operations in order within the given transaction.
+     * <p>
+     * Before an operation is handled, its local ids are replaced by the ids of the resources
+     * returned by the handler for the previous {@literal add} operations.
+     * If an operation fails, the exception is propagated, so the transaction can be rolled back.
+     *
+     * @param handler must not be {@literal null}.
+     * @param transaction must not be {@literal null}.
+     * @return the results in the order of the operations, will never be {@literal null}.
+     */
+    public JsonApiAtomicResults execute(JsonApiAtomicOperationHandler handler, JsonApiAtomicTransaction transaction) {
+        Assert.notNull(handler, "handler must not be null!");
+        Assert.notNull(transaction, "transaction must not be null!");
+        return transaction.execute(() -> {
+            Map<String, String> ids = new HashMap<>();
+            List<Object> results = new ArrayList<>(operations.size());
+            for (JsonApiAtomicOperation operation : operations) {
+                operation.resolveLocalIds(ids);
+                final Object result = handler.handle(operation);
+                final String lid = operation.getLid();
+                if (lid != null && result != null) {
+                    ids.put(lid, getId(result));
+                }
+                results.add(result);
+            }
+            return new JsonApiAtomicResults(results);
+        });
+    }
+
+    private String getId(Object result) {
+        Object content = result;
+        if (content instanceof JsonApiModel) {
+            content = ((JsonApiModel) content).getContent();
+        }
+        if (content instanceof EntityModel) {
+            content = ((EntityModel<?>) content).getContent();
+        }
+        Assert.notNull(content, "result of an add operation with local id must contain a resource!");
+        return JsonApiResource.getId(content, jsonApiConfiguration).value;
+    }
+
+    /**
+     * Checks if the given media type requests the Atomic Operations extension.
+     */
+    static boolean isRequested(@Nullable MimeType mimeType) {
+        return MediaTypes.isExtensionRequested(mimeType, MediaTypes.ATOMIC_EXTENSION);
+    }
+}
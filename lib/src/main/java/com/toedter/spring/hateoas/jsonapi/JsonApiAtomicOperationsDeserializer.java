@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.*;
+
+class JsonApiAtomicOperationsDeserializer extends StdDeserializer<JsonApiAtomicOperations> {
+    static final String ATOMIC_OPERATIONS = "atomic:operations";
+
+    private final JsonApiConfiguration jsonApiConfiguration;
+
+    JsonApiAtomicOperationsDeserializer() {
+        this(new JsonApiConfiguration());
+    }
+
+    JsonApiAtomicOperationsDeserializer(JsonApiConfiguration jsonApiConfiguration) {
+        super(JsonApiAtomicOperations.class);
+        this.jsonApiConfiguration = jsonApiConfiguration;
+    }
+
+    @Override
+    public JsonApiAtomicOperations deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        p = JsonApiDocumentReader.limit(p, jsonApiConfiguration);
+        List<JsonApiAtomicOperation> operations = null;
+
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.getCurrentName();
+            token = p.nextToken();
+            if (ATOMIC_OPERATIONS.equals(name) && token == JsonToken.START_ARRAY) {
+                operations = readOperations(p, ctxt);
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (operations == null) {
+            throw invalid(p, "", "JSON:API atomic operations request must contain an atomic:operations array!");
+        }
+        return new JsonApiAtomicOperations(operations, jsonApiConfiguration);
+    }
+
+    private List<JsonApiAtomicOperation> readOperations(JsonParser p, DeserializationContext ctxt) throws IOException {
+        // each operation carries at most one resource object, so the data limit applies to the operations
+        final int maxOperations = jsonApiConfiguration.getMaxRequestDataResources();
+        List<JsonApiAtomicOperation> operations = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (operations.size() == maxOperations) {
+                throw JsonApiDocumentReader.limitExceeded(p, "JSON:API request must not contain more than "
+                        + maxOperations + " operations!");
+            }
+            operations.add(readOperation(p, ctxt, operations.size()));
+        }
+        return operations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonApiAtomicOperation readOperation(JsonParser p, DeserializationContext ctxt, int index)
+            throws IOException {
+        final String pointer = "/" + ATOMIC_OPERATIONS + "/" + index;
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            throw invalid(p, pointer, "JSON:API atomic operation must be an object!");
+        }
+        String op = null;
+        Map<String, Object> ref = null;
+        String href = null;
+        Object data = null;
+        Map<String, Object> meta = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            JsonToken token = p.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (name) {
+                case "op":
+                    op = p.getValueAsString();
+                    break;
+                case "ref":
+                    ref = ctxt.readValue(p, Map.class);
+                    break;
+                case "href":
+                    href = p.getValueAsString();
+                    break;
+                case "data":
+                    data = ctxt.readValue(p, Object.class);
+                    break;
+                case "meta":
+                    meta = ctxt.readValue(p, Map.class);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+
+        final JsonApiAtomicOperation.Op kind = getOp(op);
+        if (kind == null) {
+            throw invalid(p, pointer + "/op", "JSON:API atomic operation must be add, update or remove!");
+        }
+        if (ref != null && href != null) {
+            throw invalid(p, pointer, "JSON:API atomic operation must not contain both ref and href!");
+        }
+        if (kind == JsonApiAtomicOperation.Op.REMOVE && ref == null && href == null) {
+            throw invalid(p, pointer, "JSON:API remove operation must contain ref or href!");
+        }
+        if (kind != JsonApiAtomicOperation.Op.REMOVE && ref == null && !(data instanceof Map)) {
+            throw invalid(p, pointer + "/data", "JSON:API atomic operation must contain a resource object as data!");
+        }
+        return new JsonApiAtomicOperation(index, kind, ref, href, data, meta);
+    }
+
+    private static JsonApiAtomicOperation.Op getOp(String op) {
+        for (JsonApiAtomicOperation.Op kind : JsonApiAtomicOperation.Op.values()) {
+            if (kind.name().equalsIgnoreCase(op)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    private static JsonMappingException invalid(JsonParser p, String pointer, String detail) {
+        final JsonApiErrorException errorException = new JsonApiErrorException(JsonApiError.create()
+                .withStatus("400")
+                .withTitle("Invalid atomic operation")
+                .withDetail(detail)
+                .withSourcePointer(pointer));
+        return JsonMappingException.from(p, detail, errorException);
+    }
+}
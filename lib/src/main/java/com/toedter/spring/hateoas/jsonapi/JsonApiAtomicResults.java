@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a JSON:API Atomic Operations request, rendered as {@literal atomic:results}.
+ * Each result is rendered as {@literal data} of the resource, {@literal null} results are rendered
+ * as empty result objects.
+ *
+ * @author Kai Toedter
+ */
+@JsonSerialize(using = JsonApiAtomicResultsSerializer.class)
+public final class JsonApiAtomicResults {
+    private final List<Object> results;
+
+    /**
+     * Creates results in the order of the operations.
+     *
+     * @param results must not be {@literal null}, can contain {@literal null} elements.
+     */
+    public JsonApiAtomicResults(List<?> results) {
+        Assert.notNull(results, "results must not be null!");
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+    }
+
+    /**
+     * Returns the results in the order of the operations.
+     *
+     * @return will never be {@literal null}.
+     */
+    public List<Object> getResults() {
+        return results;
+    }
+}
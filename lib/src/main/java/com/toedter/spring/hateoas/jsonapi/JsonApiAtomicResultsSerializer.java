@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+class JsonApiAtomicResultsSerializer extends StdSerializer<JsonApiAtomicResults> {
+    static final String ATOMIC_RESULTS = "atomic:results";
+
+    private final JsonApiConfiguration jsonApiConfiguration;
+
+    JsonApiAtomicResultsSerializer() {
+        this(new JsonApiConfiguration());
+    }
+
+    JsonApiAtomicResultsSerializer(JsonApiConfiguration jsonApiConfiguration) {
+        super(JsonApiAtomicResults.class);
+        this.jsonApiConfiguration = jsonApiConfiguration;
+    }
+
+    @Override
+    public void serialize(JsonApiAtomicResults value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ATOMIC_RESULTS);
+        gen.writeStartArray();
+        for (Object result : value.getResults()) {
+            gen.writeStartObject();
+            if (result != null) {
+                // there is no top level document, so the resource links are rendered with the resource
+                final Optional<JsonApiData> data = JsonApiData.extractContent(result, false, jsonApiConfiguration);
+                gen.writeFieldName("data");
+                if (data.isPresent()) {
+                    provider.findValueSerializer(JsonApiData.class).serialize(data.get(), gen, provider);
+                } else {
+                    gen.writeNull();
+                }
+                if (result instanceof JsonApiModel) {
+                    final Map<String, Object> metaData = ((JsonApiModel) result).getMetaData();
+                    if (metaData != null && !metaData.isEmpty()) {
+                        provider.defaultSerializeField("meta", metaData, gen);
+                    }
+                }
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
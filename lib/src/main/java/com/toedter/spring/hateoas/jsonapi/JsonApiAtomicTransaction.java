@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs all operations of a JSON:API Atomic Operations request as one unit of work,
+ * e.g. with a Spring {@literal TransactionTemplate}:
+ * <code>
+ * operations.execute(handler, work -&gt; transactionTemplate.execute(status -&gt; work.get()))
+ * </code>
+ *
+ * @author Kai Toedter
+ */
+@FunctionalInterface
+public interface JsonApiAtomicTransaction {
+
+    /**
+     * Executes the given operations, which must either all succeed or all fail.
+     *
+     * @param operations will never be {@literal null}.
+     * @return the results of the operations.
+     */
+    JsonApiAtomicResults execute(Supplier<JsonApiAtomicResults> operations);
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.*;
+import java.util.Map;
+
+/**
+ * Converts resource objects to their JSON:API attribute maps.
+ * <p>
+ * Values that should be rendered as they are, like raw JSON text, token buffers,
+ * primitive arrays and {@literal java.nio} buffers, are kept as embedded objects during the conversion,
+ * so they are not parsed into maps and lists of boxed values and are written directly into the output later.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiAttributes {
+    private static final ObjectMapper ATTRIBUTES_MAPPER = new ObjectMapper()
+            .registerModule(new SimpleModule("json-api-attributes")
+                    .addSerializer(TokenBuffer.class, new EmbeddedValueSerializer<TokenBuffer>(TokenBuffer.class) {
+                        @Override
+                        void write(TokenBuffer value, JsonGenerator generator) throws IOException {
+                            value.serialize(generator);
+                        }
+                    })
+                    // primitive arrays would be converted to lists of boxed numbers otherwise
+                    .addSerializer(double[].class, new EmbeddedValueSerializer<double[]>(double[].class) {
+                        @Override
+                        void write(double[] value, JsonGenerator generator) throws IOException {
+                            generator.writeArray(value, 0, value.length);
+                        }
+                    })
+                    .addSerializer(long[].class, new EmbeddedValueSerializer<long[]>(long[].class) {
+                        @Override
+                        void write(long[] value, JsonGenerator generator) throws IOException {
+                            generator.writeArray(value, 0, value.length);
+                        }
+                    })
+                    .addSerializer(int[].class, new EmbeddedValueSerializer<int[]>(int[].class) {
+                        @Override
+                        void write(int[] value, JsonGenerator generator) throws IOException {
+                            generator.writeArray(value, 0, value.length);
+                        }
+                    })
+                    .addSerializer(float[].class, new EmbeddedValueSerializer<float[]>(float[].class) {
+                        @Override
+                        void write(float[] value, JsonGenerator generator) throws IOException {
+                            generator.writeStartArray();
+                            for (float element : value) {
+                                generator.writeNumber(element);
+                            }
+                            generator.writeEndArray();
+                        }
+                    })
+                    .addSerializer(DoubleBuffer.class, new EmbeddedBufferSerializer())
+                    .addSerializer(LongBuffer.class, new EmbeddedBufferSerializer())
+                    .addSerializer(IntBuffer.class, new EmbeddedBufferSerializer())
+                    .addSerializer(FloatBuffer.class, new EmbeddedBufferSerializer()));
+
+    private static final JsonFactory VALIDATION_FACTORY = new JsonFactory();
+
+    private JsonApiAttributes() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> convert(Object content) {
+        return ATTRIBUTES_MAPPER.convertValue(content, Map.class);
+    }
+
+    /**
+     * Converts the content as the given type, e.g. a proxy as its projection interface or proxied class,
+     * so only the properties and Jackson annotations of that type are used.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> convert(Object content, Class<?> serializationType) {
+        TokenBuffer buffer = new TokenBuffer(ATTRIBUTES_MAPPER, false);
+        try {
+            ATTRIBUTES_MAPPER.writerFor(serializationType).writeValue(buffer, content);
+            try (JsonParser parser = buffer.asParser()) {
+                return ATTRIBUTES_MAPPER.readValue(parser, Map.class);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "Cannot convert JSON:API attributes of " + serializationType.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    static void validateRawValues(Map<String, Object> attributes) {
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (entry.getValue() instanceof RawValue) {
+                Object rawValue = ((RawValue) entry.getValue()).rawValue();
+                if (rawValue != null && !isValidJson(rawValue.toString())) {
+                    throw new IllegalStateException(
+                            "JSON:API raw attribute " + entry.getKey() + " does not contain valid JSON!");
+                }
+            }
+        }
+    }
+
+    private static boolean isValidJson(String text) {
+        // streams through the tokens without building a tree
+        try (JsonParser parser = VALIDATION_FACTORY.createParser(text)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Keeps values as embedded objects when converting into a {@link TokenBuffer}.
+     */
+    abstract static class EmbeddedValueSerializer<T> extends StdSerializer<T> {
+
+        EmbeddedValueSerializer(Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (generator instanceof TokenBuffer) {
+                generator.writeEmbeddedObject(value);
+            } else {
+                write(value, generator);
+            }
+        }
+
+        abstract void write(T value, JsonGenerator generator) throws IOException;
+    }
+
+    static class EmbeddedBufferSerializer extends EmbeddedValueSerializer<Buffer> {
+
+        EmbeddedBufferSerializer() {
+            super(Buffer.class);
+        }
+
+        @Override
+        void write(Buffer value, JsonGenerator generator) throws IOException {
+            JsonApiBufferSerializer.write(value, generator);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Creates the object mappers of the binary JSON:API media types {@literal application/vnd.api+smile}
+ * and {@literal application/vnd.api+cbor}, if the corresponding Jackson data formats are on the classpath.
+ * The data format classes are only referenced by nested classes, so they are loaded only if present.
+ * <p>
+ * Binary generators cannot write raw JSON text, so raw values, e.g. of {@link JsonApiRawAttribute}s,
+ * are parsed and their tokens are copied into the binary output.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiBinaryFormats {
+    private static final ClassLoader CLASS_LOADER = JsonApiBinaryFormats.class.getClassLoader();
+    private static final boolean SMILE_PRESENT =
+            ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", CLASS_LOADER);
+    private static final boolean CBOR_PRESENT =
+            ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", CLASS_LOADER);
+    private static final JsonFactory RAW_VALUE_FACTORY = new JsonFactory();
+
+    private JsonApiBinaryFormats() {
+    }
+
+    /**
+     * Creates an object mapper for each binary media type whose data format is available.
+     *
+     * @param configurer configures the created object mappers, e.g. registers the JSON:API module.
+     * @return will never be {@literal null}, but can be empty.
+     */
+    static Map<MediaType, ObjectMapper> createObjectMappers(UnaryOperator<ObjectMapper> configurer) {
+        Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+        if (SMILE_PRESENT) {
+            objectMappers.put(MediaTypes.JSON_API_SMILE,
+                    configurer.apply(Smile.createObjectMapper()).registerModule(createRawValueModule()));
+        }
+        if (CBOR_PRESENT) {
+            objectMappers.put(MediaTypes.JSON_API_CBOR,
+                    configurer.apply(Cbor.createObjectMapper()).registerModule(createRawValueModule()));
+        }
+        return objectMappers;
+    }
+
+    private static Module createRawValueModule() {
+        return new SimpleModule("json-api-binary-raw-values")
+                .addSerializer(RawValue.class, new StdSerializer<RawValue>(RawValue.class) {
+                    @Override
+                    public void serialize(RawValue value, JsonGenerator generator, SerializerProvider provider)
+                            throws IOException {
+                        final Object rawValue = value.rawValue();
+                        if (!(rawValue instanceof CharSequence || rawValue instanceof SerializableString)) {
+                            value.serialize(generator, provider);
+                            return;
+                        }
+                        try (JsonParser parser = RAW_VALUE_FACTORY.createParser(rawValue.toString())) {
+                            if (parser.nextToken() == null) {
+                                generator.writeNull();
+                            } else {
+                                generator.copyCurrentStructure(parser);
+                            }
+                        }
+                    }
+                });
+    }
+
+    private static final class Smile {
+
+        static ObjectMapper createObjectMapper() {
+            // JSON:API documents repeat the same keys and the same type values for every resource,
+            // back-references to already written names and short values keep them out of the payload
+            SmileFactory factory = SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build();
+            return new ObjectMapper(factory);
+        }
+    }
+
+    private static final class Cbor {
+
+        static ObjectMapper createObjectMapper() {
+            return new ObjectMapper(new CBORFactory());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Serializes the remaining elements of {@literal java.nio} number buffers as JSON arrays,
+ * without boxing the elements. The position of the buffer is not changed.
+ *
+ * @author Kai Toedter
+ */
+class JsonApiBufferSerializer extends StdSerializer<Buffer> {
+
+    JsonApiBufferSerializer() {
+        super(Buffer.class);
+    }
+
+    @Override
+    public void serialize(Buffer value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(value, gen);
+    }
+
+    static void write(Buffer value, JsonGenerator gen) throws IOException {
+        final int position = value.position();
+        final int limit = value.limit();
+        if (value instanceof DoubleBuffer) {
+            DoubleBuffer buffer = (DoubleBuffer) value;
+            if (buffer.hasArray()) {
+                gen.writeArray(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+                return;
+            }
+            gen.writeStartArray();
+            for (int i = position; i < limit; i++) {
+                gen.writeNumber(buffer.get(i));
+            }
+            gen.writeEndArray();
+        } else if (value instanceof LongBuffer) {
+            LongBuffer buffer = (LongBuffer) value;
+            if (buffer.hasArray()) {
+                gen.writeArray(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+                return;
+            }
+            gen.writeStartArray();
+            for (int i = position; i < limit; i++) {
+                gen.writeNumber(buffer.get(i));
+            }
+            gen.writeEndArray();
+        } else if (value instanceof IntBuffer) {
+            IntBuffer buffer = (IntBuffer) value;
+            if (buffer.hasArray()) {
+                gen.writeArray(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+                return;
+            }
+            gen.writeStartArray();
+            for (int i = position; i < limit; i++) {
+                gen.writeNumber(buffer.get(i));
+            }
+            gen.writeEndArray();
+        } else if (value instanceof FloatBuffer) {
+            FloatBuffer buffer = (FloatBuffer) value;
+            gen.writeStartArray();
+            for (int i = position; i < limit; i++) {
+                gen.writeNumber(buffer.get(i));
+            }
+            gen.writeEndArray();
+        } else {
+            throw new IllegalArgumentException(
+                    "Cannot serialize buffer of type " + value.getClass().getName() + " as JSON:API attribute!");
+        }
+    }
+}
@@ -28,11 +28,15 @@ class JsonApiCollectionModelDeserializer extends AbstractJsonApiModelDeserialize
         implements ContextualDeserializer {
 
     JsonApiCollectionModelDeserializer() {
-        super();
+        this(new JsonApiConfiguration());
     }
 
-    protected JsonApiCollectionModelDeserializer(JavaType contentType) {
-        super(contentType);
+    JsonApiCollectionModelDeserializer(JsonApiConfiguration jsonApiConfiguration) {
+        super(jsonApiConfiguration);
+    }
+
+    protected JsonApiCollectionModelDeserializer(JavaType contentType, JsonApiConfiguration jsonApiConfiguration) {
+        super(contentType, jsonApiConfiguration);
     }
 
     @Override
@@ -41,7 +45,12 @@ class JsonApiCollectionModelDeserializer extends AbstractJsonApiModelDeserialize
         return CollectionModel.of(resources, links);
     }
 
+    @Override
+    protected boolean isCollection() {
+        return true;
+    }
+
     protected JsonDeserializer<?> createJsonDeserializer(JavaType type) {
-        return new JsonApiCollectionModelDeserializer(type);
+        return new JsonApiCollectionModelDeserializer(type, jsonApiConfiguration);
     }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.springframework.hateoas.Link;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The columnar JSON:API extension {@value MediaTypes#COLUMNAR_EXTENSION}.
+ * <p>
+ * With this extension, the primary data of a collection is rendered column-wise, with one type,
+ * an array of ids and an array of values for each attribute and link, e.g.
+ * <code>
+ * "data": {"type": "movies", "id": ["1", "2"], "attributes": {"title": ["Star Wars", "Avengers"]}}
+ * </code>
+ * Since this changes the meaning of {@literal data}, it is an extension and not a profile.
+ * Only resources of the same type without relationships can be rendered column-wise, other collections
+ * fail with a JSON:API error with status 406. Empty collections are rendered as empty array.
+ * <p>
+ * The extension is negotiated with the media type {@link MediaTypes#JSON_API_COLUMNAR},
+ * clients that read or write columnar documents directly can enable it on their object mapper
+ * with {@link #enable(ObjectMapper)}.
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiColumnar {
+    private static final Object ATTRIBUTE_KEY = JsonApiColumnar.class;
+
+    private JsonApiColumnar() {
+    }
+
+    /**
+     * Enables the columnar extension for all collections serialized and deserialized with the given
+     * object mapper, which must already be configured for JSON:API.
+     *
+     * @param objectMapper must not be {@literal null}.
+     * @return the given object mapper.
+     */
+    public static ObjectMapper enable(ObjectMapper objectMapper) {
+        Assert.notNull(objectMapper, "ObjectMapper must not be null!");
+        objectMapper.setConfig(objectMapper.getSerializationConfig().withAttribute(ATTRIBUTE_KEY, Boolean.TRUE));
+        objectMapper.setConfig(objectMapper.getDeserializationConfig().withAttribute(ATTRIBUTE_KEY, Boolean.TRUE));
+        return objectMapper;
+    }
+
+    /**
+     * Checks if the given media type requests the columnar extension.
+     *
+     * @param mimeType can be {@literal null}.
+     * @return {@literal true} if the {@literal ext} parameter contains {@value MediaTypes#COLUMNAR_EXTENSION}.
+     */
+    public static boolean isRequested(@Nullable MimeType mimeType) {
+        return MediaTypes.isExtensionRequested(mimeType, MediaTypes.COLUMNAR_EXTENSION);
+    }
+
+    static boolean isEnabled(SerializerProvider provider) {
+        return Boolean.TRUE.equals(provider.getAttribute(ATTRIBUTE_KEY));
+    }
+
+    static boolean isEnabled(DeserializationContext context) {
+        return Boolean.TRUE.equals(context.getAttribute(ATTRIBUTE_KEY));
+    }
+
+    /**
+     * Collects the resources of a collection directly into columns while they are extracted,
+     * so no list of resources is built first.
+     */
+    static final class Columns {
+        private final int capacity;
+        private final List<String> ids;
+        private final Map<String, Object[]> attributes = new LinkedHashMap<>();
+        private final Map<String, String[]> links = new LinkedHashMap<>();
+        private String type;
+
+        Columns(int capacity) {
+            this.capacity = capacity;
+            this.ids = new ArrayList<>(capacity);
+        }
+
+        void add(JsonApiData data) {
+            if (ids.isEmpty()) {
+                type = data.getType();
+            } else if (!Objects.equals(type, data.getType())) {
+                throw notColumnar("Resources of the types " + type + " and " + data.getType()
+                        + " cannot be rendered column-wise!");
+            }
+            if (hasRelationships(data)) {
+                throw notColumnar("Resources with relationships cannot be rendered column-wise!");
+            }
+
+            final int index = ids.size();
+            ids.add(data.getId());
+            if (data.getAttributes() != null) {
+                for (Map.Entry<String, Object> attribute : data.getAttributes().entrySet()) {
+                    attributes.computeIfAbsent(attribute.getKey(), key -> new Object[capacity])[index] =
+                            attribute.getValue();
+                }
+            }
+            if (data.getLinks() != null) {
+                for (Link link : data.getLinks()) {
+                    links.computeIfAbsent(link.getRel().value(), key -> new String[capacity])[index] = link.getHref();
+                }
+            }
+        }
+
+        int size() {
+            return ids.size();
+        }
+
+        /**
+         * Returns the columnar primary data.
+         *
+         * @return an empty list if there are no resources, since the type of the columns is unknown then.
+         */
+        Object toData() {
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("type", type);
+            columns.put("id", ids);
+            if (ids.size() < capacity) {
+                // the columns were allocated for all resources, but a response budget can truncate them
+                attributes.replaceAll((key, values) -> Arrays.copyOf(values, ids.size()));
+                links.replaceAll((key, values) -> Arrays.copyOf(values, ids.size()));
+            }
+            if (!attributes.isEmpty()) {
+                columns.put("attributes", attributes);
+            }
+            if (!links.isEmpty()) {
+                columns.put("links", links);
+            }
+            return columns;
+        }
+
+        private static boolean hasRelationships(JsonApiData data) {
+            Object relationships = data.getRelationships();
+            return relationships != null && !(relationships instanceof Map && ((Map<?, ?>) relationships).isEmpty());
+        }
+
+        private static JsonApiErrorException notColumnar(String detail) {
+            return new JsonApiErrorException(JsonApiError.create()
+                    .withStatus("406")
+                    .withTitle("Not acceptable")
+                    .withDetail(detail));
+        }
+    }
+
+    /**
+     * Reads columnar primary data into resource objects with {@literal id}, {@literal type}
+     * and {@literal attributes}, like the standard format would be read.
+     */
+    static List<Object> readColumns(JsonParser p, DeserializationContext ctxt, Map<String, Class<?>> primitiveArrayProperties)
+            throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(p, Map.class, "JSON:API columnar data object expected");
+        }
+
+        String type = null;
+        List<?> ids = Collections.emptyList();
+        Map<String, List<?>> attributes = new LinkedHashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            JsonToken token = p.nextToken();
+            if ("type".equals(name) && token == JsonToken.VALUE_STRING) {
+                type = p.getText();
+            } else if ("id".equals(name) && token == JsonToken.START_ARRAY) {
+                ids = ctxt.readValue(p, List.class);
+            } else if ("attributes".equals(name) && token == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String attribute = p.getCurrentName();
+                    p.nextToken();
+                    attributes.put(attribute, readColumn(p, ctxt, primitiveArrayProperties.get(attribute)));
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+
+        List<Object> resources = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, Object> resourceAttributes = new LinkedHashMap<>();
+            for (Map.Entry<String, List<?>> attribute : attributes.entrySet()) {
+                List<?> column = attribute.getValue();
+                if (i < column.size() && column.get(i) != null) {
+                    resourceAttributes.put(attribute.getKey(), column.get(i));
+                }
+            }
+            Object id = ids.get(i);
+            Map<String, Object> resource = new LinkedHashMap<>();
+            resource.put("id", id == null ? null : id.toString());
+            resource.put("type", type);
+            resource.put("attributes", resourceAttributes);
+            resources.add(resource);
+        }
+        return resources;
+    }
+
+    private static List<?> readColumn(JsonParser p, DeserializationContext ctxt, @Nullable Class<?> primitiveArrayType)
+            throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(p, List.class, "JSON:API columnar attribute array expected");
+        }
+        if (primitiveArrayType == null) {
+            return ctxt.readValue(p, List.class);
+        }
+        List<Object> column = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() == JsonToken.START_ARRAY) {
+                column.add(JsonApiDocumentReader.readPrimitiveArray(p, primitiveArrayType));
+            } else {
+                column.add(ctxt.readValue(p, Object.class));
+            }
+        }
+        return column;
+    }
+}
@@ -25,6 +25,8 @@ import org.springframework.util.Assert;
 import javax.annotation.Nullable;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * JSON:API specific configuration.
@@ -67,8 +69,148 @@ public class JsonApiConfiguration {
      */
     private final @With @Getter boolean pageMetaAutomaticallyCreated;
 
+    /**
+     * Indicates if attributes annotated with {@link JsonApiRawAttribute} are validated
+     * before they are rendered. The validation streams through the JSON text without building a tree.
+     *
+     * @param rawAttributesValidated The new value of this configuration's rawAttributesValidated
+     * @return The default is {@literal false}.
+     */
+    private final @With @Getter boolean rawAttributesValidated;
+
+    /**
+     * The maximum number of resources rendered as primary data of a collection.
+     * If a collection has more resources, the rendering fails with a {@link JsonApiErrorException},
+     * or the data is truncated, see {@link #isResponseTruncatedAtLimits()}.
+     *
+     * @param maxDataResources The new value of this configuration's maxDataResources
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxDataResources;
+
+    /**
+     * The maximum number of included resources.
+     * If there are more included resources, the rendering fails with a {@link JsonApiErrorException},
+     * or the included resources are truncated, see {@link #isResponseTruncatedAtLimits()}.
+     *
+     * @param maxIncludedResources The new value of this configuration's maxIncludedResources
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxIncludedResources;
+
+    /**
+     * The maximum estimated size of a rendered JSON:API document in bytes.
+     * The size is estimated from the ids, types, attributes, relationships and links of the resources,
+     * before anything is written.
+     *
+     * @param maxEstimatedDocumentBytes The new value of this configuration's maxEstimatedDocumentBytes
+     * @return The default is {@link Long#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter long maxEstimatedDocumentBytes;
+
+    /**
+     * Indicates if documents that exceed {@link #getMaxDataResources()}, {@link #getMaxIncludedResources()} or
+     * {@link #getMaxEstimatedDocumentBytes()} are truncated instead of failing with a {@link JsonApiErrorException}.
+     * Truncated documents contain the top level meta {@literal truncation} with the exceeded limit
+     * and the numbers of rendered resources. If the primary data is truncated and the document has
+     * a {@literal self} link, the {@literal next} link points to the remaining resources.
+     *
+     * @param responseTruncatedAtLimits The new value of this configuration's responseTruncatedAtLimits
+     * @return The default is {@literal false}.
+     */
+    private final @With @Getter boolean responseTruncatedAtLimits;
+
+    /**
+     * The maximum number of resources in the primary data of a request document.
+     * Like all request limits, it is checked while the document is parsed,
+     * so a request fails right after the first resource past the limit.
+     *
+     * @param maxRequestDataResources The new value of this configuration's maxRequestDataResources
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxRequestDataResources;
+
+    /**
+     * The maximum number of included resources of a request document.
+     *
+     * @param maxRequestIncludedResources The new value of this configuration's maxRequestIncludedResources
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxRequestIncludedResources;
+
+    /**
+     * The maximum nesting depth of objects and arrays of a request document, including the document itself.
+     *
+     * @param maxRequestNestingDepth The new value of this configuration's maxRequestNestingDepth
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxRequestNestingDepth;
+
+    /**
+     * The maximum length of string values, like attributes, and member names of a request document.
+     * A string is read completely before its length is checked, so this limit does not bound the memory
+     * needed to read a request, use {@link #getMaxRequestDocumentBytes()} for that.
+     *
+     * @param maxRequestStringLength The new value of this configuration's maxRequestStringLength
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxRequestStringLength;
+
+    /**
+     * The maximum number of resource identifiers in the relationships of a resource of the primary data
+     * of a request document.
+     *
+     * @param maxRequestRelationshipLinkage The new value of this configuration's maxRequestRelationshipLinkage
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter int maxRequestRelationshipLinkage;
+
+    /**
+     * The maximum size of a request document in bytes. With Spring MVC, requests with a larger
+     * {@literal Content-Length} are rejected before the body is read, and the body is not read past the limit.
+     * With Spring WebFlux, the limit is the maximum in-memory size of the binary, columnar and atomic codecs
+     * of this library, the JSON:API codecs of Spring HATEOAS keep their own maximum in-memory size.
+     *
+     * @param maxRequestDocumentBytes The new value of this configuration's maxRequestDocumentBytes
+     * @return The default is {@link Long#MAX_VALUE}, i.e. no limit.
+     */
+    private final @With @Getter long maxRequestDocumentBytes;
+
+    /**
+     * The minimum number of resources in the primary data of a request document that are bound
+     * to the resource class in parallel with the {@link #getRequestBindingExecutor() request binding executor},
+     * e.g. for bulk POST and PATCH requests. The order of the resources is preserved.
+     *
+     * @param requestParallelBindingThreshold The new value of this configuration's requestParallelBindingThreshold
+     * @return The default is {@link Integer#MAX_VALUE}, i.e. resources are always bound sequentially.
+     */
+    private final @With @Getter int requestParallelBindingThreshold;
+
+    /**
+     * The executor that binds the resources of a request document in parallel,
+     * see {@link #getRequestParallelBindingThreshold()}.
+     *
+     * @param requestBindingExecutor The new value of this configuration's requestBindingExecutor
+     * @return The default is the common {@literal ForkJoinPool}.
+     */
+    private final @With @Getter Executor requestBindingExecutor;
+
     private final @With(AccessLevel.PRIVATE) Map<Class<?>, String> typeForClass;
 
+    boolean isResponseLimited() {
+        return maxDataResources != Integer.MAX_VALUE
+                || maxIncludedResources != Integer.MAX_VALUE
+                || maxEstimatedDocumentBytes != Long.MAX_VALUE;
+    }
+
+    boolean isRequestLimited() {
+        return maxRequestDataResources != Integer.MAX_VALUE
+                || maxRequestIncludedResources != Integer.MAX_VALUE
+                || maxRequestNestingDepth != Integer.MAX_VALUE
+                || maxRequestStringLength != Integer.MAX_VALUE
+                || maxRequestRelationshipLinkage != Integer.MAX_VALUE;
+    }
+
     /**
      * Creates a mapping for a given class to get the JSON:API resource object {@literal type}
      * when rendered.
@@ -107,6 +249,19 @@ public class JsonApiConfiguration {
         this.pluralizedTypeRendered = true;
         this.jsonApiVersionRendered = false;
         this.pageMetaAutomaticallyCreated = true;
+        this.rawAttributesValidated = false;
+        this.maxDataResources = Integer.MAX_VALUE;
+        this.maxIncludedResources = Integer.MAX_VALUE;
+        this.maxEstimatedDocumentBytes = Long.MAX_VALUE;
+        this.responseTruncatedAtLimits = false;
+        this.maxRequestDataResources = Integer.MAX_VALUE;
+        this.maxRequestIncludedResources = Integer.MAX_VALUE;
+        this.maxRequestNestingDepth = Integer.MAX_VALUE;
+        this.maxRequestStringLength = Integer.MAX_VALUE;
+        this.maxRequestRelationshipLinkage = Integer.MAX_VALUE;
+        this.maxRequestDocumentBytes = Long.MAX_VALUE;
+        this.requestParallelBindingThreshold = Integer.MAX_VALUE;
+        this.requestBindingExecutor = ForkJoinPool.commonPool();
         this.typeForClass = new LinkedHashMap<>();
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the total number of elements of paged collections for a limited time,
+ * so pages of {@literal Slice}s can still render totals without a {@literal COUNT} query per request.
+ * The totals are cached per key, e.g. the query string without the pagination parameters
+ * <code>
+ * long totalElements = countCache.count(query.getQueryStringWithoutPagination(),
+ * () -&gt; repository.count(specification));
+ * </code>
+ * Cached totals can be outdated by up to the time to live, so they should only be used
+ * where approximate totals are good enough.
+ *
+ * @author Kai Toedter
+ * @see JsonApiSlices#meta(org.springframework.data.domain.Slice, long)
+ */
+public class JsonApiCountCache {
+    static final int DEFAULT_MAX_SIZE = 256;
+
+    private final long timeToLiveNanos;
+    private final Map<Object, CachedCount> counts;
+
+    private JsonApiCountCache(Duration timeToLive, int maxSize) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.counts = Collections.synchronizedMap(new LinkedHashMap<Object, CachedCount>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedCount> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Creates a cache that keeps the totals of up to {@value #DEFAULT_MAX_SIZE} keys.
+     *
+     * @param timeToLive how long a total is cached, must not be {@literal null} or negative.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiCountCache of(Duration timeToLive) {
+        return of(timeToLive, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache that keeps the totals of up to {@literal maxSize} keys.
+     *
+     * @param timeToLive how long a total is cached, must not be {@literal null} or negative.
+     * @param maxSize    the maximum number of cached totals, the least recently used are removed first.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiCountCache of(Duration timeToLive, int maxSize) {
+        Assert.notNull(timeToLive, "time to live must not be null!");
+        Assert.isTrue(!timeToLive.isNegative(), "time to live must not be negative!");
+        Assert.isTrue(maxSize > 0, "max size must be greater than 0!");
+        return new JsonApiCountCache(timeToLive, maxSize);
+    }
+
+    /**
+     * Returns the cached total for the given key, or counts and caches it,
+     * if there is no total or it is expired.
+     *
+     * @param key     the key of the counted collection, must not be {@literal null}.
+     * @param counter counts the elements, e.g. with a {@literal COUNT} query, must not be {@literal null}.
+     * @return the total number of elements.
+     */
+    public long count(Object key, LongSupplier counter) {
+        Assert.notNull(key, "key must not be null!");
+        Assert.notNull(counter, "counter must not be null!");
+
+        final long now = System.nanoTime();
+        final CachedCount cachedCount = counts.get(key);
+        if (cachedCount != null && now - cachedCount.countedAt < timeToLiveNanos) {
+            return cachedCount.count;
+        }
+
+        // concurrent requests may count at the same time, which is cheaper than blocking them
+        final long count = counter.getAsLong();
+        counts.put(key, new CachedCount(count, now));
+        return count;
+    }
+
+    /**
+     * Removes all cached totals, e.g. after bulk changes.
+     */
+    public void clear() {
+        counts.clear();
+    }
+
+    private static final class CachedCount {
+        private final long count;
+        private final long countedAt;
+
+        private CachedCount(long count, long countedAt) {
+            this.count = count;
+            this.countedAt = countedAt;
+        }
+    }
+}
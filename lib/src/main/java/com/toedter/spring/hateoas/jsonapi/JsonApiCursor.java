@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * An opaque cursor for keyset pagination with the {@literal page[after]} and {@literal page[before]} parameters.
+ * A cursor contains the values of the sort keys of a resource, e.g. the {@literal year} and the {@literal id}
+ * of the last movie of a page sorted by {@literal year,id}.
+ * It is encoded as URL safe Base64 of a JSON array, so clients should not interpret it.
+ * <p>
+ * Numbers, strings and booleans are kept as they are,
+ * all other values are stored as strings and must be convertible from their string representation.
+ *
+ * @author Kai Toedter
+ * @see JsonApiSpecifications#findCursorPage
+ */
+@EqualsAndHashCode
+public final class JsonApiCursor {
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Object>> VALUES_TYPE = new TypeReference<List<Object>>() {
+    };
+
+    private final List<Object> values;
+
+    private JsonApiCursor(List<Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a cursor of the given sort key values.
+     *
+     * @param values must not be {@literal null} or empty.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiCursor of(Object... values) {
+        Assert.notEmpty(values, "cursor values must not be empty!");
+        List<Object> cursorValues = new ArrayList<>(values.length);
+        for (Object value : values) {
+            Assert.notNull(value, "cursor values must not be null!");
+            cursorValues.add(value instanceof Number || value instanceof Boolean || value instanceof String
+                    ? value : value.toString());
+        }
+        return new JsonApiCursor(Collections.unmodifiableList(cursorValues));
+    }
+
+    /**
+     * Creates a cursor of the values of the sort properties of the given entity,
+     * e.g. the values of {@literal year} and {@literal id} for the sort {@literal year,id}.
+     *
+     * @param entity must not be {@literal null}.
+     * @param sort   must not be {@literal null} or unsorted.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiCursor of(Object entity, Sort sort) {
+        Assert.notNull(entity, "entity must not be null!");
+        Assert.notNull(sort, "sort must not be null!");
+        Assert.isTrue(sort.isSorted(), "sort must not be unsorted!");
+
+        PropertyAccessor accessor = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        List<Object> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!accessor.isReadableProperty(order.getProperty())) {
+                accessor = PropertyAccessorFactory.forDirectFieldAccess(entity);
+            }
+            values.add(accessor.getPropertyValue(order.getProperty()));
+        }
+        return of(values.toArray());
+    }
+
+    /**
+     * Decodes a cursor of a {@literal page[after]} or {@literal page[before]} parameter.
+     *
+     * @param cursor must not be {@literal null}.
+     * @return will never be {@literal null}.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static JsonApiCursor decode(String cursor) {
+        Assert.notNull(cursor, "cursor must not be null!");
+        try {
+            List<Object> values = CURSOR_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), VALUES_TYPE);
+            if (values == null || values.isEmpty() || values.contains(null)) {
+                throw new IllegalArgumentException("Invalid JSON:API cursor: " + cursor);
+            }
+            return new JsonApiCursor(Collections.unmodifiableList(values));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid JSON:API cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encodes the cursor for a {@literal page[after]} or {@literal page[before]} parameter.
+     *
+     * @return will never be {@literal null}.
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(CURSOR_MAPPER.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode JSON:API cursor " + values, e);
+        }
+    }
+
+    /**
+     * Returns the sort key values in the order of the sort properties.
+     *
+     * @return will never be {@literal null}.
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
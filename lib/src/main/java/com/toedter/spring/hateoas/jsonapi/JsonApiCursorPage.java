@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * A page of keyset pagination, with the cursors to the previous and the next page.
+ * It is rendered with {@link JsonApiModelBuilder#cursorPageMeta(JsonApiCursorPage)}
+ * and {@link JsonApiModelBuilder#cursorPageLinks(String, JsonApiCursorPage)}.
+ *
+ * @param <T> the type of the content.
+ * @author Kai Toedter
+ * @see JsonApiSpecifications#findCursorPage
+ */
+@ToString
+@EqualsAndHashCode
+public final class JsonApiCursorPage<T> {
+    private final List<T> content;
+    private final int size;
+    private final JsonApiCursor previousCursor;
+    private final JsonApiCursor nextCursor;
+
+    private JsonApiCursorPage(List<T> content, int size,
+                              @Nullable JsonApiCursor previousCursor, @Nullable JsonApiCursor nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Creates a page of keyset pagination.
+     *
+     * @param content        must not be {@literal null}.
+     * @param size           the requested page size.
+     * @param previousCursor the cursor before the first element, {@literal null} if this is the first page.
+     * @param nextCursor     the cursor after the last element, {@literal null} if this is the last page.
+     * @param <T>            the type of the content.
+     * @return will never be {@literal null}.
+     */
+    public static <T> JsonApiCursorPage<T> of(List<T> content, int size,
+                                              @Nullable JsonApiCursor previousCursor,
+                                              @Nullable JsonApiCursor nextCursor) {
+        Assert.notNull(content, "content must not be null!");
+        Assert.isTrue(size > 0, "page size must be greater than 0!");
+        return new JsonApiCursorPage<>(content, size, previousCursor, nextCursor);
+    }
+
+    /**
+     * @return will never be {@literal null}.
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the requested page size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the cursor for the {@literal page[before]} parameter of the previous page,
+     * {@literal null} if this is the first page.
+     */
+    @Nullable
+    public JsonApiCursor getPreviousCursor() {
+        return previousCursor;
+    }
+
+    /**
+     * @return the cursor for the {@literal page[after]} parameter of the next page,
+     * {@literal null} if this is the last page.
+     */
+    @Nullable
+    public JsonApiCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -20,7 +20,6 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Value;
@@ -65,20 +64,19 @@ class JsonApiData {
         this(null, null, null, null, null);
     }
 
-    static List<JsonApiData> extractCollectionContent(
-            @Nullable CollectionModel<?> collectionModel, JsonApiConfiguration jsonApiConfiguration) {
+    static Optional<JsonApiData> extractContent(
+            @Nullable Object content, boolean isSingleEntity, JsonApiConfiguration jsonApiConfiguration) {
 
-        List<JsonApiData> dataList = new ArrayList<>();
-        if (collectionModel != null) {
-            for (Object entity : collectionModel.getContent()) {
-                Optional<JsonApiData> jsonApiData = extractContent(entity, false, jsonApiConfiguration);
-                jsonApiData.ifPresent(dataList::add);
-            }
+        final Optional<JsonApiData> jsonApiData = extractResource(content, isSingleEntity, jsonApiConfiguration);
+        if (content instanceof JsonApiModel) {
+            // the relationships to be rendered depend on the type of the resource
+            final JsonApiModel jsonApiModel = (JsonApiModel) content;
+            return jsonApiData.map(data -> data.withRelationships(jsonApiModel.getRelationships(data.getType())));
         }
-        return dataList;
+        return jsonApiData;
     }
 
-    static Optional<JsonApiData> extractContent(
+    private static Optional<JsonApiData> extractResource(
             @Nullable Object content, boolean isSingleEntity, JsonApiConfiguration jsonApiConfiguration) {
 
         Links links = null;
@@ -103,6 +101,21 @@ class JsonApiData {
             return Optional.empty();
         }
 
+        if (content instanceof JsonApiRow) {
+            // the row already contains the attributes, no conversion needed
+            JsonApiRow row = (JsonApiRow) content;
+            return Optional.of(new JsonApiData()
+                    .withId(row.getId().toString())
+                    .withType(row.getType(jsonApiConfiguration))
+                    .withAttributes(row.getAttributes())
+                    .withRelationships(relationships)
+                    .withLinks(isSingleEntity || links != null && links.isEmpty() ? null : links));
+        }
+
+        if (JsonApiProxyProperties.isProxy(content.getClass())) {
+            return extractProxy(content, isSingleEntity ? null : links, relationships, jsonApiConfiguration);
+        }
+
         final Field[] fields = getAllDeclaredFields(content.getClass());
         if (fields.length == 0
                 || (content instanceof RepresentationModel<?> && fields.length == 1)
@@ -119,12 +132,21 @@ class JsonApiData {
         }
         JsonApiResource.ResourceField typeField = JsonApiResource.getType(content, jsonApiConfiguration);
 
-        ObjectMapper mapper = new ObjectMapper();
-        @SuppressWarnings("unchecked")
-        Map<String, Object> attributeMap = mapper.convertValue(content, Map.class);
-        attributeMap.remove("links");
-        attributeMap.remove(idField.name);
-        attributeMap.remove(typeField.name);
+        final JsonApiEvents.AttributesConversion event = JsonApiEvents.beginAttributesConversion();
+        final long attributesStart = JsonApiTimings.start();
+        Map<String, Object> attributeMap;
+        try {
+            attributeMap = JsonApiAttributes.convert(content);
+            if (jsonApiConfiguration.isRawAttributesValidated()) {
+                JsonApiAttributes.validateRawValues(attributeMap);
+            }
+            attributeMap.remove("links");
+            attributeMap.remove(idField.name);
+            attributeMap.remove(typeField.name);
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.ATTRIBUTES, attributesStart);
+        }
+        JsonApiEvents.endAttributesConversion(event, typeField.value, attributeMap.size());
 
         final Map<String, Object> finalContentObject = attributeMap;
         Links finalLinks = links;
@@ -141,6 +163,34 @@ class JsonApiData {
                         .withLinks(finalLinks));
     }
 
+    private static Optional<JsonApiData> extractProxy(Object proxy,
+                                                      @Nullable Links links,
+                                                      @Nullable Object relationships,
+                                                      JsonApiConfiguration jsonApiConfiguration) {
+        final JsonApiProxyProperties proxyProperties = JsonApiProxyProperties.forClass(proxy.getClass());
+        if (proxyProperties.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final JsonApiResource.ResourceField typeField = proxyProperties.getType(proxy, jsonApiConfiguration);
+        final JsonApiEvents.AttributesConversion event = JsonApiEvents.beginAttributesConversion();
+        final long attributesStart = JsonApiTimings.start();
+        final Map<String, Object> attributes;
+        try {
+            attributes = proxyProperties.getAttributes(proxy);
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.ATTRIBUTES, attributesStart);
+        }
+        JsonApiEvents.endAttributesConversion(event, typeField.value, attributes.size());
+
+        return Optional.of(new JsonApiData()
+                .withId(proxyProperties.getId(proxy).value)
+                .withType(typeField.value)
+                .withAttributes(attributes)
+                .withRelationships(relationships)
+                .withLinks(links != null && links.isEmpty() ? null : links));
+    }
+
     private static final HashSet<Class<?>> RESOURCE_TYPES = new HashSet<>(
             Arrays.asList(RepresentationModel.class, EntityModel.class, CollectionModel.class, PagedModel.class));
 }
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.hateoas.Links;
+import org.springframework.lang.Nullable;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.*;
+
+/**
+ * Reads a JSON:API document with a streaming parser.
+ * <p>
+ * Attributes that are bound to primitive arrays or {@literal java.nio} buffers of the resource class
+ * are read directly into primitive arrays, without creating lists of boxed numbers.
+ * All other members are read like with a generic {@link JsonApiDocument} binding.
+ * <p>
+ * The request limits of the {@link JsonApiConfiguration} are checked token by token while reading,
+ * so a document that exceeds a limit fails right after the limit, before the rest of it is read.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiDocumentReader {
+    private static final JavaType INCLUDED_TYPE =
+            TypeFactory.defaultInstance().constructCollectionType(List.class, JsonApiData.class);
+    // a class value does not keep the resource classes, and so their class loaders, reachable
+    private static final ClassValue<Map<String, Class<?>>> PRIMITIVE_ARRAY_PROPERTIES =
+            new ClassValue<Map<String, Class<?>>>() {
+                @Override
+                protected Map<String, Class<?>> computeValue(Class<?> resourceClass) {
+                    return findPrimitiveArrayProperties(resourceClass);
+                }
+            };
+    private static final Set<Class<?>> PRIMITIVE_ARRAY_TYPES = new HashSet<>(Arrays.asList(
+            double[].class, long[].class, int[].class, float[].class,
+            DoubleBuffer.class, LongBuffer.class, IntBuffer.class, FloatBuffer.class));
+
+    private final Map<String, Class<?>> primitiveArrayProperties;
+    private final boolean columnar;
+    private final JsonApiConfiguration jsonApiConfiguration;
+
+    JsonApiDocumentReader(Class<?> resourceClass) {
+        this(resourceClass, false, new JsonApiConfiguration());
+    }
+
+    JsonApiDocumentReader(Class<?> resourceClass, boolean columnar, JsonApiConfiguration jsonApiConfiguration) {
+        this.primitiveArrayProperties = PRIMITIVE_ARRAY_PROPERTIES.get(resourceClass);
+        this.columnar = columnar;
+        this.jsonApiConfiguration = jsonApiConfiguration;
+    }
+
+    private static Map<String, Class<?>> findPrimitiveArrayProperties(Class<?> resourceClass) {
+        Map<String, Class<?>> properties = new HashMap<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(resourceClass)) {
+            if (descriptor.getWriteMethod() != null && PRIMITIVE_ARRAY_TYPES.contains(descriptor.getPropertyType())) {
+                properties.put(descriptor.getName(), descriptor.getPropertyType());
+            }
+        }
+        return properties.isEmpty() ? Collections.emptyMap() : properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    JsonApiDocument read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonApiJsonApi jsonapi = null;
+        Object data = null;
+        Map<String, Object> meta = null;
+        JsonApiErrors errors = null;
+        Links links = null;
+        List<JsonApiData> included = null;
+
+        p = limit(p, jsonApiConfiguration);
+
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.getCurrentName();
+            token = p.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (name) {
+                case "data":
+                    data = readData(p, ctxt);
+                    break;
+                case "included":
+                    included = token == JsonToken.START_ARRAY
+                            ? readIncluded(p, ctxt)
+                            : (List<JsonApiData>) ctxt.readValue(p, INCLUDED_TYPE);
+                    break;
+                case "links":
+                    links = ctxt.readValue(p, Links.class);
+                    break;
+                case "meta":
+                    meta = ctxt.readValue(p, Map.class);
+                    break;
+                case "errors":
+                    errors = ctxt.readValue(p, JsonApiErrors.class);
+                    break;
+                case "jsonapi":
+                    jsonapi = ctxt.readValue(p, JsonApiJsonApi.class);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return new JsonApiDocument(jsonapi, data, meta, errors, links, included);
+    }
+
+    private Object readData(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (columnar && p.currentToken() == JsonToken.START_OBJECT) {
+            return JsonApiColumnar.readColumns(p, ctxt, primitiveArrayProperties);
+        }
+        if (p.currentToken() == JsonToken.START_ARRAY) {
+            final int maxResources = jsonApiConfiguration.getMaxRequestDataResources();
+            List<Object> resources = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (resources.size() == maxResources) {
+                    throw limitExceeded(p, "JSON:API request data must not contain more than "
+                            + maxResources + " resources!");
+                }
+                resources.add(readResource(p, ctxt));
+            }
+            return resources;
+        }
+        return readResource(p, ctxt);
+    }
+
+    private List<JsonApiData> readIncluded(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final int maxResources = jsonApiConfiguration.getMaxRequestIncludedResources();
+        List<JsonApiData> included = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (included.size() == maxResources) {
+                throw limitExceeded(p, "JSON:API request must not include more than " + maxResources + " resources!");
+            }
+            included.add(p.currentToken() == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, JsonApiData.class));
+        }
+        return included;
+    }
+
+    private Map<String, Object> readResource(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(p, Map.class, "JSON:API resource object expected");
+        }
+        Map<String, Object> resource = new LinkedHashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            JsonToken token = p.nextToken();
+            if ("attributes".equals(name) && token == JsonToken.START_OBJECT) {
+                resource.put(name, readAttributes(p, ctxt));
+            } else if ("relationships".equals(name) && token == JsonToken.START_OBJECT
+                    && jsonApiConfiguration.getMaxRequestRelationshipLinkage() != Integer.MAX_VALUE) {
+                resource.put(name, readRelationships(p, ctxt));
+            } else {
+                resource.put(name, readValue(p, ctxt));
+            }
+        }
+        return resource;
+    }
+
+    private Map<String, Object> readRelationships(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final int maxLinkage = jsonApiConfiguration.getMaxRequestRelationshipLinkage();
+        int linkage = 0;
+        Map<String, Object> relationships = new LinkedHashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                relationships.put(name, readValue(p, ctxt));
+                continue;
+            }
+            Map<String, Object> relationship = new LinkedHashMap<>();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String member = p.getCurrentName();
+                JsonToken token = p.nextToken();
+                if (!"data".equals(member) || token == JsonToken.VALUE_NULL) {
+                    relationship.put(member, readValue(p, ctxt));
+                } else if (token == JsonToken.START_ARRAY) {
+                    List<Object> resourceIdentifiers = new ArrayList<>();
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (++linkage > maxLinkage) {
+                            throw limitExceeded(p, "JSON:API request resource must not relate to more than "
+                                    + maxLinkage + " resources!");
+                        }
+                        resourceIdentifiers.add(readValue(p, ctxt));
+                    }
+                    relationship.put(member, resourceIdentifiers);
+                } else {
+                    if (++linkage > maxLinkage) {
+                        throw limitExceeded(p, "JSON:API request resource must not relate to more than "
+                                + maxLinkage + " resources!");
+                    }
+                    relationship.put(member, readValue(p, ctxt));
+                }
+            }
+            relationships.put(name, relationship);
+        }
+        return relationships;
+    }
+
+    private Map<String, Object> readAttributes(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            JsonToken token = p.nextToken();
+            Class<?> primitiveArrayType = primitiveArrayProperties.get(name);
+            if (primitiveArrayType != null && token == JsonToken.START_ARRAY) {
+                attributes.put(name, readPrimitiveArray(p, primitiveArrayType));
+            } else {
+                attributes.put(name, readValue(p, ctxt));
+            }
+        }
+        return attributes;
+    }
+
+    private static Object readValue(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, Object.class);
+    }
+
+    static Object readPrimitiveArray(JsonParser p, Class<?> type) throws IOException {
+        if (type == double[].class || type == DoubleBuffer.class) {
+            double[] values = readDoubles(p);
+            return type == DoubleBuffer.class ? DoubleBuffer.wrap(values) : values;
+        }
+        if (type == long[].class || type == LongBuffer.class) {
+            long[] values = readLongs(p);
+            return type == LongBuffer.class ? LongBuffer.wrap(values) : values;
+        }
+        if (type == int[].class || type == IntBuffer.class) {
+            int[] values = readInts(p);
+            return type == IntBuffer.class ? IntBuffer.wrap(values) : values;
+        }
+        float[] values = readFloats(p);
+        return type == FloatBuffer.class ? FloatBuffer.wrap(values) : values;
+    }
+
+    private static double[] readDoubles(JsonParser p) throws IOException {
+        double[] values = new double[16];
+        int size = 0;
+        while (nextNumber(p, double[].class)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = p.getDoubleValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static long[] readLongs(JsonParser p) throws IOException {
+        long[] values = new long[16];
+        int size = 0;
+        while (nextNumber(p, long[].class)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = p.getLongValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static int[] readInts(JsonParser p) throws IOException {
+        int[] values = new int[16];
+        int size = 0;
+        while (nextNumber(p, int[].class)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = p.getIntValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static float[] readFloats(JsonParser p) throws IOException {
+        float[] values = new float[16];
+        int size = 0;
+        while (nextNumber(p, float[].class)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = p.getFloatValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static boolean nextNumber(JsonParser p, Class<?> type) throws IOException {
+        JsonToken token = p.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return false;
+        }
+        if (token == null || !token.isNumeric()) {
+            throw MismatchedInputException.from(p, type, "JSON:API attribute array must only contain numbers");
+        }
+        return true;
+    }
+
+    /**
+     * Wraps the given parser, so the nesting depth and the string lengths are checked,
+     * if the configuration limits requests.
+     */
+    static JsonParser limit(JsonParser p, JsonApiConfiguration jsonApiConfiguration) {
+        return jsonApiConfiguration.isRequestLimited() ? new LimitedParser(p, jsonApiConfiguration) : p;
+    }
+
+    static JsonMappingException limitExceeded(JsonParser p, String detail) {
+        final JsonApiErrorException errorException =
+                requestTooLarge(detail, p.getParsingContext().pathAsPointer().toString());
+        return JsonMappingException.from(p, detail, errorException);
+    }
+
+    static JsonApiErrorException requestTooLarge(String detail, @Nullable String pointer) {
+        final JsonApiError error = JsonApiError.create()
+                .withStatus("413")
+                .withTitle("Request too large")
+                .withDetail(detail);
+        return new JsonApiErrorException(pointer == null ? error : error.withSourcePointer(pointer));
+    }
+
+    /**
+     * Checks the nesting depth and the lengths of the strings and member names of all tokens that are read.
+     * Members that are skipped are not checked, since they are not materialized.
+     * <p>
+     * The parser reads a string completely before its length is known, so this check limits
+     * the size of the bound objects, but not the memory needed to read a single string.
+     * That memory is bounded by {@link JsonApiConfiguration#getMaxRequestDocumentBytes()}.
+     */
+    private static final class LimitedParser extends JsonParserDelegate {
+        private final int maxNestingDepth;
+        private final int maxStringLength;
+        private int nestingDepth;
+
+        LimitedParser(JsonParser parser, JsonApiConfiguration jsonApiConfiguration) {
+            super(parser);
+            this.maxNestingDepth = jsonApiConfiguration.getMaxRequestNestingDepth();
+            this.maxStringLength = jsonApiConfiguration.getMaxRequestStringLength();
+            for (JsonStreamContext context = parser.getParsingContext();
+                 context != null && !context.inRoot(); context = context.getParent()) {
+                nestingDepth++;
+            }
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            final JsonToken token = delegate.nextToken();
+            if (token == null) {
+                return null;
+            }
+            switch (token) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    if (++nestingDepth > maxNestingDepth) {
+                        throw limitExceeded(this, "JSON:API request must not be nested deeper than "
+                                + maxNestingDepth + " levels!");
+                    }
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    nestingDepth--;
+                    break;
+                case FIELD_NAME:
+                    if (delegate.getCurrentName().length() > maxStringLength) {
+                        throw limitExceeded(this, "JSON:API request member names must not be longer than "
+                                + maxStringLength + " characters!");
+                    }
+                    break;
+                case VALUE_STRING:
+                    if (delegate.getTextLength() > maxStringLength) {
+                        throw limitExceeded(this, "JSON:API request strings must not be longer than "
+                                + maxStringLength + " characters!");
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return token;
+        }
+
+        // the delegate would read the next tokens without the checks
+
+        @Override
+        public JsonToken nextValue() throws IOException {
+            final JsonToken token = nextToken();
+            return token == JsonToken.FIELD_NAME ? nextToken() : token;
+        }
+
+        @Override
+        public String nextFieldName() throws IOException {
+            return nextToken() == JsonToken.FIELD_NAME ? getCurrentName() : null;
+        }
+
+        @Override
+        public boolean nextFieldName(SerializableString name) throws IOException {
+            return nextToken() == JsonToken.FIELD_NAME && name.getValue().equals(getCurrentName());
+        }
+
+        @Override
+        public String nextTextValue() throws IOException {
+            return nextToken() == JsonToken.VALUE_STRING ? getText() : null;
+        }
+
+        @Override
+        public JsonParser skipChildren() throws IOException {
+            final JsonToken token = currentToken();
+            delegate.skipChildren();
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                nestingDepth--;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+import java.util.*;
+
+/**
+ * Creates dynamic JPA {@link EntityGraph}s of JSON:API {@literal include} parameters,
+ * so the included relationships are fetched together with the primary data in one SQL round trip,
+ * and only if the client requested them.
+ * <p>
+ * An include {@literal include=directors,directors.awards} is translated to a graph
+ * with the attribute node {@literal directors} and its subgraph node {@literal awards}.
+ * The graph can be passed to a query with the hint {@link #FETCH_GRAPH}, e.g.
+ * <code>
+ * typedQuery.setHint(JsonApiEntityGraphs.FETCH_GRAPH, entityGraph)
+ * </code>
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiEntityGraphs {
+    /**
+     * The JPA query hint for a fetch graph.
+     */
+    public static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+    private JsonApiEntityGraphs() {
+    }
+
+    /**
+     * Creates an {@link EntityGraph} of the {@literal include} parameter of the given query.
+     *
+     * @param entityManager           must not be {@literal null}.
+     * @param entityClass             the class of the root entity, must not be {@literal null}.
+     * @param query                   must not be {@literal null}.
+     * @param includableRelationships the relationship paths that can be included, e.g. {@literal directors}
+     *                                or {@literal directors.awards}.
+     * @param <T>                     the type of the root entity.
+     * @return will never be {@literal null}, but has no attribute nodes if nothing is included.
+     * @throws IllegalArgumentException if the query contains an include that is not allowed.
+     */
+    public static <T> EntityGraph<T> create(EntityManager entityManager,
+                                            Class<T> entityClass,
+                                            JsonApiQuery query,
+                                            String... includableRelationships) {
+        Assert.notNull(query, "JsonApiQuery must not be null!");
+        return create(entityManager, entityClass, query.getIncludes(), includableRelationships);
+    }
+
+    /**
+     * Creates an {@link EntityGraph} of the given relationship paths.
+     *
+     * @param entityManager           must not be {@literal null}.
+     * @param entityClass             the class of the root entity, must not be {@literal null}.
+     * @param includes                the requested relationship paths, must not be {@literal null}.
+     * @param includableRelationships the relationship paths that can be included, e.g. {@literal directors}
+     *                                or {@literal directors.awards}.
+     * @param <T>                     the type of the root entity.
+     * @return will never be {@literal null}, but has no attribute nodes if nothing is included.
+     * @throws IllegalArgumentException if an include is not allowed.
+     */
+    public static <T> EntityGraph<T> create(EntityManager entityManager,
+                                            Class<T> entityClass,
+                                            Collection<String> includes,
+                                            String... includableRelationships) {
+        Assert.notNull(entityManager, "EntityManager must not be null!");
+        Assert.notNull(entityClass, "entity class must not be null!");
+        Assert.notNull(includes, "includes must not be null!");
+        Assert.notNull(includableRelationships, "includable relationships must not be null!");
+
+        Set<String> allowedPaths = new HashSet<>();
+        for (String includableRelationship : includableRelationships) {
+            // including a.b implies including a
+            int dotIndex = -1;
+            while ((dotIndex = includableRelationship.indexOf('.', dotIndex + 1)) > 0) {
+                allowedPaths.add(includableRelationship.substring(0, dotIndex));
+            }
+            allowedPaths.add(includableRelationship);
+        }
+
+        Map<String, Map<String, ?>> tree = new LinkedHashMap<>();
+        for (String include : includes) {
+            if (!allowedPaths.contains(include)) {
+                throw new IllegalArgumentException("JSON:API include " + include + " is not supported!");
+            }
+            Map<String, Map<String, ?>> node = tree;
+            for (String segment : include.split("\\.")) {
+                node = getChildren(node, segment);
+            }
+        }
+
+        EntityGraph<T> entityGraph = entityManager.createEntityGraph(entityClass);
+        for (Map.Entry<String, Map<String, ?>> entry : tree.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                entityGraph.addAttributeNodes(entry.getKey());
+            } else {
+                addSubgraphs(entityGraph.addSubgraph(entry.getKey()), entry.getValue());
+            }
+        }
+        return entityGraph;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, ?>> getChildren(Map<String, Map<String, ?>> node, String segment) {
+        return (Map<String, Map<String, ?>>) node.computeIfAbsent(segment, key -> new LinkedHashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addSubgraphs(Subgraph<?> subgraph, Map<String, ?> children) {
+        for (Map.Entry<String, ?> entry : children.entrySet()) {
+            Map<String, ?> grandChildren = (Map<String, ?>) entry.getValue();
+            if (grandChildren.isEmpty()) {
+                subgraph.addAttributeNodes(entry.getKey());
+            } else {
+                addSubgraphs(subgraph.addSubgraph(entry.getKey()), grandChildren);
+            }
+        }
+    }
+}
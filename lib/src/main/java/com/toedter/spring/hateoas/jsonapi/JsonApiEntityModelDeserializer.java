@@ -19,6 +19,7 @@ package com.toedter.spring.hateoas.jsonapi;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import lombok.Getter;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Links;
 import org.springframework.util.Assert;
@@ -28,8 +29,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.toedter.spring.hateoas.jsonapi.ReflectionUtils.getAllDeclaredFields;
 
@@ -38,12 +39,25 @@ class JsonApiEntityModelDeserializer extends AbstractJsonApiModelDeserializer<En
 
     public static final String CANNOT_DESERIALIZE_INPUT_TO_ENTITY_MODEL = "Cannot deserialize input to EntityModel";
 
+    // the relationship fields are looked up once per class, bulk requests bind many resources of the same class,
+    // a class value does not keep the resource classes, and so their class loaders, reachable
+    private static final ClassValue<List<Field>> RELATIONSHIP_FIELDS = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> resourceClass) {
+            return findRelationshipFields(resourceClass);
+        }
+    };
+
     JsonApiEntityModelDeserializer() {
-        super();
+        this(new JsonApiConfiguration());
+    }
+
+    JsonApiEntityModelDeserializer(JsonApiConfiguration jsonApiConfiguration) {
+        super(jsonApiConfiguration);
     }
 
-    protected JsonApiEntityModelDeserializer(JavaType contentType) {
-        super(contentType);
+    protected JsonApiEntityModelDeserializer(JavaType contentType, JsonApiConfiguration jsonApiConfiguration) {
+        super(contentType, jsonApiConfiguration);
     }
 
     @Override
@@ -61,64 +75,91 @@ class JsonApiEntityModelDeserializer extends AbstractJsonApiModelDeserializer<En
             }
 
             @SuppressWarnings("unchecked")
-            HashMap<String, Object> relationships =
-                    (HashMap<String, Object>) ((HashMap<String, Object>) doc.getData()).get("relationships");
+            Map<String, Object> relationships =
+                    (Map<String, Object>) ((Map<String, Object>) doc.getData()).get("relationships");
 
             if (relationships != null) {
+                setRelationships(entityModel.getContent(), relationships);
+            }
+            return entityModel;
+        }
+        throw new IllegalArgumentException(CANNOT_DESERIALIZE_INPUT_TO_ENTITY_MODEL);
 
-                Object object = entityModel.getContent();
-                @SuppressWarnings("ConstantConditions")
-                final Field[] declaredFields = getAllDeclaredFields(object.getClass());
-                for (Field field : declaredFields) {
-                    field.setAccessible(true);
-                    JsonApiRelationships relationshipsAnnotation = field.getAnnotation(JsonApiRelationships.class);
-                    if (relationshipsAnnotation != null) {
-                        Object relationship = relationships.get(relationshipsAnnotation.value());
-                        try {
-                            final Type genericType = field.getGenericType();
-                            if (genericType instanceof ParameterizedType) {
-                                ParameterizedType type = (ParameterizedType) genericType;
-                                if (List.class.isAssignableFrom(field.getType())) {
-                                    List<Object> relationshipList = new ArrayList<>();
-                                    Object data = ((HashMap<?, ?>) relationship).get("data");
-                                    List<HashMap<String, String>> jsonApiRelationships;
-                                    if (data instanceof List) {
-                                        @SuppressWarnings("unchecked")
-                                        List<HashMap<String, String>> castedData = (List<HashMap<String, String>>) data;
-                                        jsonApiRelationships = castedData;
-                                    } else if (data instanceof HashMap) {
-                                        @SuppressWarnings("unchecked")
-                                        HashMap<String, String> castedData = (HashMap<String, String>) data;
-                                        jsonApiRelationships = Collections.singletonList(castedData);
-                                    } else {
-                                        throw new IllegalArgumentException(CANNOT_DESERIALIZE_INPUT_TO_ENTITY_MODEL);
-                                    }
-                                    Type typeArgument = type.getActualTypeArguments()[0];
-
-                                    for (HashMap<String, String> entry : jsonApiRelationships) {
-                                        Class<?> typeArgClass = (Class<?>) typeArgument;
-                                        Object newInstance = typeArgClass.getDeclaredConstructor().newInstance();
-                                        JsonApiResource.setJsonApiResourceFieldAttributeForObject(
-                                                newInstance, JsonApiResource.JsonApiResourceField.id, entry.get("id"));
-                                        relationshipList.add(newInstance);
-                                    }
-
-                                    field.set(object, relationshipList);
-                                }
+    }
+
+    /**
+     * Sets the fields annotated with {@link JsonApiRelationships} from the relationships of a resource object.
+     * Relationships that are not contained are left unchanged, like in a partial update.
+     */
+    static void setRelationships(Object object, Map<String, Object> relationships) {
+        for (Field field : RELATIONSHIP_FIELDS.get(object.getClass())) {
+            JsonApiRelationships relationshipsAnnotation = field.getAnnotation(JsonApiRelationships.class);
+            Object relationship = relationships.get(relationshipsAnnotation.value());
+            if (relationship != null) {
+                try {
+                    final Type genericType = field.getGenericType();
+                    if (genericType instanceof ParameterizedType) {
+                        ParameterizedType type = (ParameterizedType) genericType;
+                        if (List.class.isAssignableFrom(field.getType())) {
+                            List<Object> relationshipList = new ArrayList<>();
+                            Object data = ((Map<?, ?>) relationship).get("data");
+                            List<Map<String, String>> jsonApiRelationships;
+                            if (data instanceof List) {
+                                @SuppressWarnings("unchecked")
+                                List<Map<String, String>> castedData = (List<Map<String, String>>) data;
+                                jsonApiRelationships = castedData;
+                            } else if (data instanceof Map) {
+                                @SuppressWarnings("unchecked")
+                                Map<String, String> castedData = (Map<String, String>) data;
+                                jsonApiRelationships = Collections.singletonList(castedData);
+                            } else {
+                                throw new IllegalArgumentException(
+                                        "JSON:API relationship data must be a resource identifier or an array of them!");
+                            }
+                            Type typeArgument = type.getActualTypeArguments()[0];
+
+                            for (Map<String, String> entry : jsonApiRelationships) {
+                                Class<?> typeArgClass = (Class<?>) typeArgument;
+                                Object newInstance = typeArgClass.getDeclaredConstructor().newInstance();
+                                JsonApiResource.setJsonApiResourceFieldAttributeForObject(
+                                        newInstance, JsonApiResource.JsonApiResourceField.id, entry.get("id"));
+                                relationshipList.add(newInstance);
                             }
-                        } catch (Exception e) {
-                            throw new IllegalArgumentException(CANNOT_DESERIALIZE_INPUT_TO_ENTITY_MODEL);
+
+                            field.set(object, relationshipList);
                         }
                     }
+                } catch (Exception e) {
+                    throw new RelationshipBindingException(relationshipsAnnotation.value(), e);
                 }
             }
-            return entityModel;
         }
-        throw new IllegalArgumentException(CANNOT_DESERIALIZE_INPUT_TO_ENTITY_MODEL);
+    }
+
+    /**
+     * Thrown if a relationship of a resource object cannot be set, with the name of the relationship.
+     */
+    static class RelationshipBindingException extends IllegalArgumentException {
+        private final @Getter String relationshipName;
 
+        RelationshipBindingException(String relationshipName, Throwable cause) {
+            super(CANNOT_DESERIALIZE_INPUT_TO_ENTITY_MODEL, cause);
+            this.relationshipName = relationshipName;
+        }
+    }
+
+    private static List<Field> findRelationshipFields(Class<?> resourceClass) {
+        List<Field> relationshipFields = new ArrayList<>();
+        for (Field field : getAllDeclaredFields(resourceClass)) {
+            if (field.getAnnotation(JsonApiRelationships.class) != null) {
+                field.setAccessible(true);
+                relationshipFields.add(field);
+            }
+        }
+        return relationshipFields.isEmpty() ? Collections.emptyList() : relationshipFields;
     }
 
     protected JsonDeserializer<?> createJsonDeserializer(JavaType type) {
-        return new JsonApiEntityModelDeserializer(type);
+        return new JsonApiEntityModelDeserializer(type, jsonApiConfiguration);
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * An exception that carries {@literal JSON:API} errors, which can be rendered as error document.
+ * <p>
+ * When it is thrown while a model is rendered, e.g. because a limit of the {@link JsonApiConfiguration}
+ * is exceeded, the JSON mapper and the web framework wrap it, so an exception handler should use
+ * {@link #find(Throwable)} to get it.
+ *
+ * @author Kai Toedter
+ */
+public class JsonApiErrorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient JsonApiErrors errors;
+
+    /**
+     * Creates an exception with the given errors.
+     *
+     * @param errors must not be {@literal null} and must contain at least one error.
+     */
+    public JsonApiErrorException(JsonApiErrors errors) {
+        super(getMessage(errors));
+        this.errors = errors;
+    }
+
+    /**
+     * Creates an exception with the given error.
+     *
+     * @param error must not be {@literal null}.
+     */
+    public JsonApiErrorException(JsonApiError error) {
+        this(new JsonApiErrors(error));
+    }
+
+    private static String getMessage(JsonApiErrors errors) {
+        Assert.notNull(errors, "errors must not be null!");
+        Assert.notEmpty(errors.getErrors(), "errors must not be empty!");
+        final JsonApiError error = errors.getErrors().get(0);
+        return error.getDetail() != null ? error.getDetail() : error.getTitle();
+    }
+
+    /**
+     * Returns the errors to be rendered.
+     *
+     * @return will never be {@literal null}.
+     */
+    public JsonApiErrors getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the HTTP status of the first error.
+     *
+     * @return the HTTP status, {@literal 400} if the first error has no status.
+     */
+    public int getStatus() {
+        final String status = errors.getErrors().get(0).getStatus();
+        try {
+            return status == null ? 400 : Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            return 400;
+        }
+    }
+
+    /**
+     * Finds a {@link JsonApiErrorException} in the causes of the given exception.
+     *
+     * @param throwable can be {@literal null}.
+     * @return the exception itself or its first cause that is a {@link JsonApiErrorException},
+     * {@literal null} if there is none.
+     */
+    @Nullable
+    public static JsonApiErrorException find(@Nullable Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause != null) {
+            if (cause instanceof JsonApiErrorException) {
+                return (JsonApiErrorException) cause;
+            }
+            cause = cause.getCause();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Renders a {@link JsonApiErrorException} as JSON:API error document with the status of its first error,
+ * for Spring MVC.
+ * <p>
+ * The exception is also found if it is wrapped, e.g. because a request limit was exceeded while the body was read
+ * or a response limit while it was written. The resolver is consulted after the exception handlers
+ * of the application, and before the default handling of Spring MVC, other exceptions are left to the latter.
+ *
+ * @author Kai Toedter
+ */
+class JsonApiErrorExceptionResolver implements HandlerExceptionResolver {
+    private final ObjectMapper objectMapper;
+
+    JsonApiErrorExceptionResolver(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Nullable
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         @Nullable Object handler, Exception exception) {
+        final JsonApiErrorException errorException = JsonApiErrorException.find(exception);
+        if (errorException == null || response.isCommitted()) {
+            return null;
+        }
+        try {
+            response.resetBuffer();
+            response.setStatus(errorException.getStatus());
+            response.setContentType(MediaTypes.JSON_API_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), errorException.getErrors());
+            return new ModelAndView();
+        } catch (IOException e) {
+            // continues with the default handling of the original exception
+            return null;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import jdk.jfr.*;
+import org.springframework.hateoas.Links;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java Flight Recorder events for rendering and parsing JSON:API documents.
+ * <p>
+ * The event classes are only touched when {@literal jdk.jfr} is available at runtime,
+ * so the library still runs on Java 8 runtimes without Flight Recorder.
+ * When no recording enables an event, {@literal begin} does not create it and {@literal end} is a no-op,
+ * so the event fields are never computed.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiEvents {
+    static final boolean AVAILABLE =
+            ClassUtils.isPresent("jdk.jfr.Event", JsonApiEvents.class.getClassLoader());
+
+    private static final String CATEGORY = "JSON:API";
+
+    private JsonApiEvents() {
+    }
+
+    @Nullable
+    static Serialization beginSerialization() {
+        if (!AVAILABLE || !EventTypes.SERIALIZATION.isEnabled()) {
+            return null;
+        }
+        Serialization event = new Serialization();
+        event.begin();
+        return event;
+    }
+
+    static void endSerialization(@Nullable Serialization event, Class<?> modelClass,
+                                 @Nullable Object data, @Nullable List<JsonApiData> included) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.modelClass = modelClass.getName();
+        event.resourceType = getResourceType(data);
+        event.resourceCount = getResourceCount(data);
+        event.includedCount = included == null ? 0 : included.size();
+        event.commit();
+    }
+
+    @Nullable
+    static Deserialization beginDeserialization() {
+        if (!AVAILABLE || !EventTypes.DESERIALIZATION.isEnabled()) {
+            return null;
+        }
+        Deserialization event = new Deserialization();
+        event.begin();
+        return event;
+    }
+
+    static void endDeserialization(@Nullable Deserialization event, JsonApiDocument doc, long bytes) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        Object data = doc.getData();
+        Object first = data instanceof List && !((List<?>) data).isEmpty() ? ((List<?>) data).get(0) : data;
+        if (first instanceof Map) {
+            event.resourceType = String.valueOf(((Map<?, ?>) first).get("type"));
+        }
+        event.resourceCount = getResourceCount(data);
+        event.includedCount = doc.getIncluded() == null ? 0 : doc.getIncluded().size();
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    @Nullable
+    static ResourceFieldResolution beginResourceFieldResolution() {
+        if (!AVAILABLE || !EventTypes.RESOURCE_FIELD_RESOLUTION.isEnabled()) {
+            return null;
+        }
+        ResourceFieldResolution event = new ResourceFieldResolution();
+        event.begin();
+        return event;
+    }
+
+    static void endResourceFieldResolution(@Nullable ResourceFieldResolution event,
+                                           JsonApiResource.JsonApiResourceField field, Class<?> resourceClass) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.field = field.name();
+        event.resourceClass = resourceClass.getName();
+        event.commit();
+    }
+
+    @Nullable
+    static AttributesConversion beginAttributesConversion() {
+        if (!AVAILABLE || !EventTypes.ATTRIBUTES_CONVERSION.isEnabled()) {
+            return null;
+        }
+        AttributesConversion event = new AttributesConversion();
+        event.begin();
+        return event;
+    }
+
+    static void endAttributesConversion(@Nullable AttributesConversion event,
+                                        @Nullable String resourceType, int attributeCount) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.resourceType = resourceType;
+        event.attributeCount = attributeCount;
+        event.commit();
+    }
+
+    @Nullable
+    static LinksRendering beginLinksRendering() {
+        if (!AVAILABLE || !EventTypes.LINKS_RENDERING.isEnabled()) {
+            return null;
+        }
+        LinksRendering event = new LinksRendering();
+        event.begin();
+        return event;
+    }
+
+    static void endLinksRendering(@Nullable LinksRendering event, Links links) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.linkCount = links.toList().size();
+        event.commit();
+    }
+
+    /**
+     * The event types, only loaded if Flight Recorder is available.
+     */
+    private static final class EventTypes {
+        static final EventType SERIALIZATION = EventType.getEventType(Serialization.class);
+        static final EventType DESERIALIZATION = EventType.getEventType(Deserialization.class);
+        static final EventType RESOURCE_FIELD_RESOLUTION = EventType.getEventType(ResourceFieldResolution.class);
+        static final EventType ATTRIBUTES_CONVERSION = EventType.getEventType(AttributesConversion.class);
+        static final EventType LINKS_RENDERING = EventType.getEventType(LinksRendering.class);
+    }
+
+    @Nullable
+    private static String getResourceType(@Nullable Object data) {
+        if (data instanceof JsonApiData) {
+            return ((JsonApiData) data).getType();
+        }
+        if (data instanceof Map) {
+            // columnar data
+            Object type = ((Map<?, ?>) data).get("type");
+            return type == null ? null : type.toString();
+        }
+        if (data instanceof List && !((List<?>) data).isEmpty()) {
+            Object first = ((List<?>) data).get(0);
+            if (first instanceof JsonApiData) {
+                return ((JsonApiData) first).getType();
+            }
+        }
+        return null;
+    }
+
+    private static int getResourceCount(@Nullable Object data) {
+        if (data instanceof Collection) {
+            return ((Collection<?>) data).size();
+        }
+        if (data instanceof Map && ((Map<?, ?>) data).get("id") instanceof Collection) {
+            // columnar data
+            return ((Collection<?>) ((Map<?, ?>) data).get("id")).size();
+        }
+        return data == null ? 0 : 1;
+    }
+
+    @Name("com.toedter.spring.hateoas.jsonapi.Serialization")
+    @Label("JSON:API Document Serialization")
+    @Description("Rendering of a representation model as JSON:API document")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class Serialization extends Event {
+        @Label("Model Class")
+        String modelClass;
+
+        @Label("Resource Type")
+        String resourceType;
+
+        @Label("Resource Count")
+        int resourceCount;
+
+        @Label("Included Count")
+        int includedCount;
+    }
+
+    @Name("com.toedter.spring.hateoas.jsonapi.Deserialization")
+    @Label("JSON:API Document Deserialization")
+    @Description("Parsing of a JSON:API document into a representation model")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class Deserialization extends Event {
+        @Label("Resource Type")
+        String resourceType;
+
+        @Label("Resource Count")
+        int resourceCount;
+
+        @Label("Included Count")
+        int includedCount;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.toedter.spring.hateoas.jsonapi.ResourceFieldResolution")
+    @Label("JSON:API Resource Field Resolution")
+    @Description("Reflective lookup of the JSON:API id or type of a resource object")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class ResourceFieldResolution extends Event {
+        @Label("Field")
+        String field;
+
+        @Label("Resource Class")
+        String resourceClass;
+    }
+
+    @Name("com.toedter.spring.hateoas.jsonapi.AttributesConversion")
+    @Label("JSON:API Attributes Conversion")
+    @Description("Conversion of a resource object into JSON:API attributes")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class AttributesConversion extends Event {
+        @Label("Resource Type")
+        String resourceType;
+
+        @Label("Attribute Count")
+        int attributeCount;
+    }
+
+    @Name("com.toedter.spring.hateoas.jsonapi.LinksRendering")
+    @Label("JSON:API Links Rendering")
+    @Description("Rendering of a JSON:API links object")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class LinksRendering extends Event {
+        @Label("Link Count")
+        int linkCount;
+    }
+}
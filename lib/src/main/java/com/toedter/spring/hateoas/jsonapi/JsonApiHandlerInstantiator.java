@@ -47,6 +47,21 @@ class JsonApiHandlerInstantiator extends HandlerInstantiator {
                 new JsonApiCollectionModelSerializer(jsonApiConfiguration));
         this.serializers.put(JsonApiPagedModelSerializer.class,
                 new JsonApiPagedModelSerializer(jsonApiConfiguration));
+
+        // the deserializers need the request limits of the configuration
+        this.serializers.put(JsonApiRepresentationModelDeserializer.class,
+                new JsonApiRepresentationModelDeserializer(jsonApiConfiguration));
+        this.serializers.put(JsonApiEntityModelDeserializer.class,
+                new JsonApiEntityModelDeserializer(jsonApiConfiguration));
+        this.serializers.put(JsonApiCollectionModelDeserializer.class,
+                new JsonApiCollectionModelDeserializer(jsonApiConfiguration));
+        this.serializers.put(JsonApiPagedModelDeserializer.class,
+                new JsonApiPagedModelDeserializer(jsonApiConfiguration));
+
+        this.serializers.put(JsonApiAtomicOperationsDeserializer.class,
+                new JsonApiAtomicOperationsDeserializer(jsonApiConfiguration));
+        this.serializers.put(JsonApiAtomicResultsSerializer.class,
+                new JsonApiAtomicResultsSerializer(jsonApiConfiguration));
     }
 
     @Override
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.util.Assert;
+
+import java.util.*;
+
+/**
+ * Validates the relationship paths of JSON:API {@literal include} parameters before any data is loaded.
+ * <p>
+ * The relationships that can be included are declared per JSON:API type, together with the maximum number
+ * of related resources per resource (the fan-out), e.g.
+ * <code>
+ * JsonApiIncludePolicy.of("movies")
+ * .relationship("movies", "directors", "directors", 3)
+ * .relationship("directors", "movies", "movies", 50)
+ * .withMaxDepth(2)
+ * .withMaxIncludedResources(1000)
+ * </code>
+ * A path like {@literal directors.movies} is allowed if each of its relationships is declared for the type
+ * it starts from. Since relationships can form cycles, the depth of the paths is limited.
+ * The number of included resources of a request is estimated up front from the fan-outs,
+ * the number of related resources of a path is the product of the fan-outs of its relationships.
+ * Policies are immutable and can be shared between threads.
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiIncludePolicy {
+    /**
+     * The default maximum number of relationships of an include path.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 3;
+
+    private static final String INCLUDE = "include";
+
+    private final String rootType;
+    private final Map<String, Map<String, Relationship>> relationships;
+    private final int maxDepth;
+    private final long maxPathFanOut;
+    private final long maxIncludedResources;
+
+    private JsonApiIncludePolicy(String rootType,
+                                 Map<String, Map<String, Relationship>> relationships,
+                                 int maxDepth,
+                                 long maxPathFanOut,
+                                 long maxIncludedResources) {
+        this.rootType = rootType;
+        this.relationships = relationships;
+        this.maxDepth = maxDepth;
+        this.maxPathFanOut = maxPathFanOut;
+        this.maxIncludedResources = maxIncludedResources;
+    }
+
+    /**
+     * Creates a policy for the includes of resources of the given type, that allows no relationships yet.
+     *
+     * @param rootType the JSON:API type of the primary data, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiIncludePolicy of(String rootType) {
+        Assert.notNull(rootType, "root type must not be null!");
+        return new JsonApiIncludePolicy(rootType, Collections.emptyMap(), DEFAULT_MAX_DEPTH, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Allows including the given relationship of resources of the given type.
+     *
+     * @param type       the JSON:API type of the resources that have the relationship, must not be {@literal null}.
+     * @param name       the name of the relationship, must not be {@literal null}.
+     * @param targetType the JSON:API type of the related resources, must not be {@literal null}.
+     * @param maxFanOut  the maximum number of related resources per resource, {@literal 1} for to-one relationships.
+     * @return a new policy, will never be {@literal null}.
+     */
+    public JsonApiIncludePolicy relationship(String type, String name, String targetType, int maxFanOut) {
+        Assert.notNull(type, "type must not be null!");
+        Assert.notNull(name, "relationship name must not be null!");
+        Assert.notNull(targetType, "target type must not be null!");
+        Assert.isTrue(maxFanOut >= 0, "max fan-out must not be negative!");
+
+        Map<String, Map<String, Relationship>> newRelationships = new LinkedHashMap<>(relationships);
+        Map<String, Relationship> typeRelationships = new LinkedHashMap<>(
+                relationships.getOrDefault(type, Collections.emptyMap()));
+        typeRelationships.put(name, new Relationship(targetType, maxFanOut));
+        newRelationships.put(type, Collections.unmodifiableMap(typeRelationships));
+        return new JsonApiIncludePolicy(rootType, Collections.unmodifiableMap(newRelationships),
+                maxDepth, maxPathFanOut, maxIncludedResources);
+    }
+
+    /**
+     * Sets the maximum number of relationships of an include path,
+     * e.g. {@literal directors.movies} has the depth {@literal 2}.
+     *
+     * @param maxDepth must be positive, the default is {@value #DEFAULT_MAX_DEPTH}.
+     * @return a new policy, will never be {@literal null}.
+     */
+    public JsonApiIncludePolicy withMaxDepth(int maxDepth) {
+        Assert.isTrue(maxDepth > 0, "max depth must be positive!");
+        return new JsonApiIncludePolicy(rootType, relationships, maxDepth, maxPathFanOut, maxIncludedResources);
+    }
+
+    /**
+     * Sets the maximum number of resources a single primary resource can relate to with one include path,
+     * which is the product of the fan-outs of the relationships of the path.
+     *
+     * @param maxPathFanOut must not be negative, the default is no limit.
+     * @return a new policy, will never be {@literal null}.
+     */
+    public JsonApiIncludePolicy withMaxPathFanOut(long maxPathFanOut) {
+        Assert.isTrue(maxPathFanOut >= 0, "max path fan-out must not be negative!");
+        return new JsonApiIncludePolicy(rootType, relationships, maxDepth, maxPathFanOut, maxIncludedResources);
+    }
+
+    /**
+     * Sets the maximum estimated number of included resources of a request.
+     *
+     * @param maxIncludedResources must not be negative, the default is no limit.
+     * @return a new policy, will never be {@literal null}.
+     */
+    public JsonApiIncludePolicy withMaxIncludedResources(long maxIncludedResources) {
+        Assert.isTrue(maxIncludedResources >= 0, "max included resources must not be negative!");
+        return new JsonApiIncludePolicy(rootType, relationships, maxDepth, maxPathFanOut, maxIncludedResources);
+    }
+
+    /**
+     * Validates the {@literal include} parameter of the given query.
+     *
+     * @param query            must not be {@literal null}.
+     * @param primaryResources the (maximum) number of resources of the primary data, e.g. the page size.
+     * @return the estimated maximum number of included resources.
+     * @throws JsonApiErrorException with status {@literal 400} if an include path is not allowed,
+     *                               too deep or too expensive.
+     */
+    public long validate(JsonApiQuery query, int primaryResources) {
+        Assert.notNull(query, "JsonApiQuery must not be null!");
+        return validate(query.getIncludes(), primaryResources);
+    }
+
+    /**
+     * Validates the given include paths.
+     *
+     * @param includes         the requested relationship paths, must not be {@literal null}.
+     * @param primaryResources the (maximum) number of resources of the primary data, e.g. the page size.
+     * @return the estimated maximum number of included resources.
+     * @throws JsonApiErrorException with status {@literal 400} if an include path is not allowed,
+     *                               too deep or too expensive.
+     */
+    public long validate(Collection<String> includes, int primaryResources) {
+        Assert.notNull(includes, "includes must not be null!");
+        Assert.isTrue(primaryResources >= 0, "primary resources must not be negative!");
+
+        // the fan-outs of all paths and their prefixes, a prefix is included only once
+        Map<String, Long> pathFanOuts = new LinkedHashMap<>();
+        for (String include : includes) {
+            final String[] segments = include.split("\\.", -1);
+            if (segments.length > maxDepth) {
+                throw invalidInclude("Include too deep",
+                        "JSON:API include " + include + " has more than " + maxDepth + " relationships!");
+            }
+
+            String type = rootType;
+            String path = "";
+            long fanOut = 1;
+            for (String segment : segments) {
+                final Relationship relationship =
+                        relationships.getOrDefault(type, Collections.emptyMap()).get(segment);
+                if (relationship == null) {
+                    throw invalidInclude("Invalid include",
+                            "JSON:API include " + include + " is not supported!");
+                }
+                path = path.isEmpty() ? segment : path + "." + segment;
+                fanOut = multiply(fanOut, relationship.maxFanOut);
+                if (fanOut > maxPathFanOut) {
+                    throw invalidInclude("Include too expensive",
+                            "JSON:API include " + path + " can relate to more than " + maxPathFanOut
+                                    + " resources per resource!");
+                }
+                pathFanOuts.put(path, fanOut);
+                type = relationship.targetType;
+            }
+        }
+
+        long includedResources = 0;
+        for (long fanOut : pathFanOuts.values()) {
+            includedResources = add(includedResources, multiply(primaryResources, fanOut));
+        }
+        if (includedResources > maxIncludedResources) {
+            throw invalidInclude("Include too expensive",
+                    "JSON:API includes " + String.join(",", includes) + " can include more than "
+                            + maxIncludedResources + " resources!");
+        }
+        return includedResources;
+    }
+
+    private static JsonApiErrorException invalidInclude(String title, String detail) {
+        return new JsonApiErrorException(JsonApiError.create()
+                .withStatus("400")
+                .withTitle(title)
+                .withDetail(detail)
+                .withSourceParameter(INCLUDE));
+    }
+
+    private static long multiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static final class Relationship {
+        private final String targetType;
+        private final int maxFanOut;
+
+        Relationship(String targetType, int maxFanOut) {
+            this.targetType = targetType;
+            this.maxFanOut = maxFanOut;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Collects the resources that should be {@literal included} in a JSON:API compound document,
+ * and loads them in batches, with one call per resource type.
+ * <p>
+ * Loaders are registered per JSON:API type, e.g. with a Spring Data repository
+ * <code>
+ * loader.loader("directors", directorRepository::findAllById)
+ * </code>
+ * While assembling the models of the primary data, the needed resources are registered with
+ * {@link #need(String, Object)}. When the loader is passed to {@link JsonApiModelBuilder#included(JsonApiIncludedLoader)},
+ * all resources that are still needed are loaded when the model is built.
+ * So a page of 100 movies including their directors needs one query for all directors,
+ * instead of one query per movie.
+ * <p>
+ * NOTE: A loader is meant to be used for one request and is not thread-safe.
+ *
+ * @author Kai Toedter
+ */
+public class JsonApiIncludedLoader {
+    private final Map<String, Function<Collection<Object>, ? extends Iterable<?>>> loaders = new HashMap<>();
+    private final Map<String, Set<Object>> neededIds = new LinkedHashMap<>();
+    private final Map<String, Set<Object>> pendingIds = new LinkedHashMap<>();
+
+    private JsonApiIncludedLoader() {
+    }
+
+    /**
+     * Creates a new {@link JsonApiIncludedLoader}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiIncludedLoader includedLoader() {
+        return new JsonApiIncludedLoader();
+    }
+
+    /**
+     * Registers the loader for all resources of the given JSON:API type.
+     * The loader is called with all needed ids of this type at once.
+     *
+     * @param type   the JSON:API type, must not be {@literal null}.
+     * @param loader loads the resources of the given ids, must not be {@literal null}.
+     * @param <ID>   the type of the ids.
+     * @return will never be {@literal null}.
+     */
+    @SuppressWarnings("unchecked")
+    public <ID> JsonApiIncludedLoader loader(String type, Function<Collection<ID>, ? extends Iterable<?>> loader) {
+        Assert.notNull(type, "type must not be null!");
+        Assert.notNull(loader, "loader must not be null!");
+        loaders.put(type, (Function<Collection<Object>, ? extends Iterable<?>>) (Function<?, ?>) loader);
+        return this;
+    }
+
+    /**
+     * Registers that the resource with the given JSON:API type and id should be included.
+     * Registering the same resource several times loads it only once.
+     *
+     * @param type the JSON:API type, must not be {@literal null}.
+     * @param id   the id, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiIncludedLoader need(String type, Object id) {
+        Assert.notNull(type, "type must not be null!");
+        Assert.notNull(id, "id must not be null!");
+        if (neededIds.computeIfAbsent(type, key -> new HashSet<>()).add(id)) {
+            pendingIds.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(id);
+        }
+        return this;
+    }
+
+    /**
+     * Registers that the resources with the given JSON:API type and ids should be included.
+     *
+     * @param type the JSON:API type, must not be {@literal null}.
+     * @param ids  the ids, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiIncludedLoader need(String type, Iterable<?> ids) {
+        Assert.notNull(ids, "ids must not be null!");
+        for (Object id : ids) {
+            need(type, id);
+        }
+        return this;
+    }
+
+    /**
+     * Loads all needed resources that are not loaded yet, with one loader call per type.
+     * Resources that were loaded by a previous call are not returned again,
+     * so each resource is included only by the first model that is built with this loader.
+     *
+     * @return the resources loaded by this call, will never be {@literal null}.
+     * @throws IllegalStateException if no loader is registered for a needed type.
+     */
+    public List<Object> load() {
+        final List<Object> loadedResources = new ArrayList<>();
+        for (Map.Entry<String, Set<Object>> entry : pendingIds.entrySet()) {
+            Function<Collection<Object>, ? extends Iterable<?>> loader = loaders.get(entry.getKey());
+            if (loader == null) {
+                throw new IllegalStateException(
+                        "No JSON:API included loader registered for type " + entry.getKey() + "!");
+            }
+            Iterable<?> resources = loader.apply(Collections.unmodifiableSet(entry.getValue()));
+            if (resources != null) {
+                for (Object resource : resources) {
+                    loadedResources.add(resource);
+                }
+            }
+        }
+        pendingIds.clear();
+        return Collections.unmodifiableList(loadedResources);
+    }
+}
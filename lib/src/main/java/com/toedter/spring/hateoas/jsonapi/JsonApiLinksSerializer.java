@@ -36,30 +36,37 @@ class JsonApiLinksSerializer extends AbstractJsonApiSerializer<Links> {
 
     @Override
     public void serialize(Links value, JsonGenerator gen, SerializerProvider provider) throws IOException {
-        Map<LinkRelation, List<Link>> linksMap = new LinkedHashMap<>();
-        for (Link link : value) {
-            linksMap.computeIfAbsent(
-                    link.getRel(), key -> new ArrayList<>())
-                    .add(link);
-        }
+        final JsonApiEvents.LinksRendering event = JsonApiEvents.beginLinksRendering();
+        final long start = JsonApiTimings.start();
+        try {
+            Map<LinkRelation, List<Link>> linksMap = new LinkedHashMap<>();
+            for (Link link : value) {
+                linksMap.computeIfAbsent(
+                        link.getRel(), key -> new ArrayList<>())
+                        .add(link);
+            }
 
-        gen.writeStartObject();
+            gen.writeStartObject();
 
-        for (Map.Entry<LinkRelation, List<Link>> entry : linksMap.entrySet()) {
-            LinkRelation rel = entry.getKey();
-            List<Link> list = entry.getValue();
-            if (list.size() == 1) {
-                Link link = list.get(0);
-                serializeLinkWithRelation(gen, link);
-            } else {
-                gen.writeArrayFieldStart(rel.value());
-                for(Link link: list) {
-                    serializeLinkWithoutRelation(gen, link);
+            for (Map.Entry<LinkRelation, List<Link>> entry : linksMap.entrySet()) {
+                LinkRelation rel = entry.getKey();
+                List<Link> list = entry.getValue();
+                if (list.size() == 1) {
+                    Link link = list.get(0);
+                    serializeLinkWithRelation(gen, link);
+                } else {
+                    gen.writeArrayFieldStart(rel.value());
+                    for(Link link: list) {
+                        serializeLinkWithoutRelation(gen, link);
+                    }
+                    gen.writeEndArray();
                 }
-                gen.writeEndArray();
             }
+            gen.writeEndObject();
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.LINKS, start);
         }
-        gen.writeEndObject();
+        JsonApiEvents.endLinksRendering(event, value);
     }
 
     private void serializeLinkWithRelation(JsonGenerator gen, Link link) throws IOException {
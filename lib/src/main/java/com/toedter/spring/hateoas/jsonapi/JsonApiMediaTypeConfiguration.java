@@ -23,6 +23,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.hateoas.config.HypermediaMappingInformation;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
@@ -32,6 +33,7 @@ import java.util.List;
 
 @RequiredArgsConstructor
 @Configuration
+@Import(JsonApiWebStackImportSelector.class)
 class JsonApiMediaTypeConfiguration implements HypermediaMappingInformation {
 
     private final ObjectProvider<JsonApiConfiguration> configuration;
@@ -51,8 +53,11 @@ class JsonApiMediaTypeConfiguration implements HypermediaMappingInformation {
     @Override
     @NonNull
     public ObjectMapper configureObjectMapper(@NonNull ObjectMapper mapper) {
-        return this.configureObjectMapper(
-                mapper, configuration.getIfAvailable(JsonApiConfiguration::new));
+        return this.configureObjectMapper(mapper, getJsonApiConfiguration());
+    }
+
+    JsonApiConfiguration getJsonApiConfiguration() {
+        return configuration.getIfAvailable(JsonApiConfiguration::new);
     }
 
     @NonNull
@@ -18,14 +18,17 @@ package com.toedter.spring.hateoas.jsonapi;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Links;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.lang.Nullable;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 class JsonApiModel extends RepresentationModel<JsonApiModel> {
 
@@ -35,25 +38,65 @@ class JsonApiModel extends RepresentationModel<JsonApiModel> {
     @Getter
     private final Map<String, JsonApiRelationship> relationships;
 
+    // plain objects or representation models, plain objects are not wrapped to save memory
     @JsonIgnore
-    @Getter
-    private final List<RepresentationModel<?>> includedEntities;
+    private final List<Object> includedEntities;
 
     @JsonIgnore
     @Getter
     private final Map<String, Object> metaData;
 
+    // evaluated when the model is rendered, after the request-level filtering
+    @JsonIgnore
+    private final Map<String, List<UnaryOperator<JsonApiRelationship>>> lazyRelationships;
+
+    @JsonIgnore
+    private final Map<String, List<Supplier<?>>> lazyIncludedEntities;
+
+    @JsonIgnore
+    @Getter(AccessLevel.PACKAGE)
+    private final JsonApiQuery query;
+
+    // the included entities of several item models, which can contain the same resource more than once
+    @JsonIgnore
+    private final boolean includedMerged;
+
+    // creates the links of the primary resources when they are rendered, instead of a model per resource
+    @JsonIgnore
+    @Getter
+    private final JsonApiResourceTemplate resourceTemplate;
+
     JsonApiModel(
             @Nullable RepresentationModel<?> entity,
             @Nullable Map<String, JsonApiRelationship> relationships,
-            @Nullable List<RepresentationModel<?>> includedEntities,
+            @Nullable List<Object> includedEntities,
             @Nullable Map<String, Object> metadata,
             @Nullable Links links) {
+        this(entity, relationships, includedEntities, metadata, links,
+                Collections.emptyMap(), Collections.emptyMap(), null, null, false);
+    }
+
+    JsonApiModel(
+            @Nullable RepresentationModel<?> entity,
+            @Nullable Map<String, JsonApiRelationship> relationships,
+            @Nullable List<Object> includedEntities,
+            @Nullable Map<String, Object> metadata,
+            @Nullable Links links,
+            Map<String, List<UnaryOperator<JsonApiRelationship>>> lazyRelationships,
+            Map<String, List<Supplier<?>>> lazyIncludedEntities,
+            @Nullable JsonApiQuery query,
+            @Nullable JsonApiResourceTemplate resourceTemplate,
+            boolean includedMerged) {
 
         this.entity = entity;
         this.relationships = relationships;
         this.includedEntities = includedEntities;
         this.metaData = metadata;
+        this.lazyRelationships = lazyRelationships;
+        this.lazyIncludedEntities = lazyIncludedEntities;
+        this.query = query;
+        this.resourceTemplate = resourceTemplate;
+        this.includedMerged = includedMerged;
 
         if (links != null) {
             add(links);
@@ -65,4 +108,172 @@ class JsonApiModel extends RepresentationModel<JsonApiModel> {
     public RepresentationModel<?> getContent() {
         return entity;
     }
+
+    /**
+     * Returns the relationships to be rendered for a resource of the given type.
+     * Relationships that are not requested by a {@literal fields[TYPE]} parameter are skipped,
+     * lazy relationships are only evaluated if requested.
+     */
+    @Nullable
+    Map<String, JsonApiRelationship> getRelationships(@Nullable String type) {
+        if (lazyRelationships.isEmpty() && query == null) {
+            return relationships;
+        }
+
+        final Set<String> fields = query == null || type == null ? null : query.getFields(type);
+        final Map<String, JsonApiRelationship> resolvedRelationships = new LinkedHashMap<>();
+        if (relationships != null) {
+            relationships.forEach((name, relationship) -> {
+                if (fields == null || fields.contains(name)) {
+                    resolvedRelationships.put(name, relationship);
+                }
+            });
+        }
+
+        lazyRelationships.forEach((name, operators) -> {
+            if (fields != null && !fields.contains(name)) {
+                return;
+            }
+            JsonApiRelationship relationship = resolvedRelationships.get(name);
+            for (UnaryOperator<JsonApiRelationship> operator : operators) {
+                relationship = operator.apply(relationship);
+            }
+            if (relationship != null) {
+                if (!relationship.isValid()) {
+                    throw new IllegalStateException(
+                            "Cannot render representation model: JSON:API relationship validation error for: "
+                                    + relationship);
+                }
+                resolvedRelationships.put(name, relationship);
+            }
+        });
+        return resolvedRelationships;
+    }
+
+    /**
+     * Returns the included entities, lazy included entities are only evaluated
+     * if their relationship is requested by the {@literal include} parameter, and only once.
+     */
+    @JsonIgnore
+    public List<Object> getIncludedEntities() {
+        if (lazyIncludedEntities.isEmpty()) {
+            return includedEntities == null ? Collections.emptyList() : includedEntities;
+        }
+
+        List<Object> allIncludedEntities = new ArrayList<>();
+        if (includedEntities != null) {
+            allIncludedEntities.addAll(includedEntities);
+        }
+        lazyIncludedEntities.forEach((relationshipName, suppliers) -> {
+            if (isIncluded(relationshipName)) {
+                for (Supplier<?> supplier : suppliers) {
+                    addIncludedEntities(allIncludedEntities, supplier.get());
+                }
+            }
+        });
+        return allIncludedEntities;
+    }
+
+    /**
+     * Returns the included entities to be rendered with the given configuration.
+     * If the included entities were merged from several item models,
+     * resources with the same JSON:API type and id are returned only once.
+     */
+    List<Object> getIncludedEntities(JsonApiConfiguration jsonApiConfiguration) {
+        final List<Object> allIncludedEntities = getIncludedEntities();
+        if (!includedMerged || allIncludedEntities.size() < 2) {
+            return allIncludedEntities;
+        }
+        final Set<List<Object>> includedKeys = new HashSet<>();
+        final List<Object> uniqueIncludedEntities = new ArrayList<>(allIncludedEntities.size());
+        for (Object includedEntity : allIncludedEntities) {
+            final List<Object> includedKey = getIncludedKey(includedEntity, jsonApiConfiguration);
+            if (includedKey == null || includedKeys.add(includedKey)) {
+                uniqueIncludedEntities.add(includedEntity);
+            }
+        }
+        return uniqueIncludedEntities;
+    }
+
+    @Nullable
+    private static List<Object> getIncludedKey(Object includedEntity, JsonApiConfiguration jsonApiConfiguration) {
+        final Object content = includedEntity instanceof EntityModel
+                ? ((EntityModel<?>) includedEntity).getContent() : includedEntity;
+        if (content == null || content instanceof RepresentationModel) {
+            return null;
+        }
+        try {
+            final Object id = JsonApiResource.getId(content, jsonApiConfiguration).value;
+            if (id == null) {
+                return null;
+            }
+            return Arrays.asList(JsonApiResource.getType(content, jsonApiConfiguration).value, id);
+        } catch (IllegalStateException e) {
+            // resources without id are rendered as they are
+            return null;
+        }
+    }
+
+    /**
+     * Returns the included entities that were added eagerly, without evaluating lazy included entities.
+     */
+    List<Object> getEagerIncludedEntities() {
+        return includedEntities == null ? Collections.emptyList() : includedEntities;
+    }
+
+    Map<String, List<Supplier<?>>> getLazyIncludedEntities() {
+        return lazyIncludedEntities;
+    }
+
+    private boolean isIncluded(String relationshipName) {
+        if (query == null) {
+            return true;
+        }
+        for (String include : query.getIncludes()) {
+            if (include.equals(relationshipName) || include.startsWith(relationshipName + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls the given supplier at most once, so lazy included resources are not loaded again
+     * each time the included resources are requested.
+     */
+    static Supplier<?> memoize(Supplier<?> supplier) {
+        if (supplier instanceof MemoizedSupplier) {
+            return supplier;
+        }
+        return new MemoizedSupplier(supplier);
+    }
+
+    private static final class MemoizedSupplier implements Supplier<Object> {
+        private Supplier<?> supplier;
+        private Object value;
+
+        MemoizedSupplier(Supplier<?> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public synchronized Object get() {
+            if (supplier != null) {
+                value = supplier.get();
+                // releases everything the supplier captured
+                supplier = null;
+            }
+            return value;
+        }
+    }
+
+    static void addIncludedEntities(List<Object> includedEntities, @Nullable Object resources) {
+        if (resources instanceof Iterable) {
+            for (Object resource : (Iterable<?>) resources) {
+                addIncludedEntities(includedEntities, resource);
+            }
+        } else if (resources != null) {
+            includedEntities.add(resources);
+        }
+    }
 }
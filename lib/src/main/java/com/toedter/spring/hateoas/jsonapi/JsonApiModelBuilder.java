@@ -19,9 +19,18 @@ package com.toedter.spring.hateoas.jsonapi;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.*;
 import org.springframework.util.Assert;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Builder API to create complex JSON:API representations exposing a JSON:API idiomatic API.
@@ -35,15 +44,31 @@ public class JsonApiModelBuilder {
     private static final String RELATED = "related";
     private RepresentationModel<?> model;
     private Links links = Links.NONE;
-    private final HashMap<String, JsonApiRelationship> relationships = new HashMap<>();
-    private final List<RepresentationModel<?>> included = new ArrayList<>();
-    private final Map<String, Object> meta = new HashMap<>();
+    // allocated on first use, most models of a collection have few or none of them
+    private Map<String, JsonApiRelationship> relationships = Collections.emptyMap();
+    private List<Object> included = Collections.emptyList();
+    private List<JsonApiIncludedLoader> includedLoaders = Collections.emptyList();
+    private Map<String, Object> meta = Collections.emptyMap();
+    private Map<String, List<UnaryOperator<JsonApiRelationship>>> lazyRelationships = Collections.emptyMap();
+    private Map<String, List<Supplier<?>>> lazyIncluded = Collections.emptyMap();
+    private JsonApiQuery query;
+    private boolean includedMerged;
+    private JsonApiResourceTemplate resourceTemplate;
 
     private static final String PAGE = "page";
     private static final String PAGE_NUMBER = "number";
     private static final String PAGE_SIZE = "size";
     private static final String PAGE_TOTAL_ELEMENTS = "totalElements";
     private static final String PAGE_TOTAL_PAGES = "totalPages";
+    private static final String PAGE_HAS_PREVIOUS = "hasPrevious";
+    private static final String PAGE_HAS_NEXT = "hasNext";
+    private static final String PAGE_PREVIOUS_CURSOR = "previousCursor";
+    private static final String PAGE_NEXT_CURSOR = "nextCursor";
+
+    /**
+     * The default minimum number of items that {@link #collection(Iterable, Function)} assembles in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
 
     private JsonApiModelBuilder() {
     }
@@ -85,6 +110,22 @@ public class JsonApiModelBuilder {
         return this.model(EntityModel.of(object));
     }
 
+    /**
+     * Creates an {@link EntityModel} of a schemaless resource as the base for
+     * the {@literal RepresentationModel} to be built.
+     * The attributes are rendered as they are, see {@link JsonApiRow}.
+     * <p>
+     * NOTE: If the model is already set, an {@literal IllegalStateException} will be thrown.
+     *
+     * @param type       the JSON:API type, must not be {@literal null}.
+     * @param id         the JSON:API id, must not be {@literal null}.
+     * @param attributes the attributes, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder model(String type, Object id, Map<String, ?> attributes) {
+        return this.model(EntityModel.of(JsonApiRow.of(type, id, attributes)));
+    }
+
     /**
      * Adds a {@link Link} to the {@link RepresentationModel} to be built.
      * <p>
@@ -142,7 +183,7 @@ public class JsonApiModelBuilder {
 
         final JsonApiRelationship jsonApiRelationship =
                 addDataObject(relationships.get(name), dataObject);
-        relationships.put(name, jsonApiRelationship);
+        putRelationship(name, jsonApiRelationship);
 
         return this;
     }
@@ -166,11 +207,110 @@ public class JsonApiModelBuilder {
 
         final JsonApiRelationship jsonApiRelationship =
                 addDataCollection(relationships.get(name), collection);
-        relationships.put(name, jsonApiRelationship);
+        putRelationship(name, jsonApiRelationship);
+
+        return this;
+    }
+
+    /**
+     * Adds or updates a {@literal relationship} with data that is only computed
+     * when the model is rendered, and only if the relationship is not filtered out
+     * by a {@literal fields[TYPE]} parameter of the {@link #query(JsonApiQuery) query}.
+     * The supplier can return an object, an {@link EntityModel}, a {@link Collection}
+     * or {@literal null}, if there is no related resource.
+     * If there is already a relationship for the given name defined,
+     * the data will be added to the existing relationship.
+     *
+     * @param name         must not be {@literal null}.
+     * @param dataSupplier must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder relationship(String name, Supplier<?> dataSupplier) {
+        Assert.notNull(name, RELATIONSHIP_NAME_MUST_NOT_BE_NULL);
+        Assert.notNull(dataSupplier, "Relationship data supplier must not be null!");
+
+        addLazyRelationship(name, relationship -> addData(relationship, dataSupplier.get()));
 
         return this;
     }
 
+    /**
+     * Adds or updates a {@literal relationship} with data that is already resolved,
+     * like the result of an asynchronous lookup.
+     * The data can be an object, an {@link EntityModel}, a {@link Collection} or {@literal null},
+     * if there is no related resource.
+     */
+    JsonApiModelBuilder resolvedRelationship(String name, @Nullable Object data) {
+        Assert.notNull(name, RELATIONSHIP_NAME_MUST_NOT_BE_NULL);
+        final JsonApiRelationship jsonApiRelationship = addData(relationships.get(name), data);
+        if (jsonApiRelationship != null) {
+            putRelationship(name, jsonApiRelationship);
+        }
+        return this;
+    }
+
+    @Nullable
+    private static JsonApiRelationship addData(@Nullable JsonApiRelationship relationship, @Nullable Object data) {
+        if (data instanceof EntityModel) {
+            data = ((EntityModel<?>) data).getContent();
+        }
+        if (data == null) {
+            return relationship;
+        }
+        if (data instanceof Collection) {
+            return addDataCollection(relationship, (Collection<?>) data);
+        }
+        return addDataObject(relationship, data);
+    }
+
+    /**
+     * Adds or updates a {@literal relationship} with {@literal meta} that is only computed
+     * when the model is rendered, and only if the relationship is not filtered out
+     * by a {@literal fields[TYPE]} parameter of the {@link #query(JsonApiQuery) query}.
+     * If there is already a relationship for the given name defined,
+     * the meta will overwrite the meta of the existing relationship.
+     *
+     * @param name         must not be {@literal null}.
+     * @param metaSupplier must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder relationshipMeta(String name, Supplier<Map<String, Object>> metaSupplier) {
+        Assert.notNull(name, RELATIONSHIP_NAME_MUST_NOT_BE_NULL);
+        Assert.notNull(metaSupplier, "Relationship meta supplier must not be null!");
+
+        addLazyRelationship(name, relationship -> {
+            Map<String, Object> relationshipMeta = metaSupplier.get();
+            if (relationshipMeta == null) {
+                return relationship;
+            }
+            return relationship == null
+                    ? JsonApiRelationship.of(relationshipMeta) : relationship.withMeta(relationshipMeta);
+        });
+
+        return this;
+    }
+
+    private void putRelationship(String name, JsonApiRelationship relationship) {
+        if (relationships.isEmpty()) {
+            relationships = new HashMap<>();
+        }
+        relationships.put(name, relationship);
+    }
+
+    private void addIncluded(Object resource) {
+        if (included.isEmpty()) {
+            included = new ArrayList<>();
+        }
+        included.add(resource);
+    }
+
+    private void addLazyRelationship(String name, UnaryOperator<JsonApiRelationship> operator) {
+        if (lazyRelationships.isEmpty()) {
+            lazyRelationships = new LinkedHashMap<>();
+        }
+        lazyRelationships.computeIfAbsent(name, key -> new ArrayList<>()).add(operator);
+    }
+
     /**
      * Adds or updates a {@literal relationship} based on the given {@link EntityModel}
      * to the {@link RepresentationModel} to be built.
@@ -221,7 +361,7 @@ public class JsonApiModelBuilder {
             jsonApiRelationship = replaceLinks(jsonApiRelationship, selfLink, relatedLink, null);
         }
 
-        relationships.put(name, jsonApiRelationship);
+        putRelationship(name, jsonApiRelationship);
         return this;
     }
 
@@ -246,7 +386,7 @@ public class JsonApiModelBuilder {
         } else {
             jsonApiRelationship = jsonApiRelationship.withMeta(meta);
         }
-        relationships.put(name, jsonApiRelationship);
+        putRelationship(name, jsonApiRelationship);
 
         return this;
     }
@@ -270,7 +410,7 @@ public class JsonApiModelBuilder {
         Assert.notNull(name, RELATIONSHIP_NAME_MUST_NOT_BE_NULL);
 
         final JsonApiRelationship jsonApiRelationship = replaceLinks(relationships.get(name), selfLink, relatedLink, otherLinks);
-        relationships.put(name, jsonApiRelationship);
+        putRelationship(name, jsonApiRelationship);
 
         return this;
     }
@@ -298,7 +438,7 @@ public class JsonApiModelBuilder {
         } else {
             jsonApiRelationship = jsonApiRelationship.isAlwaysSerializedWithDataArray();
         }
-        relationships.put(name, jsonApiRelationship);
+        putRelationship(name, jsonApiRelationship);
 
         return this;
     }
@@ -337,7 +477,7 @@ public class JsonApiModelBuilder {
         return newRelationship;
     }
 
-    private JsonApiRelationship addDataObject(
+    private static JsonApiRelationship addDataObject(
             @Nullable JsonApiRelationship jsonApiRelationship, Object dataObject) {
         JsonApiRelationship newRelationship;
         if (jsonApiRelationship == null) {
@@ -348,7 +488,7 @@ public class JsonApiModelBuilder {
         return newRelationship;
     }
 
-    private JsonApiRelationship addDataCollection(
+    private static JsonApiRelationship addDataCollection(
             @Nullable JsonApiRelationship jsonApiRelationship, Collection<?> collection) {
         JsonApiRelationship newRelationship;
         if (jsonApiRelationship == null) {
@@ -368,21 +508,113 @@ public class JsonApiModelBuilder {
      * @return will never be {@literal null}.
      */
     public JsonApiModelBuilder included(EntityModel<?> entityModel) {
-        included.add(entityModel);
+        addIncluded(entityModel);
         return this;
     }
 
     /**
      * Adds the given {@link Object}
      * to the {@literal included} {@link EntityModel}s.
-     * The object is automatically wrapped into an {@link EntityModel}.
      * It will appear then top level {@literal JSON:API included} values.
+     * The object can be a plain object, a {@link RepresentationModel} or an {@link Iterable} of them,
+     * like the resources of a supplier of {@link #included(String, Supplier)}.
      *
      * @param object must not be {@literal null}.
      * @return will never be {@literal null}.
      */
     public JsonApiModelBuilder included(Object object) {
-        return this.included(EntityModel.of(object));
+        Assert.notNull(object, "included object must not be null!");
+        // plain objects are rendered like entity models without links, no need to wrap them
+        return resolvedIncluded(object);
+    }
+
+    /**
+     * Adds all resources of the given {@link JsonApiIncludedLoader}
+     * to the {@literal included} {@link EntityModel}s.
+     * The needed resources are loaded in batches when the model is built,
+     * so they can still be registered after calling this method.
+     *
+     * @param includedLoader must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder included(JsonApiIncludedLoader includedLoader) {
+        Assert.notNull(includedLoader, "included loader must not be null!");
+        if (includedLoaders.isEmpty()) {
+            includedLoaders = new ArrayList<>();
+        }
+        includedLoaders.add(includedLoader);
+        return this;
+    }
+
+    /**
+     * Adds the resources of the given {@link Supplier}
+     * to the {@literal included} {@link EntityModel}s.
+     * The supplier is only called when the model is rendered, and only if the relationship
+     * is requested by the {@literal include} parameter of the {@link #query(JsonApiQuery) query}.
+     * It can return an object, an {@link EntityModel}, an {@link Iterable} of them or {@literal null}.
+     * <p>
+     * The supplier is called at most once, on the thread that renders the response, after the controller method
+     * has returned. A supplier that reads lazy JPA state therefore needs a persistence context that is still open
+     * while the response is written, e.g. with open-session-in-view, otherwise it should load its resources itself.
+     *
+     * @param relationshipName the name of the relationship of the included resources, must not be {@literal null}.
+     * @param includedSupplier must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder included(String relationshipName, Supplier<?> includedSupplier) {
+        Assert.notNull(relationshipName, RELATIONSHIP_NAME_MUST_NOT_BE_NULL);
+        Assert.notNull(includedSupplier, "included supplier must not be null!");
+        if (lazyIncluded.isEmpty()) {
+            lazyIncluded = new LinkedHashMap<>();
+        }
+        lazyIncluded.computeIfAbsent(relationshipName, key -> new ArrayList<>())
+                .add(JsonApiModel.memoize(includedSupplier));
+        return this;
+    }
+
+    /**
+     * Adds already resolved resources, like the result of an asynchronous lookup,
+     * to the {@literal included} {@link EntityModel}s.
+     * The resources can be an object, a {@link RepresentationModel}, an {@link Iterable} of them or {@literal null}.
+     */
+    JsonApiModelBuilder resolvedIncluded(@Nullable Object resources) {
+        if (included.isEmpty()) {
+            included = new ArrayList<>();
+        }
+        JsonApiModel.addIncludedEntities(included, resources);
+        return this;
+    }
+
+    /**
+     * Sets the {@link JsonApiQuery} of the request, to render only the requested relationships.
+     * Relationships that are not requested by a {@literal fields[TYPE]} parameter are not rendered,
+     * included resources added with {@link #included(String, Supplier)} are only rendered if their
+     * relationship is requested by the {@literal include} parameter.
+     * Without a query, all relationships and included resources are rendered.
+     *
+     * @param query must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder query(JsonApiQuery query) {
+        Assert.notNull(query, "JsonApiQuery must not be null!");
+        this.query = query;
+        return this;
+    }
+
+    /**
+     * Sets a {@link JsonApiResourceTemplate} that creates the self link and the relationship links
+     * of all primary resources of a collection model when it is rendered.
+     * Resources that already have links or relationships, e.g. because they are
+     * {@link EntityModel}s with links, keep them.
+     * So a collection of plain entities can be rendered with links without creating a model for each entity.
+     *
+     * @param resourceTemplate must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder resourceTemplate(JsonApiResourceTemplate resourceTemplate) {
+        Assert.notNull(resourceTemplate, "resource template must not be null!");
+        this.resourceTemplate = resourceTemplate;
+        return this;
     }
 
     /**
@@ -393,10 +625,17 @@ public class JsonApiModelBuilder {
      * @return will never be {@literal null}.
      */
     public JsonApiModelBuilder meta(String key, Object value) {
-        this.meta.put(key, value);
+        putMeta(key, value);
         return this;
     }
 
+    private void putMeta(String key, @Nullable Object value) {
+        if (meta.isEmpty()) {
+            meta = new HashMap<>();
+        }
+        meta.put(key, value);
+    }
+
     /**
      * Adds the paging information to the {@literal JSON:API} meta.
      * Preconditions are:
@@ -420,7 +659,7 @@ public class JsonApiModelBuilder {
         metaObject.put(PAGE_TOTAL_ELEMENTS, totalElements);
         metaObject.put(PAGE_TOTAL_PAGES, totalPages);
 
-        meta.put(PAGE, metaObject);
+        putMeta(PAGE, metaObject);
 
         return this;
     }
@@ -435,7 +674,8 @@ public class JsonApiModelBuilder {
      * <li>the model contains {@literal PageMetadata}
      * </ul>
      *
-     * @param linkBase the prefix of all pagination links, e.g. the base URL of the collection resource
+     * @param linkBase the prefix of all pagination links, e.g. the base URL of the collection resource,
+     *                 may already contain query parameters like {@literal filter[...]}
      * @return will never be {@literal null}.
      */
     public JsonApiModelBuilder pageLinks(String linkBase) {
@@ -471,27 +711,28 @@ public class JsonApiModelBuilder {
         final long totalPages = metadata.getTotalPages();
 
         List<Link> paginationLinks = new ArrayList<>();
+        final String separator = linkBase.contains("?") ? "&" : "?";
 
         if (pageNumber > 0) {
-            Link firstLink = Link.of(linkBase + "?" + pageNumberRequestParam + "=0&"
+            Link firstLink = Link.of(linkBase + separator + pageNumberRequestParam + "=0&"
                     + pageSizeRequestParam + "=" + pageSize).withRel(IanaLinkRelations.FIRST);
             paginationLinks.add(firstLink);
         }
 
         if (pageNumber > 0) {
-            Link prevLink = Link.of(linkBase + "?" + pageNumberRequestParam + "=" + (pageNumber - 1)
+            Link prevLink = Link.of(linkBase + separator + pageNumberRequestParam + "=" + (pageNumber - 1)
                     + "&" + pageSizeRequestParam + "=" + pageSize).withRel(IanaLinkRelations.PREV);
             paginationLinks.add(prevLink);
         }
 
         if (pageNumber < totalPages - 1) {
-            Link nextLink = Link.of(linkBase + "?" + pageNumberRequestParam + "=" + (pageNumber + 1)
+            Link nextLink = Link.of(linkBase + separator + pageNumberRequestParam + "=" + (pageNumber + 1)
                     + "&" + pageSizeRequestParam + "=" + (pageNumber + 1)).withRel(IanaLinkRelations.NEXT);
             paginationLinks.add(nextLink);
         }
 
         if (pageNumber < totalPages - 1) {
-            Link lastLink = Link.of(linkBase + "?" + pageNumberRequestParam + "=" + (totalPages - 1)
+            Link lastLink = Link.of(linkBase + separator + pageNumberRequestParam + "=" + (totalPages - 1)
                     + "&" + pageSizeRequestParam + "=" + pageSize).withRel(IanaLinkRelations.LAST);
             paginationLinks.add(lastLink);
         }
@@ -501,6 +742,73 @@ public class JsonApiModelBuilder {
         return this;
     }
 
+    /**
+     * Adds the keyset pagination information of the given page to the {@literal JSON:API} meta, e.g.
+     * <code>
+     * "page": {"size": 10, "hasPrevious": true, "hasNext": true, "previousCursor": "...", "nextCursor": "..."}
+     * </code>
+     * Unlike {@link #pageMeta()}, there are no total elements and pages, since counting all rows
+     * would cost as much as the offset pagination that keyset pagination avoids.
+     *
+     * @param page must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder cursorPageMeta(JsonApiCursorPage<?> page) {
+        Assert.notNull(page, "cursor page must not be null!");
+
+        Map<String, Object> metaObject = new LinkedHashMap<>();
+        metaObject.put(PAGE_SIZE, page.getSize());
+        metaObject.put(PAGE_HAS_PREVIOUS, page.hasPrevious());
+        metaObject.put(PAGE_HAS_NEXT, page.hasNext());
+        if (page.hasPrevious()) {
+            metaObject.put(PAGE_PREVIOUS_CURSOR, page.getPreviousCursor().encode());
+        }
+        if (page.hasNext()) {
+            metaObject.put(PAGE_NEXT_CURSOR, page.getNextCursor().encode());
+        }
+
+        putMeta(PAGE, metaObject);
+
+        return this;
+    }
+
+    /**
+     * Creates the keyset pagination links {@literal first}, {@literal prev} and {@literal next}
+     * with the request parameters {@literal page[size]}, {@literal page[before]} and {@literal page[after]}.
+     * There is no {@literal last} link, because the last page can only be found by reading all pages.
+     *
+     * @param linkBase the prefix of all pagination links, e.g. the base URL of the collection resource,
+     *                 may already contain query parameters like {@literal filter[...]}
+     * @param page     must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder cursorPageLinks(String linkBase, JsonApiCursorPage<?> page) {
+        Assert.notNull(linkBase, "link base for paging must not be null!");
+        Assert.notNull(page, "cursor page must not be null!");
+
+        List<Link> paginationLinks = new ArrayList<>();
+        final String separator = linkBase.contains("?") ? "&" : "?";
+        final String pageSizeParameter = "page[size]=" + page.getSize();
+
+        if (page.hasPrevious()) {
+            paginationLinks.add(Link.of(linkBase + separator + pageSizeParameter)
+                    .withRel(IanaLinkRelations.FIRST));
+            paginationLinks.add(Link.of(linkBase + separator + "page[before]="
+                    + page.getPreviousCursor().encode() + "&" + pageSizeParameter)
+                    .withRel(IanaLinkRelations.PREV));
+        }
+
+        if (page.hasNext()) {
+            paginationLinks.add(Link.of(linkBase + separator + "page[after]="
+                    + page.getNextCursor().encode() + "&" + pageSizeParameter)
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+
+        this.links = this.links.and(paginationLinks);
+
+        return this;
+    }
+
     /**
      * Transform the entities, Links, relationships and included
      * into a {@link RepresentationModel}.
@@ -508,14 +816,68 @@ public class JsonApiModelBuilder {
      * @return will never be {@literal null}.
      */
     public RepresentationModel<?> build() {
-        for (JsonApiRelationship jsonApiRelationship : relationships.values()) {
-            if (!jsonApiRelationship.isValid()) {
-                throw new IllegalStateException(
-                        "Cannot build representation model: JSON:API relationship validation error for: "
-                                + jsonApiRelationship);
+        final long start = JsonApiTimings.start();
+        try {
+            for (JsonApiRelationship jsonApiRelationship : relationships.values()) {
+                if (!jsonApiRelationship.isValid()) {
+                    throw new IllegalStateException(
+                            "Cannot build representation model: JSON:API relationship validation error for: "
+                                    + jsonApiRelationship);
+                }
             }
+            List<Object> allIncluded = included;
+            if (!includedLoaders.isEmpty()) {
+                allIncluded = new ArrayList<>(included);
+                for (JsonApiIncludedLoader includedLoader : includedLoaders) {
+                    allIncluded.addAll(includedLoader.load());
+                }
+            }
+            // the model lives until it is rendered, so it keeps only compact copies
+            return new JsonApiModel(
+                    model,
+                    JsonApiSmallMap.copyOf(relationships),
+                    compactList(allIncluded),
+                    JsonApiSmallMap.copyOf(meta),
+                    links,
+                    lazyRelationships,
+                    lazyIncluded,
+                    query,
+                    resourceTemplate,
+                    includedMerged);
+        } finally {
+            JsonApiTimings.stop(JsonApiTimings.Phase.BUILD, start);
+        }
+    }
+
+    private static List<Object> compactList(List<Object> list) {
+        if (list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (list.size() == 1) {
+            return Collections.singletonList(list.get(0));
         }
-        return new JsonApiModel(model, relationships, included, meta, links);
+        return list;
+    }
+
+    /**
+     * Continues building with relationships, included resources and meta of
+     * {@link java.util.concurrent.CompletionStage}s, see {@link JsonApiAsyncModelBuilder}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public JsonApiAsyncModelBuilder async() {
+        return new JsonApiAsyncModelBuilder(this);
+    }
+
+    /**
+     * Continues building with relationships, included resources and meta of
+     * Reactor {@literal Mono}s and {@literal Flux}es, see {@link JsonApiReactiveModelBuilder}.
+     * Requires Project Reactor on the classpath.
+     *
+     * @return will never be {@literal null}.
+     */
+    public JsonApiReactiveModelBuilder reactive() {
+        return new JsonApiReactiveModelBuilder(this);
     }
 
     /**
@@ -527,6 +889,177 @@ public class JsonApiModelBuilder {
         return new JsonApiModelBuilder();
     }
 
+    /**
+     * Creates a new {@link JsonApiModelBuilder} with a {@link CollectionModel} of the models
+     * the assembler creates for the given items.
+     * The included resources of all item models are merged into the {@literal included} of the new builder,
+     * resources with the same JSON:API type and id are included only once. Lazy included resources
+     * are not evaluated before the model is rendered, with the query of the first item model that has one,
+     * unless the new builder gets its own {@link #query(JsonApiQuery) query}.
+     * <p>
+     * Collections with at least {@value #DEFAULT_PARALLEL_THRESHOLD} items are assembled in parallel
+     * in the common {@link ForkJoinPool}.
+     *
+     * @param items     must not be {@literal null}.
+     * @param assembler creates the model of an item, must not be {@literal null}.
+     * @param <T>       the type of the items.
+     * @return will never be {@literal null}.
+     */
+    public static <T> JsonApiModelBuilder collection(
+            Iterable<T> items, Function<? super T, ? extends RepresentationModel<?>> assembler) {
+        return collection(items, assembler, null);
+    }
+
+    /**
+     * Creates a new {@link JsonApiModelBuilder} with a {@link PagedModel} of the models
+     * the assembler creates for the given items, see {@link #collection(Iterable, Function)}.
+     *
+     * @param items        must not be {@literal null}.
+     * @param assembler    creates the model of an item, must not be {@literal null}.
+     * @param pageMetadata the page metadata, if {@literal null} a {@link CollectionModel} is created.
+     * @param <T>          the type of the items.
+     * @return will never be {@literal null}.
+     */
+    public static <T> JsonApiModelBuilder collection(
+            Iterable<T> items,
+            Function<? super T, ? extends RepresentationModel<?>> assembler,
+            @Nullable PagedModel.PageMetadata pageMetadata) {
+        return collection(items, assembler, pageMetadata, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a new {@link JsonApiModelBuilder} with a {@link PagedModel} of the models
+     * the assembler creates for the given items, see {@link #collection(Iterable, Function)}.
+     * <p>
+     * If there are at least {@literal parallelThreshold} items, the item models are assembled
+     * in chunks on the given executor, the order of the items is preserved.
+     * The request attributes of the calling thread are available to the assembler,
+     * so it can still create links with {@literal WebMvcLinkBuilder}.
+     * Anyway, links that are the same for all items should rather be prepared once, e.g. with a
+     * {@link JsonApiResourceTemplate}.
+     * <p>
+     * The assembler must not touch lazily loaded state of the items, e.g. of JPA entities, when the items are
+     * assembled in parallel, because the persistence context belongs to the calling thread.
+     * Such items should be assembled sequentially, with a {@literal parallelThreshold} of {@link Integer#MAX_VALUE}.
+     *
+     * @param items             must not be {@literal null}.
+     * @param assembler         creates the model of an item, must be thread-safe and not {@literal null}.
+     * @param pageMetadata      the page metadata, if {@literal null} a {@link CollectionModel} is created.
+     * @param executor          the executor for the parallel assembly, must not be {@literal null}.
+     * @param parallelThreshold the minimum number of items to assemble in parallel.
+     * @param <T>               the type of the items.
+     * @return will never be {@literal null}.
+     */
+    public static <T> JsonApiModelBuilder collection(
+            Iterable<T> items,
+            Function<? super T, ? extends RepresentationModel<?>> assembler,
+            @Nullable PagedModel.PageMetadata pageMetadata,
+            Executor executor,
+            int parallelThreshold) {
+        Assert.notNull(items, "items must not be null!");
+        Assert.notNull(assembler, "assembler must not be null!");
+        Assert.notNull(executor, "executor must not be null!");
+
+        final List<T> itemList = toList(items);
+        final RepresentationModel<?>[] itemModels = new RepresentationModel<?>[itemList.size()];
+        if (itemList.size() < Math.max(parallelThreshold, 2)) {
+            assemble(itemList, assembler, itemModels, 0, itemList.size());
+        } else {
+            assembleInParallel(itemList, assembler, itemModels, executor);
+        }
+
+        final List<RepresentationModel<?>> content = Arrays.asList(itemModels);
+        final JsonApiModelBuilder builder = jsonApiModel().model(
+                pageMetadata == null ? CollectionModel.of(content) : PagedModel.of(content, pageMetadata));
+        mergeIncluded(content, builder);
+        return builder;
+    }
+
+    private static <T> List<T> toList(Iterable<T> items) {
+        if (items instanceof List && items instanceof RandomAccess) {
+            return (List<T>) items;
+        }
+        List<T> itemList = new ArrayList<>();
+        items.forEach(itemList::add);
+        return itemList;
+    }
+
+    private static <T> void assemble(List<T> items,
+                                     Function<? super T, ? extends RepresentationModel<?>> assembler,
+                                     RepresentationModel<?>[] itemModels, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final RepresentationModel<?> itemModel = assembler.apply(items.get(i));
+            Assert.notNull(itemModel, "assembler must not return null!");
+            itemModels[i] = itemModel;
+        }
+    }
+
+    private static <T> void assembleInParallel(List<T> items,
+                                               Function<? super T, ? extends RepresentationModel<?>> assembler,
+                                               RepresentationModel<?>[] itemModels,
+                                               Executor executor) {
+        final int chunks = Math.min(items.size(), Runtime.getRuntime().availableProcessors());
+        final int chunkSize = (items.size() + chunks - 1) / chunks;
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, items.size());
+            futures.add(CompletableFuture.runAsync(() -> {
+                final RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    assemble(items, assembler, itemModels, chunkFrom, chunkTo);
+                } finally {
+                    RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Merges the included resources of the item models into the builder, without evaluating lazy included resources.
+     * Duplicates are removed when the model is rendered, with the configuration of the serializer.
+     */
+    private static void mergeIncluded(List<RepresentationModel<?>> itemModels, JsonApiModelBuilder builder) {
+        for (RepresentationModel<?> itemModel : itemModels) {
+            if (!(itemModel instanceof JsonApiModel)) {
+                continue;
+            }
+            final JsonApiModel jsonApiModel = (JsonApiModel) itemModel;
+            if (!jsonApiModel.getEagerIncludedEntities().isEmpty()) {
+                if (builder.included.isEmpty()) {
+                    builder.included = new ArrayList<>();
+                }
+                builder.included.addAll(jsonApiModel.getEagerIncludedEntities());
+            }
+            jsonApiModel.getLazyIncludedEntities().forEach((relationshipName, suppliers) -> {
+                if (builder.lazyIncluded.isEmpty()) {
+                    builder.lazyIncluded = new LinkedHashMap<>();
+                }
+                builder.lazyIncluded.computeIfAbsent(relationshipName, key -> new ArrayList<>()).addAll(suppliers);
+            });
+            // the lazy included resources of the items are requested by their query
+            if (builder.query == null) {
+                builder.query = jsonApiModel.getQuery();
+            }
+            builder.includedMerged = true;
+        }
+    }
+
     private PagedModel.PageMetadata getPageMetadata() {
         if (this.model == null) {
             throw new IllegalStateException("Model object (PagedModel) must be set.");
@@ -28,11 +28,15 @@ class JsonApiPagedModelDeserializer extends AbstractJsonApiModelDeserializer<Pag
         implements ContextualDeserializer {
 
     JsonApiPagedModelDeserializer() {
-        super();
+        this(new JsonApiConfiguration());
     }
 
-    protected JsonApiPagedModelDeserializer(JavaType contentType) {
-        super(contentType);
+    JsonApiPagedModelDeserializer(JsonApiConfiguration jsonApiConfiguration) {
+        super(jsonApiConfiguration);
+    }
+
+    protected JsonApiPagedModelDeserializer(JavaType contentType, JsonApiConfiguration jsonApiConfiguration) {
+        super(contentType, jsonApiConfiguration);
     }
 
     @Override
@@ -42,7 +46,12 @@ class JsonApiPagedModelDeserializer extends AbstractJsonApiModelDeserializer<Pag
         return PagedModel.of(resources, null, links);
     }
 
+    @Override
+    protected boolean isCollection() {
+        return true;
+    }
+
     protected JsonDeserializer<?> createJsonDeserializer(JavaType type) {
-        return new JsonApiPagedModelDeserializer(type);
+        return new JsonApiPagedModelDeserializer(type, jsonApiConfiguration);
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import java.util.*;
+
+/**
+ * Selects JSON:API sparse fieldsets {@literal fields[...]} directly from the database,
+ * so only the columns of the requested attributes and the id are loaded.
+ * <p>
+ * The result are {@link JsonApiRow}s with the JSON:API type of the entity, which can be rendered like the entities,
+ * the selected attribute names are shared by all rows, e.g.
+ * <code>
+ * JsonApiProjections.select(entityManager, Movie.class, query.getFields("movies"), specification, pageable,
+ * "title", "year", "rating")
+ * </code>
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiProjections {
+
+    private JsonApiProjections() {
+    }
+
+    /**
+     * Selects the given attributes of all entities matching the specification.
+     *
+     * @param entityManager        must not be {@literal null}.
+     * @param entityClass          the class of the entity, must not be {@literal null}.
+     * @param fields               the requested attributes, {@literal null} selects all selectable attributes.
+     * @param specification        restricts the selected entities, can be {@literal null}.
+     * @param pageable             the page and sort order to select, must not be {@literal null}.
+     * @param selectableAttributes the basic attributes of the entity that can be selected.
+     * @param <T>                  the type of the entity.
+     * @return will never be {@literal null}.
+     * @throws IllegalArgumentException if a requested attribute is not selectable.
+     */
+    public static <T> List<JsonApiRow> select(EntityManager entityManager,
+                                              Class<T> entityClass,
+                                              @Nullable Collection<String> fields,
+                                              @Nullable Specification<T> specification,
+                                              Pageable pageable,
+                                              String... selectableAttributes) {
+        Assert.notNull(entityManager, "EntityManager must not be null!");
+        Assert.notNull(entityClass, "entity class must not be null!");
+        Assert.notNull(pageable, "Pageable must not be null!");
+        Assert.notNull(selectableAttributes, "selectable attributes must not be null!");
+
+        final List<String> attributes = getSelectedAttributes(fields, selectableAttributes);
+        final EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        for (String attribute : attributes) {
+            Attribute.PersistentAttributeType attributeType =
+                    entityType.getAttribute(attribute).getPersistentAttributeType();
+            if (attributeType != Attribute.PersistentAttributeType.BASIC) {
+                throw new IllegalArgumentException("JSON:API field " + attribute + " is not a basic attribute!");
+            }
+        }
+        final String idAttribute = entityType.getId(entityType.getIdType().getJavaType()).getName();
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+
+        List<Selection<?>> selections = new ArrayList<>(attributes.size() + 1);
+        selections.add(root.get(idAttribute));
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute));
+        }
+        criteriaQuery.multiselect(selections);
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, criteriaQuery, criteriaBuilder);
+            if (predicate != null) {
+                criteriaQuery.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            criteriaQuery.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteriaQuery);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<JsonApiRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Object[] values = new Object[attributes.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = tuple.get(i + 1);
+            }
+            rows.add(JsonApiRow.of(entityClass, tuple.get(0), attributes, values));
+        }
+        return rows;
+    }
+
+    static List<String> getSelectedAttributes(@Nullable Collection<String> fields, String... selectableAttributes) {
+        if (fields == null) {
+            return Arrays.asList(selectableAttributes);
+        }
+        final Set<String> allowedAttributes = new HashSet<>(Arrays.asList(selectableAttributes));
+        for (String field : fields) {
+            if (!allowedAttributes.contains(field)) {
+                throw new IllegalArgumentException("JSON:API field " + field + " is not supported!");
+            }
+        }
+        return new ArrayList<>(fields);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.aop.TargetClassAware;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.util.ReflectionUtils.findField;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
+
+/**
+ * The bean properties of proxy objects, like Spring Data interface projections or lazy loading proxies.
+ * <p>
+ * Proxies have no declared fields that contain the state of the resource, so the id and type
+ * are read with the getters of the projection interfaces or the proxied class, and the attributes are
+ * serialized by Jackson as the projection interfaces or the proxied class, not as the proxy class.
+ * So Jackson annotations and naming strategies apply like they do for entities.
+ * The JSON:API type is derived from the target class of the proxy, e.g. the entity of a Spring Data projection,
+ * if it is known. The properties are introspected once per proxy class.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiProxyProperties {
+    private static final Map<Class<?>, JsonApiProxyProperties> CACHE = new ConcurrentHashMap<>();
+
+    private final List<Class<?>> beanClasses;
+    private final String idProperty;
+    private final Method idGetter;
+    private final String typeProperty;
+    private final Method typeGetter;
+    private final boolean empty;
+
+    private JsonApiProxyProperties(List<Class<?>> beanClasses,
+                                   String idProperty,
+                                   Method idGetter,
+                                   String typeProperty,
+                                   Method typeGetter,
+                                   boolean empty) {
+        this.beanClasses = beanClasses;
+        this.idProperty = idProperty;
+        this.idGetter = idGetter;
+        this.typeProperty = typeProperty;
+        this.typeGetter = typeGetter;
+        this.empty = empty;
+    }
+
+    static boolean isProxy(Class<?> clazz) {
+        return Proxy.isProxyClass(clazz) || isClassProxy(clazz);
+    }
+
+    private static boolean isClassProxy(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.contains(ClassUtils.CGLIB_CLASS_SEPARATOR) || name.contains("$HibernateProxy$");
+    }
+
+    static JsonApiProxyProperties forClass(Class<?> proxyClass) {
+        return CACHE.computeIfAbsent(proxyClass, JsonApiProxyProperties::introspect);
+    }
+
+    private static JsonApiProxyProperties introspect(Class<?> proxyClass) {
+        List<Class<?>> beanClasses = new ArrayList<>();
+        if (Proxy.isProxyClass(proxyClass)) {
+            for (Class<?> proxyInterface : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+                if (!isFrameworkType(proxyInterface)) {
+                    beanClasses.add(proxyInterface);
+                }
+            }
+        } else {
+            Class<?> userClass = proxyClass;
+            while (isClassProxy(userClass) && userClass.getSuperclass() != null) {
+                userClass = userClass.getSuperclass();
+            }
+            beanClasses.add(userClass);
+        }
+        if (beanClasses.isEmpty()) {
+            throw new IllegalStateException("Cannot determine JSON:API resource of proxy " + proxyClass.getName());
+        }
+
+        String idProperty = null;
+        Method idGetter = null;
+        Method jpaIdGetter = null;
+        String jpaIdProperty = null;
+        String typeProperty = null;
+        Method typeGetter = null;
+        boolean empty = true;
+        for (Class<?> beanClass : beanClasses) {
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(beanClass)) {
+                Method getter = descriptor.getReadMethod();
+                String name = descriptor.getName();
+                if (getter == null || "class".equals(name)) {
+                    continue;
+                }
+                empty = false;
+                makeAccessible(getter);
+                Field field = findField(beanClass, name);
+                if (isAnnotated(getter, field, JsonApiResource.JSONAPI_ID_ANNOTATION)) {
+                    idProperty = name;
+                    idGetter = getter;
+                } else if (isAnnotated(getter, field, JsonApiResource.JPA_ID_ANNOTATION)) {
+                    jpaIdProperty = name;
+                    jpaIdGetter = getter;
+                } else if (isAnnotated(getter, field, JsonApiResource.JSONAPI_TYPE_ANNOTATION)) {
+                    typeProperty = name;
+                    typeGetter = getter;
+                }
+            }
+        }
+
+        if (idGetter == null) {
+            idProperty = jpaIdProperty != null ? jpaIdProperty : "id";
+            idGetter = jpaIdGetter != null ? jpaIdGetter : findGetter(beanClasses, "id");
+        }
+
+        return new JsonApiProxyProperties(Collections.unmodifiableList(beanClasses),
+                idProperty, idGetter, typeProperty, typeGetter, empty && idGetter == null);
+    }
+
+    private static boolean isFrameworkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("org.springframework.") || name.startsWith("org.hibernate.");
+    }
+
+    private static Method findGetter(List<Class<?>> beanClasses, String name) {
+        for (Class<?> beanClass : beanClasses) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(beanClass, name);
+            if (descriptor != null && descriptor.getReadMethod() != null) {
+                return descriptor.getReadMethod();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAnnotated(Method getter, Field field, String annotationName) {
+        return hasAnnotation(getter.getAnnotations(), annotationName)
+                || field != null && hasAnnotation(field.getAnnotations(), annotationName);
+    }
+
+    private static boolean hasAnnotation(Annotation[] annotations, String annotationName) {
+        for (Annotation annotation : annotations) {
+            if (annotationName.equals(annotation.annotationType().getCanonicalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    JsonApiResource.ResourceField getId(Object proxy) {
+        Object id = idGetter == null ? null : invoke(idGetter, proxy);
+        if (id == null) {
+            throw new IllegalStateException(JsonApiResource.JSON_API_RESOURCE_OBJECT_MUST_HAVE_PROPERTY_ID);
+        }
+        return new JsonApiResource.ResourceField(idProperty, id.toString());
+    }
+
+    JsonApiResource.ResourceField getType(Object proxy, JsonApiConfiguration jsonApiConfiguration) {
+        if (typeGetter != null) {
+            Object type = invoke(typeGetter, proxy);
+            if (type != null) {
+                return new JsonApiResource.ResourceField("type", type.toString());
+            }
+        }
+        return new JsonApiResource.ResourceField("type",
+                JsonApiResource.getTypeForClass(getResourceClass(proxy), jsonApiConfiguration));
+    }
+
+    private Class<?> getResourceClass(Object proxy) {
+        if (proxy instanceof TargetClassAware) {
+            // e.g. the entity of a Spring Data projection, unless the projection is backed by a map or a tuple
+            Class<?> targetClass = ((TargetClassAware) proxy).getTargetClass();
+            if (targetClass != null && !isFrameworkType(ClassUtils.getUserClass(targetClass))) {
+                return ClassUtils.getUserClass(targetClass);
+            }
+        }
+        return beanClasses.get(0);
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    Map<String, Object> getAttributes(Object proxy) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (Class<?> beanClass : beanClasses) {
+            JsonApiAttributes.convert(proxy, beanClass).forEach(attributes::putIfAbsent);
+        }
+        attributes.remove("links");
+        attributes.remove(idProperty);
+        if (typeProperty != null) {
+            attributes.remove(typeProperty);
+        }
+        return attributes;
+    }
+
+    private static Object invoke(Method getter, Object proxy) {
+        try {
+            return getter.invoke(proxy);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access JSON:API property " + getter.getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read JSON:API property " + getter.getName(), e.getTargetException());
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.*;
+
+/**
+ * The JSON:API query parameters {@literal filter[...]}, {@literal sort}, {@literal page[...]},
+ * {@literal include} and {@literal fields[...]} of a request.
+ * <p>
+ * A {@literal JsonApiQuery} can be used as parameter of Spring MVC and Spring WebFlux
+ * controller methods, e.g.
+ * <code>
+ * ResponseEntity&lt;?&gt; findAll(JsonApiQuery query)
+ * </code>
+ * Parsed query strings are cached, so repeated requests with the same query string are parsed only once.
+ *
+ * @author Kai Toedter
+ */
+@ToString
+@EqualsAndHashCode
+public final class JsonApiQuery {
+    private static final String FILTER = "filter";
+    private static final String SORT = "sort";
+    private static final String PAGE = "page";
+    private static final String PAGE_NUMBER = "number";
+    private static final String PAGE_SIZE = "size";
+    private static final String PAGE_AFTER = "after";
+    private static final String PAGE_BEFORE = "before";
+    private static final String INCLUDE = "include";
+    private static final String FIELDS = "fields";
+
+    static final int CACHE_SIZE = 256;
+
+    private static final JsonApiQuery EMPTY = new JsonApiQuery(
+            Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap(), Collections.emptySet(),
+            Collections.emptyMap(), "");
+
+    private static final Map<String, JsonApiQuery> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, JsonApiQuery>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, JsonApiQuery> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private final Map<String, List<String>> filters;
+    private final List<String> sortFields;
+    private final Map<String, String> pageParameters;
+    private final Set<String> includes;
+    private final Map<String, Set<String>> fields;
+    private final String queryStringWithoutPagination;
+
+    private JsonApiQuery(Map<String, List<String>> filters,
+                         List<String> sortFields,
+                         Map<String, String> pageParameters,
+                         Set<String> includes,
+                         Map<String, Set<String>> fields,
+                         String queryStringWithoutPagination) {
+        this.filters = filters;
+        this.sortFields = sortFields;
+        this.pageParameters = pageParameters;
+        this.includes = includes;
+        this.fields = fields;
+        this.queryStringWithoutPagination = queryStringWithoutPagination;
+    }
+
+    /**
+     * Parses the JSON:API query parameters of a raw (URL encoded) query string.
+     *
+     * @param queryString the raw query string without leading {@literal ?}, can be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiQuery parse(@Nullable String queryString) {
+        if (queryString == null || queryString.isEmpty()) {
+            return EMPTY;
+        }
+
+        JsonApiQuery query = CACHE.get(queryString);
+        if (query == null) {
+            query = doParse(queryString);
+            CACHE.put(queryString, query);
+        }
+        return query;
+    }
+
+    private static JsonApiQuery doParse(String queryString) {
+        Map<String, List<String>> filters = new LinkedHashMap<>();
+        List<String> sortFields = new ArrayList<>();
+        Map<String, String> pageParameters = new LinkedHashMap<>();
+        Set<String> includes = new LinkedHashSet<>();
+        Map<String, Set<String>> fields = new LinkedHashMap<>();
+        StringJoiner queryStringWithoutPagination = new StringJoiner("&");
+
+        for (String parameter : queryString.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int separatorIndex = parameter.indexOf('=');
+            String rawName = separatorIndex < 0 ? parameter : parameter.substring(0, separatorIndex);
+            String name = decode(rawName, rawName);
+            String value = separatorIndex < 0 ? "" : decode(parameter.substring(separatorIndex + 1), name);
+
+            String family = getFamily(name);
+            if (PAGE.equals(name) || FILTER.equals(name)) {
+                throw invalidParameter(name, "JSON:API parameter " + name + " must have a member, e.g. "
+                        + name + "[...]!");
+            }
+            if (PAGE.equals(family)) {
+                pageParameters.put(getMember(name), value);
+                continue;
+            }
+
+            queryStringWithoutPagination.add(parameter);
+            if (FILTER.equals(family)) {
+                filters.computeIfAbsent(getMember(name), key -> new ArrayList<>()).addAll(split(value));
+            } else if (SORT.equals(name)) {
+                sortFields.addAll(split(value));
+            } else if (INCLUDE.equals(name)) {
+                includes.addAll(split(value));
+            } else if (FIELDS.equals(family) && !FIELDS.equals(name)) {
+                fields.computeIfAbsent(getMember(name), key -> new LinkedHashSet<>()).addAll(split(value));
+            }
+        }
+
+        filters.replaceAll((key, values) -> Collections.unmodifiableList(values));
+        fields.replaceAll((key, values) -> Collections.unmodifiableSet(values));
+        return new JsonApiQuery(
+                Collections.unmodifiableMap(filters),
+                Collections.unmodifiableList(sortFields),
+                Collections.unmodifiableMap(pageParameters),
+                Collections.unmodifiableSet(includes),
+                Collections.unmodifiableMap(fields),
+                queryStringWithoutPagination.toString());
+    }
+
+    /**
+     * Returns the values of all {@literal filter[...]} parameters, e.g.
+     * {@literal filter[title]=Star Wars,Avengers} results in the key {@literal title}
+     * with the values {@literal Star Wars} and {@literal Avengers}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Map<String, List<String>> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Returns the values of the {@literal filter[...]} parameter with the given name.
+     *
+     * @param name must not be {@literal null}.
+     * @return will never be {@literal null}, but can be empty.
+     */
+    public List<String> getFilter(String name) {
+        Assert.notNull(name, "filter name must not be null!");
+        return filters.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Returns the fields of the {@literal sort} parameter in the requested order,
+     * descending fields are prefixed with {@literal -}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public List<String> getSortFields() {
+        return sortFields;
+    }
+
+    /**
+     * Returns the {@literal sort} parameter as Spring Data {@link Sort},
+     * e.g. {@literal sort=-year,title} results in {@literal year: DESC, title: ASC}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Sort getSort() {
+        return toSort(null);
+    }
+
+    /**
+     * Returns the {@literal sort} parameter as Spring Data {@link Sort}, like {@link #getSort()},
+     * but only the given fields can be sorted by, to prevent clients from sorting
+     * by attributes that are not exposed or not indexed.
+     *
+     * @param sortableFields the fields that can be sorted by, e.g. {@literal title}, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     * @throws JsonApiErrorException with status 400 if the {@literal sort} parameter contains another field.
+     */
+    public Sort getSort(Collection<String> sortableFields) {
+        Assert.notNull(sortableFields, "sortable fields must not be null!");
+        return toSort(sortableFields);
+    }
+
+    private Sort toSort(@Nullable Collection<String> sortableFields) {
+        if (sortFields.isEmpty()) {
+            return Sort.unsorted();
+        }
+        List<Sort.Order> orders = new ArrayList<>(sortFields.size());
+        for (String sortField : sortFields) {
+            boolean descending = sortField.startsWith("-");
+            String property = descending ? sortField.substring(1) : sortField;
+            if (sortableFields != null && !sortableFields.contains(property)) {
+                throw invalidParameter(SORT, "JSON:API sort field " + property + " is not supported!");
+            }
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Returns the values of all {@literal page[...]} parameters, e.g.
+     * {@literal page[number]=2} results in the key {@literal number} with the value {@literal 2}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Map<String, String> getPageParameters() {
+        return pageParameters;
+    }
+
+    /**
+     * Returns the relationship paths of the {@literal include} parameter in the requested order,
+     * e.g. {@literal include=directors,directors.movies} results in
+     * {@literal directors} and {@literal directors.movies}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Set<String> getIncludes() {
+        return includes;
+    }
+
+    /**
+     * Returns the values of all {@literal fields[...]} parameters, e.g.
+     * {@literal fields[movies]=title,year} results in the key {@literal movies}
+     * with the values {@literal title} and {@literal year}.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Map<String, Set<String>> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the requested attributes of the given JSON:API type.
+     *
+     * @param type must not be {@literal null}.
+     * @return {@literal null} if all attributes are requested, can be empty if no attributes are requested.
+     */
+    @Nullable
+    public Set<String> getFields(String type) {
+        Assert.notNull(type, "type must not be null!");
+        return fields.get(type);
+    }
+
+    /**
+     * Returns the query string without the {@literal page[...]} parameters,
+     * e.g. to build pagination links that keep filtering and sorting.
+     *
+     * @return will never be {@literal null}, but can be empty.
+     */
+    public String getQueryStringWithoutPagination() {
+        return queryStringWithoutPagination;
+    }
+
+    /**
+     * Creates a Spring Data {@link Pageable} of the {@literal page[number]}, {@literal page[size]}
+     * and {@literal sort} parameters, where the page size is limited and only the given fields can be sorted by.
+     *
+     * @param defaultPageSize the page size, if no {@literal page[size]} parameter is given.
+     * @param maxPageSize     the maximum page size a client can request.
+     * @param sortableFields  the fields that can be sorted by, no fields if sorting is not supported.
+     * @return will never be {@literal null}.
+     * @throws JsonApiErrorException with status 400 if a parameter is not valid,
+     *                               the page size is too large or a sort field is not supported.
+     */
+    public Pageable toPageable(int defaultPageSize, int maxPageSize, String... sortableFields) {
+        Assert.isTrue(defaultPageSize <= maxPageSize, "default page size must not exceed the maximum page size!");
+        Assert.notNull(sortableFields, "sortable fields must not be null!");
+        return toPageable(defaultPageSize, maxPageSize, getSort(new HashSet<>(Arrays.asList(sortableFields))));
+    }
+
+    private Pageable toPageable(int defaultPageSize, int maxPageSize, Sort sort) {
+        int pageNumber = getIntPageParameter(PAGE_NUMBER, 0);
+        if (pageNumber < 0) {
+            throw invalidParameter(PAGE + "[" + PAGE_NUMBER + "]",
+                    "JSON:API parameter page[number] must not be negative!");
+        }
+        int pageSize = getIntPageParameter(PAGE_SIZE, defaultPageSize);
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw invalidParameter(PAGE + "[" + PAGE_SIZE + "]", "JSON:API parameter page[size] must be between 1 and "
+                    + maxPageSize + "!");
+        }
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+
+    /**
+     * Returns the {@literal page[size]} parameter.
+     *
+     * @param defaultPageSize the page size, if no {@literal page[size]} parameter is given.
+     * @return the page size.
+     */
+    public int getPageSize(int defaultPageSize) {
+        return getIntPageParameter(PAGE_SIZE, defaultPageSize);
+    }
+
+    /**
+     * Returns the cursor of the {@literal page[after]} parameter for keyset pagination.
+     *
+     * @return {@literal null} if there is no {@literal page[after]} parameter.
+     * @throws JsonApiErrorException with status 400 if the cursor is not valid.
+     */
+    @Nullable
+    public JsonApiCursor getPageAfter() {
+        return getCursorPageParameter(PAGE_AFTER);
+    }
+
+    /**
+     * Returns the cursor of the {@literal page[before]} parameter for keyset pagination.
+     *
+     * @return {@literal null} if there is no {@literal page[before]} parameter.
+     * @throws JsonApiErrorException with status 400 if the cursor is not valid.
+     */
+    @Nullable
+    public JsonApiCursor getPageBefore() {
+        return getCursorPageParameter(PAGE_BEFORE);
+    }
+
+    @Nullable
+    private JsonApiCursor getCursorPageParameter(String name) {
+        String value = pageParameters.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (pageParameters.containsKey(PAGE_AFTER) && pageParameters.containsKey(PAGE_BEFORE)) {
+            throw invalidParameter(PAGE + "[" + name + "]",
+                    "JSON:API parameters page[after] and page[before] cannot be combined!");
+        }
+        try {
+            return JsonApiCursor.decode(value);
+        } catch (IllegalArgumentException e) {
+            throw invalidParameter(PAGE + "[" + name + "]", e.getMessage());
+        }
+    }
+
+    private int getIntPageParameter(String name, int defaultValue) {
+        String value = pageParameters.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalidParameter(PAGE + "[" + name + "]", "JSON:API parameter page[" + name + "] must be a number!");
+        }
+    }
+
+    static JsonApiErrorException invalidParameter(String parameter, String detail) {
+        return new JsonApiErrorException(JsonApiError.create()
+                .withStatus("400")
+                .withTitle("Invalid query parameter")
+                .withDetail(detail)
+                .withSourceParameter(parameter));
+    }
+
+    private static String getFamily(String name) {
+        int bracketIndex = name.indexOf('[');
+        if (bracketIndex < 0 || !name.endsWith("]")) {
+            return name;
+        }
+        return name.substring(0, bracketIndex);
+    }
+
+    private static String getMember(String name) {
+        return name.substring(name.indexOf('[') + 1, name.length() - 1);
+    }
+
+    private static List<String> split(String value) {
+        List<String> values = new ArrayList<>();
+        for (String element : value.split(",")) {
+            String trimmed = element.trim();
+            if (!trimmed.isEmpty()) {
+                values.add(trimmed);
+            }
+        }
+        return values;
+    }
+
+    private static String decode(String value, String parameter) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            throw invalidParameter(parameter, "Cannot decode JSON:API query parameter: " + value);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Specifies that an attribute contains JSON text, e.g. a pre-computed JSON document
+ * stored in a database column. The text is copied verbatim into the rendered attributes,
+ * without parsing and serializing it again.
+ * <p>
+ * The text is not validated, unless {@link JsonApiConfiguration#isRawAttributesValidated()} is set.
+ *
+ * @author Kai Toedter
+ */
+@Target({METHOD, FIELD})
+@Retention(RUNTIME)
+@JacksonAnnotationsInside
+@JsonRawValue
+public @interface JsonApiRawAttribute {}
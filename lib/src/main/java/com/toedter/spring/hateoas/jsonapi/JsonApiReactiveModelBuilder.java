@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Builds a JSON:API representation with relationships, included resources and meta
+ * of Reactor {@link Mono}s and {@link Flux}es, e.g. of reactive Spring Data repositories
+ * <code>
+ * jsonApiModel().model(movie).reactive()
+ * .relationship("directors", directorRepository.findAllByMovieId(movie.getId()))
+ * .relationship("genres", genreRepository.findAllByMovieId(movie.getId()))
+ * .build()
+ * </code>
+ * All publishers are subscribed concurrently when the returned {@link Mono} is subscribed,
+ * the results are added in the order of the method calls.
+ * A {@link Flux} is collected into a list, an empty {@link Mono} adds nothing.
+ * A publisher that is passed to several methods is subscribed several times,
+ * so a cold publisher of the same lookup should be cached, e.g. with {@link Flux#cache()}.
+ * <p>
+ * NOTE: A builder is meant to build one model, the returned {@link Mono} should be subscribed only once.
+ *
+ * @author Kai Toedter
+ */
+public class JsonApiReactiveModelBuilder {
+    private final JsonApiModelBuilder builder;
+    private final List<Mono<Consumer<JsonApiModelBuilder>>> parts = new ArrayList<>();
+
+    JsonApiReactiveModelBuilder(JsonApiModelBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Adds or updates a {@literal relationship} with the data of the given {@link Mono},
+     * see {@link JsonApiModelBuilder#relationship(String, Object)}.
+     *
+     * @param name must not be {@literal null}.
+     * @param mono must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiReactiveModelBuilder relationship(String name, Mono<?> mono) {
+        Assert.notNull(name, "relationship name must not be null!");
+        Assert.notNull(mono, "Mono must not be null!");
+        parts.add(mono.<Consumer<JsonApiModelBuilder>>map(
+                data -> modelBuilder -> modelBuilder.resolvedRelationship(name, data)));
+        return this;
+    }
+
+    /**
+     * Adds or updates a {@literal relationship} with all elements of the given {@link Flux},
+     * see {@link JsonApiModelBuilder#relationship(String, java.util.Collection)}.
+     *
+     * @param name must not be {@literal null}.
+     * @param flux must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiReactiveModelBuilder relationship(String name, Flux<?> flux) {
+        Assert.notNull(flux, "Flux must not be null!");
+        return relationship(name, flux.collectList());
+    }
+
+    /**
+     * Adds the resources of the given {@link Mono} to the {@literal included} resources.
+     *
+     * @param mono must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiReactiveModelBuilder included(Mono<?> mono) {
+        Assert.notNull(mono, "Mono must not be null!");
+        parts.add(mono.<Consumer<JsonApiModelBuilder>>map(
+                resources -> modelBuilder -> modelBuilder.resolvedIncluded(resources)));
+        return this;
+    }
+
+    /**
+     * Adds all resources of the given {@link Flux} to the {@literal included} resources.
+     *
+     * @param flux must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiReactiveModelBuilder included(Flux<?> flux) {
+        Assert.notNull(flux, "Flux must not be null!");
+        return included(flux.collectList());
+    }
+
+    /**
+     * Adds the value of the given {@link Mono} to the {@literal JSON:API} meta.
+     *
+     * @param key  must not be {@literal null}.
+     * @param mono must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiReactiveModelBuilder meta(String key, Mono<?> mono) {
+        Assert.notNull(key, "meta key must not be null!");
+        Assert.notNull(mono, "Mono must not be null!");
+        parts.add(mono.<Consumer<JsonApiModelBuilder>>map(
+                value -> modelBuilder -> modelBuilder.meta(key, value)));
+        return this;
+    }
+
+    /**
+     * Creates a {@link Mono} of the {@link RepresentationModel}
+     * that emits the model when all publishers are completed.
+     *
+     * @return will never be {@literal null}.
+     */
+    public Mono<RepresentationModel<?>> build() {
+        final List<Mono<Consumer<JsonApiModelBuilder>>> allParts = new ArrayList<>(parts);
+        return Flux.mergeSequential(allParts)
+                .collectList()
+                .map(resolvedParts -> {
+                    resolvedParts.forEach(part -> part.accept(builder));
+                    return builder.build();
+                });
+    }
+}
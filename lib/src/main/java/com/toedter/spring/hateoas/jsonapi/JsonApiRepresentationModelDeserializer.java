@@ -32,11 +32,15 @@ class JsonApiRepresentationModelDeserializer extends AbstractJsonApiModelDeseria
             = "Cannot deserialize input to RepresentationModel";
 
     JsonApiRepresentationModelDeserializer() {
-        super();
+        this(new JsonApiConfiguration());
     }
 
-    protected JsonApiRepresentationModelDeserializer(JavaType contentType) {
-        super(contentType);
+    JsonApiRepresentationModelDeserializer(JsonApiConfiguration jsonApiConfiguration) {
+        super(jsonApiConfiguration);
+    }
+
+    protected JsonApiRepresentationModelDeserializer(JavaType contentType, JsonApiConfiguration jsonApiConfiguration) {
+        super(contentType, jsonApiConfiguration);
     }
 
     @Override
@@ -59,6 +63,6 @@ class JsonApiRepresentationModelDeserializer extends AbstractJsonApiModelDeseria
     }
 
     protected JsonDeserializer<?> createJsonDeserializer(JavaType type) {
-        return new JsonApiRepresentationModelDeserializer(type);
+        return new JsonApiRepresentationModelDeserializer(type, jsonApiConfiguration);
     }
 }
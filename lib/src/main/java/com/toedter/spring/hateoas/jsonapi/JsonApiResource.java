@@ -88,11 +88,19 @@ class JsonApiResource {
     }
 
     static ResourceField getId(Object object, JsonApiConfiguration jsonApiConfiguration) {
-        return getResourceField(JsonApiResourceField.id, object, jsonApiConfiguration);
+        return getRecordedResourceField(JsonApiResourceField.id, object, jsonApiConfiguration);
     }
 
     static ResourceField getType(Object object, JsonApiConfiguration jsonApiConfiguration) {
-        return getResourceField(JsonApiResourceField.type, object, jsonApiConfiguration);
+        return getRecordedResourceField(JsonApiResourceField.type, object, jsonApiConfiguration);
+    }
+
+    private static ResourceField getRecordedResourceField(
+            JsonApiResourceField resourceField, Object object, JsonApiConfiguration jsonApiConfiguration) {
+        final JsonApiEvents.ResourceFieldResolution event = JsonApiEvents.beginResourceFieldResolution();
+        final ResourceField field = getResourceField(resourceField, object, jsonApiConfiguration);
+        JsonApiEvents.endResourceFieldResolution(event, resourceField, object.getClass());
+        return field;
     }
 
     enum JsonApiResourceField {id, type}
@@ -100,6 +108,22 @@ class JsonApiResource {
     static private ResourceField getResourceField(
             JsonApiResourceField resourceField, Object object, JsonApiConfiguration jsonApiConfiguration) {
 
+        if (object instanceof JsonApiRow) {
+            JsonApiRow row = (JsonApiRow) object;
+            if (resourceField == JsonApiResourceField.id) {
+                return new ResourceField("id", row.getId().toString());
+            }
+            return new ResourceField("type", row.getType(jsonApiConfiguration));
+        }
+
+        if (JsonApiProxyProperties.isProxy(object.getClass())) {
+            JsonApiProxyProperties proxyProperties = JsonApiProxyProperties.forClass(object.getClass());
+            if (resourceField == JsonApiResourceField.id) {
+                return proxyProperties.getId(object);
+            }
+            return proxyProperties.getType(object, jsonApiConfiguration);
+        }
+
         try {
             // firstly search for field annotation
             final Field[] declaredFields = getAllDeclaredFields(object.getClass());
@@ -166,21 +190,25 @@ class JsonApiResource {
                 return new ResourceField("id", id.toString());
             }
 
-            String type = jsonApiConfiguration.getTypeForClass(object.getClass());
-            if (type != null) {
-                return new ResourceField("type", type);
-            }
-
-            String jsonApiType = object.getClass().getSimpleName().toLowerCase();
-            if (jsonApiConfiguration.isPluralizedTypeRendered()) {
-                jsonApiType = English.plural(jsonApiType, 2);
-            }
-            return new ResourceField("type", jsonApiType);
+            return new ResourceField("type", getTypeForClass(object.getClass(), jsonApiConfiguration));
         } catch (Exception e) {
             throw new IllegalStateException(JSON_API_RESOURCE_OBJECT_MUST_HAVE_PROPERTY_ID);
         }
     }
 
+    static String getTypeForClass(Class<?> clazz, JsonApiConfiguration jsonApiConfiguration) {
+        String type = jsonApiConfiguration.getTypeForClass(clazz);
+        if (type != null) {
+            return type;
+        }
+
+        String jsonApiType = clazz.getSimpleName().toLowerCase();
+        if (jsonApiConfiguration.isPluralizedTypeRendered()) {
+            jsonApiType = English.plural(jsonApiType, 2);
+        }
+        return jsonApiType;
+    }
+
     private static ResourceField getResourceFieldForMethod(
             Object object, Method jpaIdMethod, JsonApiResourceField resourceField)
             throws IllegalAccessException, InvocationTargetException {
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A reusable template of the links and relationships of all resources of one JSON:API type.
+ * <p>
+ * The template is declared once per type with URI templates that contain the placeholder {@literal {id}}, e.g.
+ * <code>
+ * JsonApiResourceTemplate.of("/movies/{id}").relationship("directors")
+ * </code>
+ * The URI templates are parsed only once, so creating the links of a resource
+ * just substitutes its id, without building links with proxies of controller methods.
+ * Templates are immutable and can be shared between threads.
+ * The ids of entities are read with the {@link JsonApiConfiguration} the template was created with,
+ * which should be the configuration of the application.
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiResourceTemplate {
+    private static final String ID_PLACEHOLDER = "{id}";
+    private static final String RELATIONSHIPS = "/relationships/";
+
+    private final String selfLinkTemplate;
+    private final IdTemplate selfLink;
+    private final List<RelationshipTemplate> relationships;
+    private final JsonApiConfiguration jsonApiConfiguration;
+
+    private JsonApiResourceTemplate(String selfLinkTemplate,
+                                    List<RelationshipTemplate> relationships,
+                                    JsonApiConfiguration jsonApiConfiguration) {
+        this.selfLinkTemplate = selfLinkTemplate;
+        this.selfLink = new IdTemplate(selfLinkTemplate);
+        this.relationships = relationships;
+        this.jsonApiConfiguration = jsonApiConfiguration;
+    }
+
+    /**
+     * Creates a template with the URI template of the self link of the resources
+     * and the default JSON:API configuration.
+     *
+     * @param selfLinkTemplate must not be {@literal null} and must contain {@literal {id}},
+     *                         e.g. {@literal http://localhost:8080/movies/{id}} or {@literal /movies/{id}}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiResourceTemplate of(String selfLinkTemplate) {
+        return of(selfLinkTemplate, new JsonApiConfiguration());
+    }
+
+    /**
+     * Creates a template with the URI template of the self link of the resources
+     * and the JSON:API configuration of the application.
+     *
+     * @param selfLinkTemplate     must not be {@literal null} and must contain {@literal {id}},
+     *                             e.g. {@literal http://localhost:8080/movies/{id}} or {@literal /movies/{id}}.
+     * @param jsonApiConfiguration must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiResourceTemplate of(String selfLinkTemplate, JsonApiConfiguration jsonApiConfiguration) {
+        Assert.notNull(selfLinkTemplate, "self link template must not be null!");
+        Assert.isTrue(selfLinkTemplate.contains(ID_PLACEHOLDER), "self link template must contain " + ID_PLACEHOLDER + "!");
+        Assert.notNull(jsonApiConfiguration, "JsonApiConfiguration must not be null!");
+        return new JsonApiResourceTemplate(selfLinkTemplate, Collections.emptyList(), jsonApiConfiguration);
+    }
+
+    /**
+     * Adds a relationship with the conventional links {@literal <self>/relationships/<name>}
+     * and {@literal <self>/<name>}.
+     *
+     * @param name must not be {@literal null}.
+     * @return a new template, will never be {@literal null}.
+     */
+    public JsonApiResourceTemplate relationship(String name) {
+        Assert.notNull(name, "relationship name must not be null!");
+        return relationship(name, selfLinkTemplate + RELATIONSHIPS + name, selfLinkTemplate + "/" + name);
+    }
+
+    /**
+     * Adds a relationship with the given link templates, which can contain {@literal {id}}.
+     *
+     * @param name                must not be {@literal null}.
+     * @param selfLinkTemplate    can be {@literal null}.
+     * @param relatedLinkTemplate can be {@literal null}.
+     * @return a new template, will never be {@literal null}.
+     */
+    public JsonApiResourceTemplate relationship(String name,
+                                                @Nullable String selfLinkTemplate,
+                                                @Nullable String relatedLinkTemplate) {
+        Assert.notNull(name, "relationship name must not be null!");
+        if (selfLinkTemplate == null && relatedLinkTemplate == null) {
+            throw new IllegalArgumentException("At least one of selfLinkTemplate and relatedLinkTemplate must not be null!");
+        }
+
+        List<RelationshipTemplate> newRelationships = new ArrayList<>(relationships);
+        newRelationships.add(new RelationshipTemplate(name,
+                selfLinkTemplate == null ? null : new IdTemplate(selfLinkTemplate),
+                relatedLinkTemplate == null ? null : new IdTemplate(relatedLinkTemplate)));
+        return new JsonApiResourceTemplate(
+                this.selfLinkTemplate, Collections.unmodifiableList(newRelationships), jsonApiConfiguration);
+    }
+
+    /**
+     * Prefixes all link templates with the given base URI, e.g. the base URI of the current request.
+     * This is meant to be called once per request, not once per resource.
+     *
+     * @param baseUri must not be {@literal null}, e.g. {@literal http://localhost:8080/api}.
+     * @return a new template, will never be {@literal null}.
+     */
+    public JsonApiResourceTemplate withBaseUri(String baseUri) {
+        Assert.notNull(baseUri, "base URI must not be null!");
+        final String prefix = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+
+        List<RelationshipTemplate> newRelationships = new ArrayList<>(relationships.size());
+        for (RelationshipTemplate relationship : relationships) {
+            newRelationships.add(new RelationshipTemplate(relationship.name,
+                    relationship.selfLink == null ? null : relationship.selfLink.withPrefix(prefix),
+                    relationship.relatedLink == null ? null : relationship.relatedLink.withPrefix(prefix)));
+        }
+        return new JsonApiResourceTemplate(
+                prefix + selfLinkTemplate, Collections.unmodifiableList(newRelationships), jsonApiConfiguration);
+    }
+
+    /**
+     * Creates the self link of the resource with the given id.
+     *
+     * @param id must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public Link selfLink(Object id) {
+        Assert.notNull(id, "id must not be null!");
+        return Link.of(selfLink.expand(encode(id)));
+    }
+
+    /**
+     * Creates a {@link JsonApiModelBuilder} for the given entity with the self link and
+     * the links of all relationships of this template.
+     * The id is read from the entity with the configuration of this template, see {@link JsonApiId}.
+     *
+     * @param entity must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder builder(Object entity) {
+        Assert.notNull(entity, "entity must not be null!");
+        return builder(entity, JsonApiResource.getId(entity, jsonApiConfiguration).value);
+    }
+
+    /**
+     * Creates a {@link JsonApiModelBuilder} for the given entity with the self link and
+     * the links of all relationships of this template.
+     * Relationship data can be added to the returned builder.
+     *
+     * @param entity must not be {@literal null}.
+     * @param id     the JSON:API id of the entity, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public JsonApiModelBuilder builder(Object entity, Object id) {
+        Assert.notNull(entity, "entity must not be null!");
+        Assert.notNull(id, "id must not be null!");
+
+        final String encodedId = encode(id);
+        final JsonApiModelBuilder builder = JsonApiModelBuilder.jsonApiModel()
+                .model(entity)
+                .link(Link.of(selfLink.expand(encodedId)));
+
+        for (RelationshipTemplate relationship : relationships) {
+            builder.relationship(relationship.name,
+                    relationship.selfLink == null ? null : relationship.selfLink.expand(encodedId),
+                    relationship.relatedLink == null ? null : relationship.relatedLink.expand(encodedId),
+                    null);
+        }
+        return builder;
+    }
+
+    /**
+     * Adds the self link and the relationship links of this template to the rendered data of a resource
+     * that has no own links or relationships.
+     */
+    JsonApiData applyTo(JsonApiData data) {
+        if (data.getId() == null) {
+            return data;
+        }
+
+        final String encodedId = encode(data.getId());
+        JsonApiData result = data;
+        if (data.getLinks() == null) {
+            result = result.withLinks(Links.of(Link.of(selfLink.expand(encodedId))));
+        }
+        if (data.getRelationships() == null && !relationships.isEmpty()) {
+            Map<String, JsonApiRelationship> relationshipMap = new LinkedHashMap<>();
+            for (RelationshipTemplate relationship : relationships) {
+                relationshipMap.put(relationship.name, JsonApiRelationship.of(relationship.links(encodedId)));
+            }
+            result = result.withRelationships(relationshipMap);
+        }
+        return result;
+    }
+
+    private static String encode(Object id) {
+        return UriUtils.encodePathSegment(id.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static final class RelationshipTemplate {
+        private final String name;
+        private final IdTemplate selfLink;
+        private final IdTemplate relatedLink;
+
+        RelationshipTemplate(String name, @Nullable IdTemplate selfLink, @Nullable IdTemplate relatedLink) {
+            this.name = name;
+            this.selfLink = selfLink;
+            this.relatedLink = relatedLink;
+        }
+
+        Links links(String encodedId) {
+            Links links = Links.NONE;
+            if (selfLink != null) {
+                links = links.and(Link.of(selfLink.expand(encodedId)));
+            }
+            if (relatedLink != null) {
+                links = links.and(Link.of(relatedLink.expand(encodedId)).withRel("related"));
+            }
+            return links;
+        }
+    }
+
+    /**
+     * A URI template split at its {@literal {id}} placeholders.
+     */
+    private static final class IdTemplate {
+        private final String[] segments;
+        private final int length;
+
+        IdTemplate(String template) {
+            this(split(template));
+        }
+
+        private IdTemplate(String[] segments) {
+            this.segments = segments;
+            int segmentsLength = 0;
+            for (String segment : segments) {
+                segmentsLength += segment.length();
+            }
+            this.length = segmentsLength;
+        }
+
+        private static String[] split(String template) {
+            List<String> segments = new ArrayList<>();
+            int start = 0;
+            int index;
+            while ((index = template.indexOf(ID_PLACEHOLDER, start)) >= 0) {
+                segments.add(template.substring(start, index));
+                start = index + ID_PLACEHOLDER.length();
+            }
+            segments.add(template.substring(start));
+            return segments.toArray(new String[0]);
+        }
+
+        IdTemplate withPrefix(String prefix) {
+            String[] prefixedSegments = segments.clone();
+            prefixedSegments[0] = prefix + prefixedSegments[0];
+            return new IdTemplate(prefixedSegments);
+        }
+
+        String expand(String id) {
+            if (segments.length == 1) {
+                return segments[0];
+            }
+            StringBuilder uri = new StringBuilder(length + (segments.length - 1) * id.length());
+            uri.append(segments[0]);
+            for (int i = 1; i < segments.length; i++) {
+                uri.append(id).append(segments[i]);
+            }
+            return uri.toString();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces the limits of the {@link JsonApiConfiguration} while the resources of one document are extracted,
+ * so an oversized document fails or is truncated before its attributes are converted and written.
+ * <p>
+ * The document size is estimated from the extracted resources, it is not exact, but cheap to compute.
+ * Limits that a client exceeds with its request parameters, like {@literal page[size]} or {@literal include},
+ * fail with status 400, a single resource that exceeds the estimated size fails with status 500.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiResponseBudget {
+    static final String TRUNCATION = "truncation";
+    private static final String RESPONSE_TOO_LARGE = "Response too large";
+    private static final String RESPONSE_TOO_LARGE_STATUS = "400";
+    private static final String RESOURCE_TOO_LARGE_STATUS = "500";
+
+    // the estimated size of the JSON structure of a resource object or identifier without its values
+    private static final int RESOURCE_OVERHEAD = 40;
+    private static final int RESOURCE_IDENTIFIER_SIZE = 48;
+    private static final int NUMBER_SIZE = 8;
+
+    enum Part {
+        DATA("maxDataResources", "resources in data", "page[size]"),
+        INCLUDED("maxIncludedResources", "included resources", "include");
+
+        private final String limit;
+        private final String description;
+        private final String parameter;
+
+        Part(String limit, String description, String parameter) {
+            this.limit = limit;
+            this.description = description;
+            this.parameter = parameter;
+        }
+    }
+
+    private final JsonApiConfiguration jsonApiConfiguration;
+    private long estimatedBytes;
+    private int dataResources;
+    private int includedResources;
+    private String exceededLimit;
+    private Part truncatedPart;
+
+    JsonApiResponseBudget(JsonApiConfiguration jsonApiConfiguration) {
+        this.jsonApiConfiguration = jsonApiConfiguration;
+    }
+
+    /**
+     * Extracts the resources of a collection until a limit is reached.
+     */
+    List<JsonApiData> extract(Collection<?> resources, Part part) {
+        final List<JsonApiData> dataList = new ArrayList<>(Math.min(resources.size(), getMaxResources(part)));
+        extract(resources, part, dataList::add);
+        return dataList;
+    }
+
+    /**
+     * Extracts the resources of a collection until a limit is reached and passes them to the given consumer,
+     * e.g. to collect them into columns.
+     *
+     * @return the number of extracted resources.
+     */
+    int extract(Collection<?> resources, Part part, Consumer<JsonApiData> consumer) {
+        final int maxResources = getMaxResources(part);
+        final boolean truncated = jsonApiConfiguration.isResponseTruncatedAtLimits();
+        if (resources.size() > maxResources && !truncated) {
+            // fail before any attributes are converted
+            throw tooManyResources(maxResources, part);
+        }
+
+        int extracted = 0;
+        for (Object resource : resources) {
+            if (exceededLimit != null) {
+                break;
+            }
+            if (extracted == maxResources) {
+                truncate(part.limit, part);
+                break;
+            }
+            final Optional<JsonApiData> jsonApiData = JsonApiData.extractContent(resource, false, jsonApiConfiguration);
+            if (jsonApiData.isPresent()) {
+                if (!reserve(jsonApiData.get(), part)) {
+                    break;
+                }
+                consumer.accept(jsonApiData.get());
+                extracted++;
+            }
+        }
+
+        if (part == Part.DATA) {
+            dataResources = extracted;
+        } else {
+            includedResources = extracted;
+        }
+        return extracted;
+    }
+
+    private int getMaxResources(Part part) {
+        return part == Part.DATA
+                ? jsonApiConfiguration.getMaxDataResources() : jsonApiConfiguration.getMaxIncludedResources();
+    }
+
+    /**
+     * Checks the number of resources in data and included of a model that is about to be rendered,
+     * so a response that exceeds a limit fails before it is written.
+     * The estimated document size can only be checked while the resources are extracted.
+     */
+    static void check(Object model, JsonApiConfiguration jsonApiConfiguration) {
+        final Object content = model instanceof JsonApiModel ? ((JsonApiModel) model).getContent() : model;
+        check(content instanceof CollectionModel ? ((CollectionModel<?>) content).getContent() : null,
+                model instanceof JsonApiModel
+                        ? ((JsonApiModel) model).getIncludedEntities(jsonApiConfiguration) : null,
+                jsonApiConfiguration);
+    }
+
+    /**
+     * Checks the number of resources in data and included before any of them is extracted,
+     * so no attributes are converted for a response that exceeds a limit.
+     */
+    static void check(@Nullable Collection<?> data, @Nullable Collection<?> included,
+                      JsonApiConfiguration jsonApiConfiguration) {
+        if (jsonApiConfiguration.isResponseTruncatedAtLimits()) {
+            return;
+        }
+        if (data != null && data.size() > jsonApiConfiguration.getMaxDataResources()) {
+            throw tooManyResources(jsonApiConfiguration.getMaxDataResources(), Part.DATA);
+        }
+        if (included != null && included.size() > jsonApiConfiguration.getMaxIncludedResources()) {
+            throw tooManyResources(jsonApiConfiguration.getMaxIncludedResources(), Part.INCLUDED);
+        }
+    }
+
+    private static JsonApiErrorException tooManyResources(int maxResources, Part part) {
+        // the client exceeds the limits with its request parameters, so it can avoid them
+        return new JsonApiErrorException(JsonApiError.create()
+                .withStatus(RESPONSE_TOO_LARGE_STATUS)
+                .withTitle(RESPONSE_TOO_LARGE)
+                .withDetail("The response would contain more than " + maxResources + " " + part.description + "!")
+                .withSourceParameter(part.parameter));
+    }
+
+    /**
+     * Reserves the estimated size of a single resource, which cannot be truncated.
+     */
+    void reserve(JsonApiData jsonApiData) {
+        if (reserve(jsonApiData, null)) {
+            dataResources = 1;
+        }
+    }
+
+    private boolean reserve(JsonApiData jsonApiData, @Nullable Part part) {
+        estimatedBytes += estimateSize(jsonApiData);
+        if (estimatedBytes <= jsonApiConfiguration.getMaxEstimatedDocumentBytes()) {
+            return true;
+        }
+        if (!jsonApiConfiguration.isResponseTruncatedAtLimits()) {
+            // a client can only reduce the size of collections, a single resource that is too large
+            // does not fit the configured limit
+            throw new JsonApiErrorException(JsonApiError.create()
+                    .withStatus(part != null ? RESPONSE_TOO_LARGE_STATUS : RESOURCE_TOO_LARGE_STATUS)
+                    .withTitle(RESPONSE_TOO_LARGE)
+                    .withDetail("The response would be larger than "
+                            + jsonApiConfiguration.getMaxEstimatedDocumentBytes() + " bytes!"));
+        }
+        truncate("maxEstimatedDocumentBytes", part);
+        return part == null;
+    }
+
+    private void truncate(String limit, @Nullable Part part) {
+        exceededLimit = limit;
+        truncatedPart = part;
+    }
+
+    boolean isTruncated() {
+        return exceededLimit != null;
+    }
+
+    /**
+     * Returns the top level meta that explains the truncation.
+     */
+    Map<String, Object> getTruncationMeta() {
+        Map<String, Object> truncation = new LinkedHashMap<>();
+        truncation.put("limit", exceededLimit);
+        truncation.put("data", dataResources);
+        truncation.put("included", includedResources);
+        return truncation;
+    }
+
+    /**
+     * Replaces the {@literal next} link by a link to the resources after the truncated primary data.
+     * The link is derived from the {@literal self} link with the JSON:API default request parameters
+     * {@literal page[number]} and {@literal page[size]}, the page size is the number of rendered resources.
+     * If the rendered resources do not start at a multiple of that size, no such link exists.
+     */
+    @Nullable
+    Links withNextLink(@Nullable Links links) {
+        if (truncatedPart != Part.DATA || links == null || dataResources == 0) {
+            return links;
+        }
+        final Optional<Link> selfLink = links.getLink(IanaLinkRelations.SELF);
+        if (!selfLink.isPresent()) {
+            return links;
+        }
+
+        final String href = selfLink.get().getHref();
+        final int queryIndex = href.indexOf('?');
+        final JsonApiQuery query = JsonApiQuery.parse(queryIndex < 0 ? null : href.substring(queryIndex + 1));
+        final long offset;
+        try {
+            final int pageNumber = Integer.parseInt(query.getPageParameters().getOrDefault("number", "0"));
+            offset = pageNumber == 0 ? 0 : (long) pageNumber * Integer.parseInt(query.getPageParameters().get("size"));
+        } catch (NumberFormatException e) {
+            return links;
+        }
+        if (offset % dataResources != 0) {
+            return links;
+        }
+
+        final String queryString = query.getQueryStringWithoutPagination();
+        final String nextHref = (queryIndex < 0 ? href : href.substring(0, queryIndex))
+                + "?" + (queryString.isEmpty() ? "" : queryString + "&")
+                + "page[number]=" + (offset / dataResources + 1) + "&page[size]=" + dataResources;
+
+        final List<Link> newLinks = links.stream()
+                .filter(link -> !link.hasRel(IanaLinkRelations.NEXT))
+                .collect(Collectors.toList());
+        newLinks.add(Link.of(nextHref).withRel(IanaLinkRelations.NEXT));
+        return Links.of(newLinks);
+    }
+
+    static long estimateSize(JsonApiData jsonApiData) {
+        long size = RESOURCE_OVERHEAD
+                + estimateSize(jsonApiData.getId())
+                + estimateSize(jsonApiData.getType())
+                + estimateSize(jsonApiData.getAttributes());
+        if (jsonApiData.getLinks() != null) {
+            size += estimateSize(jsonApiData.getLinks());
+        }
+        if (jsonApiData.getRelationships() instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) jsonApiData.getRelationships()).entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize(@Nullable Object value) {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() + 2L;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return NUMBER_SIZE;
+        }
+        if (value instanceof Map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue()) + 2;
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 2;
+            for (Object element : (Collection<?>) value) {
+                size += estimateSize(element) + 1;
+            }
+            return size;
+        }
+        if (value instanceof JsonApiRelationship) {
+            final JsonApiRelationship relationship = (JsonApiRelationship) value;
+            long size = 2 + estimateSize(relationship.getLinks()) + estimateSize(relationship.getMeta());
+            final Object data = relationship.getData();
+            if (data instanceof Collection) {
+                size += (long) ((Collection<?>) data).size() * RESOURCE_IDENTIFIER_SIZE;
+            } else if (data != null) {
+                size += RESOURCE_IDENTIFIER_SIZE;
+            }
+            return size;
+        }
+        if (value instanceof Links) {
+            long size = 2;
+            for (Link link : (Links) value) {
+                size += link.getRel().value().length() + link.getHref().length() + 6;
+            }
+            return size;
+        }
+        if (value instanceof RawValue) {
+            return String.valueOf(((RawValue) value).rawValue()).length();
+        }
+        if (value instanceof Buffer) {
+            return (long) ((Buffer) value).remaining() * NUMBER_SIZE;
+        }
+        if (value.getClass().isArray()) {
+            return (long) Array.getLength(value) * NUMBER_SIZE;
+        }
+        return NUMBER_SIZE;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.*;
+
+/**
+ * A JSON:API resource of a schemaless row, e.g. a {@literal Map} or an {@literal Object[]}
+ * with a known column list read with JDBC, or some attributes of an entity selected by a database query,
+ * see {@link JsonApiProjections}.
+ * <p>
+ * The attributes are rendered as they are, without copying them into objects
+ * and without reflection or bean introspection.
+ * A row of values is exposed as a read-only map view, so no attribute map is created per row, e.g.
+ * <code>
+ * JsonApiRow.of("movies", id, columns, values)
+ * </code>
+ * The JSON:API type is either given, or it is the type of an entity class, as configured in
+ * {@link JsonApiConfiguration}.
+ *
+ * @author Kai Toedter
+ */
+@ToString
+@EqualsAndHashCode
+public final class JsonApiRow {
+    private final String type;
+    private final Class<?> entityClass;
+    private final Object id;
+    private final Map<String, ?> attributes;
+
+    private JsonApiRow(@Nullable String type, @Nullable Class<?> entityClass, Object id, Map<String, ?> attributes) {
+        this.type = type;
+        this.entityClass = entityClass;
+        this.id = id;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Creates a resource of an attribute map. The map is not copied.
+     *
+     * @param type       the JSON:API type, must not be {@literal null}.
+     * @param id         the JSON:API id, must not be {@literal null}.
+     * @param attributes the attributes, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiRow of(String type, Object id, Map<String, ?> attributes) {
+        Assert.notNull(type, "type must not be null!");
+        Assert.notNull(id, "id must not be null!");
+        Assert.notNull(attributes, "attributes must not be null!");
+        return new JsonApiRow(type, null, id, attributes);
+    }
+
+    /**
+     * Creates a resource of a row of values. The values are not copied.
+     *
+     * @param type    the JSON:API type, must not be {@literal null}.
+     * @param id      the JSON:API id, must not be {@literal null}.
+     * @param columns the attribute names, usually shared by all rows, must not be {@literal null}.
+     * @param values  the attribute values in the order of the columns, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiRow of(String type, Object id, List<String> columns, Object[] values) {
+        Assert.notNull(columns, "columns must not be null!");
+        Assert.notNull(values, "values must not be null!");
+        Assert.isTrue(columns.size() == values.length, "number of columns and values must be equal!");
+        return of(type, id, new RowMap(columns, values));
+    }
+
+    /**
+     * Creates a resource of an attribute map with the JSON:API type of an entity class,
+     * e.g. some attributes of an entity. The map is not copied.
+     *
+     * @param entityClass the entity class, used for the JSON:API type, must not be {@literal null}.
+     * @param id          the JSON:API id, must not be {@literal null}.
+     * @param attributes  the attributes, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiRow of(Class<?> entityClass, Object id, Map<String, ?> attributes) {
+        Assert.notNull(entityClass, "entity class must not be null!");
+        Assert.notNull(id, "id must not be null!");
+        Assert.notNull(attributes, "attributes must not be null!");
+        return new JsonApiRow(null, entityClass, id, attributes);
+    }
+
+    /**
+     * Creates a resource of a row of values with the JSON:API type of an entity class. The values are not copied.
+     *
+     * @param entityClass the entity class, used for the JSON:API type, must not be {@literal null}.
+     * @param id          the JSON:API id, must not be {@literal null}.
+     * @param columns     the attribute names, usually shared by all rows, must not be {@literal null}.
+     * @param values      the attribute values in the order of the columns, must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiRow of(Class<?> entityClass, Object id, List<String> columns, Object[] values) {
+        Assert.notNull(columns, "columns must not be null!");
+        Assert.notNull(values, "values must not be null!");
+        Assert.isTrue(columns.size() == values.length, "number of columns and values must be equal!");
+        return of(entityClass, id, new RowMap(columns, values));
+    }
+
+    /**
+     * @return the JSON:API type, {@literal null} if the type is the type of the entity class.
+     */
+    @Nullable
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return the entity class, {@literal null} if the JSON:API type is given.
+     */
+    @Nullable
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    String getType(JsonApiConfiguration jsonApiConfiguration) {
+        return type != null ? type : JsonApiResource.getTypeForClass(entityClass, jsonApiConfiguration);
+    }
+
+    /**
+     * @return the JSON:API id, will never be {@literal null}.
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * @return the attributes, will never be {@literal null}.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getAttributes() {
+        return (Map<String, Object>) attributes;
+    }
+
+    private static final class RowMap extends AbstractMap<String, Object> {
+        private final List<String> columns;
+        private final Object[] values;
+
+        private RowMap(List<String> columns, Object[] values) {
+            this.columns = columns;
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = columns.indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return columns.contains(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public int size() {
+                    return values.length;
+                }
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (index >= values.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> entry = new SimpleImmutableEntry<>(columns.get(index), values[index]);
+                            index++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Servlet filter that exposes the time spent in the JSON:API layer as {@literal Server-Timing} response header.
+ * <p>
+ * The header contains the durations of the model assembly ({@link JsonApiModelBuilder#build()}),
+ * the resource extraction, the included extraction, the attribute conversion, the links rendering
+ * and the document writing, together with the number of rendered resources.
+ * The phases do not overlap, e.g. the time of the attribute conversion is not part of the resource extraction.
+ * Browser developer tools display these metrics next to the network timings of the request.
+ * <p>
+ * With asynchronous requests, e.g. controller methods returning a {@literal Callable} or {@literal DeferredResult},
+ * the timings are continued in the async dispatch that renders the document,
+ * the model assembly on other threads is not recorded.
+ * <p>
+ * The response body is not buffered: the header is added right before the first byte of the body is written,
+ * or when the response is flushed. If the document is so large that the first bytes are written
+ * while it is still rendered, the header only contains the phases until then.
+ *
+ * @author Kai Toedter
+ */
+public class JsonApiServerTimingFilter extends OncePerRequestFilter {
+    /**
+     * The name of the {@literal Server-Timing} response header.
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final String TIMINGS_ATTRIBUTE = JsonApiServerTimingFilter.class.getName() + ".TIMINGS";
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // the document of an async request is rendered in the async dispatch
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        JsonApiTimings timings = (JsonApiTimings) request.getAttribute(TIMINGS_ATTRIBUTE);
+        if (timings == null) {
+            timings = JsonApiTimings.begin();
+        } else {
+            JsonApiTimings.resume(timings);
+        }
+
+        ServerTimingResponseWrapper responseWrapper =
+                WebUtils.getNativeResponse(response, ServerTimingResponseWrapper.class);
+        if (responseWrapper == null) {
+            responseWrapper = new ServerTimingResponseWrapper(response, timings);
+        }
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            JsonApiTimings.end();
+            if (isAsyncStarted(request)) {
+                // the thread is released, the response is completed by the async dispatch
+                request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+            } else {
+                request.removeAttribute(TIMINGS_ATTRIBUTE);
+                responseWrapper.addServerTimingHeader();
+            }
+        }
+    }
+
+    /**
+     * Adds the {@literal Server-Timing} header before the response is committed by the first write or flush.
+     */
+    static class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+        private final JsonApiTimings timings;
+        private boolean headerAdded;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        ServerTimingResponseWrapper(HttpServletResponse response, JsonApiTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTimingHeader() {
+            if (headerAdded || isCommitted()) {
+                return;
+            }
+            headerAdded = true;
+            if (!timings.isEmpty()) {
+                setHeader(SERVER_TIMING, timings.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                final ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        addServerTimingHeader();
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        addServerTimingHeader();
+                        delegate.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        addServerTimingHeader();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        addServerTimingHeader();
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                final PrintWriter delegate = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] chars, int offset, int length) {
+                        addServerTimingHeader();
+                        delegate.write(chars, offset, length);
+                    }
+
+                    @Override
+                    public void flush() {
+                        addServerTimingHeader();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        addServerTimingHeader();
+                        delegate.close();
+                    }
+                });
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTimingHeader();
+            super.flushBuffer();
+        }
+    }
+}
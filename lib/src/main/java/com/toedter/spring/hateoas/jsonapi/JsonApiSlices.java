@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the {@literal JSON:API} page meta and pagination links of Spring Data {@link Slice}s and {@link Page}s,
+ * to be added with {@link JsonApiModelBuilder#meta(String, Object)} and
+ * {@link JsonApiModelBuilder#links(Iterable)}, e.g.
+ * <code>
+ * jsonApiModel().model(CollectionModel.of(slice.getContent()))
+ * .meta("page", JsonApiSlices.meta(slice))
+ * .links(JsonApiSlices.links(linkBase, slice))
+ * </code>
+ * A {@link Slice} is queried without a {@literal COUNT} query, so its meta has no
+ * {@literal totalElements} and {@literal totalPages}, unlike a {@link Page}.
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiSlices {
+    private static final String PAGE = "page";
+    private static final String PAGE_NUMBER = "number";
+    private static final String PAGE_SIZE = "size";
+    private static final String PAGE_TOTAL_ELEMENTS = "totalElements";
+    private static final String PAGE_TOTAL_PAGES = "totalPages";
+
+    private JsonApiSlices() {
+    }
+
+    /**
+     * Creates the {@literal page} meta of the given {@link Slice},
+     * without {@literal totalElements} and {@literal totalPages}.
+     *
+     * @param slice must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static Map<String, Object> meta(Slice<?> slice) {
+        Assert.notNull(slice, "slice must not be null!");
+
+        Map<String, Object> metaObject = new HashMap<>();
+        metaObject.put(PAGE_NUMBER, (long) slice.getNumber());
+        metaObject.put(PAGE_SIZE, (long) slice.getSize());
+        return metaObject;
+    }
+
+    /**
+     * Creates the {@literal page} meta of the given {@link Slice} and the given total number of elements,
+     * like {@link JsonApiModelBuilder#pageMeta()}.
+     * The total can be counted less often than the pages are requested, e.g. with a {@link JsonApiCountCache}.
+     *
+     * @param slice         must not be {@literal null}.
+     * @param totalElements the total number of elements of all slices.
+     * @return will never be {@literal null}.
+     */
+    public static Map<String, Object> meta(Slice<?> slice, long totalElements) {
+        Assert.notNull(slice, "slice must not be null!");
+        Assert.isTrue(totalElements >= 0, "total elements must not be negative!");
+
+        final long pageSize = slice.getSize();
+        final long totalPages = pageSize == 0 ? 1 : (totalElements + pageSize - 1) / pageSize;
+
+        Map<String, Object> metaObject = new HashMap<>();
+        metaObject.put(PAGE_NUMBER, (long) slice.getNumber());
+        metaObject.put(PAGE_SIZE, pageSize);
+        metaObject.put(PAGE_TOTAL_ELEMENTS, totalElements);
+        metaObject.put(PAGE_TOTAL_PAGES, totalPages);
+        return metaObject;
+    }
+
+    /**
+     * Creates the pagination links {@literal first}, {@literal prev} and {@literal next} of the given {@link Slice}
+     * with {@literal JSON:API} default request parameters for
+     * page number {@literal page[number]} and page size {@literal page[size]}.
+     * The {@literal next} link is only created if the slice has a next slice.
+     * The {@literal last} link is only created for a {@link Page}, because the number of slices is unknown.
+     *
+     * @param linkBase the prefix of all pagination links, e.g. the base URL of the collection resource,
+     *                 may already contain query parameters like {@literal filter[...]}
+     * @param slice    must not be {@literal null}.
+     * @return will never be {@literal null}.
+     */
+    public static Links links(String linkBase, Slice<?> slice) {
+        Assert.notNull(linkBase, "link base for paging must not be null!");
+        Assert.notNull(slice, "slice must not be null!");
+
+        final long pageNumber = slice.getNumber();
+        final String separator = linkBase.contains("?") ? "&" : "?";
+        final String pageSizeParameter = "&page[size]=" + slice.getSize();
+        List<Link> paginationLinks = new ArrayList<>();
+
+        if (pageNumber > 0) {
+            paginationLinks.add(Link.of(linkBase + separator + "page[number]=0" + pageSizeParameter)
+                    .withRel(IanaLinkRelations.FIRST));
+        }
+
+        if (slice.hasPrevious()) {
+            paginationLinks.add(Link.of(linkBase + separator + "page[number]=" + (pageNumber - 1) + pageSizeParameter)
+                    .withRel(IanaLinkRelations.PREV));
+        }
+
+        if (slice.hasNext()) {
+            paginationLinks.add(Link.of(linkBase + separator + "page[number]=" + (pageNumber + 1) + pageSizeParameter)
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+
+        if (slice instanceof Page && pageNumber < ((Page<?>) slice).getTotalPages() - 1) {
+            paginationLinks.add(Link.of(linkBase + separator + "page[number]="
+                    + (((Page<?>) slice).getTotalPages() - 1) + pageSizeParameter)
+                    .withRel(IanaLinkRelations.LAST));
+        }
+
+        return Links.of(paginationLinks);
+    }
+
+    /**
+     * Creates a new {@link JsonApiModelBuilder} that renders the given {@link Slice} or {@link Page}
+     * directly, without a model for each entity: the entities are the primary data,
+     * their links are created by the given template when the model is rendered,
+     * see {@link JsonApiModelBuilder#resourceTemplate(JsonApiResourceTemplate)}.
+     * The page meta and the pagination links are created with {@link #meta(Slice)} and
+     * {@link #links(String, Slice)}, the totals are added for a {@link Page}.
+     *
+     * @param slice            must not be {@literal null}.
+     * @param resourceTemplate the template of the entities, must not be {@literal null}.
+     * @param linkBase         the prefix of all pagination links, e.g. the base URL of the collection resource,
+     *                         may already contain query parameters like {@literal filter[...]}
+     * @return will never be {@literal null}.
+     */
+    public static JsonApiModelBuilder page(
+            Slice<?> slice, JsonApiResourceTemplate resourceTemplate, String linkBase) {
+        Assert.notNull(slice, "slice must not be null!");
+
+        return JsonApiModelBuilder.jsonApiModel()
+                .model(CollectionModel.of(slice.getContent()))
+                .resourceTemplate(resourceTemplate)
+                .meta(PAGE, slice instanceof Page ? meta(slice, ((Page<?>) slice).getTotalElements()) : meta(slice))
+                .links(links(linkBase, slice));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable, array-backed map for the few relationships and meta entries of a single resource.
+ * Looking up one of a handful of keys linearly is as fast as hashing,
+ * and the map needs neither a hash table nor an entry object per key.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiSmallMap<V> extends AbstractMap<String, V> {
+    static final int MAX_SIZE = 8;
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private JsonApiSmallMap(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns a compact, immutable copy of the given map, keeping its iteration order.
+     * Maps with more than {@value #MAX_SIZE} entries are returned as they are.
+     */
+    static <V> Map<String, V> copyOf(@Nullable Map<String, V> map) {
+        if (map == null || map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (map instanceof JsonApiSmallMap || map.size() > MAX_SIZE) {
+            return map;
+        }
+        final String[] keys = new String[map.size()];
+        final Object[] values = new Object[map.size()];
+        int i = 0;
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new JsonApiSmallMap<>(keys, values);
+    }
+
+    private int indexOf(@Nullable Object key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(@Nullable Object key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<Entry<String, V>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<String, V> next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final Entry<String, V> entry =
+                                new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates Spring Data JPA {@link Specification}s of JSON:API {@literal filter[...]} parameters,
+ * so filtering is done by the database.
+ * <p>
+ * A filter {@literal filter[title]=Star Wars} is translated to {@literal title = 'Star Wars'},
+ * a filter with several values {@literal filter[year]=1977,1980} is translated to {@literal year in (1977, 1980)}.
+ * Filter names may be paths to attributes of related entities, e.g. {@literal filter[directors.name]=George Lucas}.
+ * Several filters are combined with {@literal and}.
+ * <p>
+ * For keyset pagination with {@literal page[after]} and {@literal page[before]} cursors,
+ * {@link #keyset(Sort, JsonApiCursor, JsonApiCursor)} creates the {@link Specification} of the rows after
+ * or before a cursor, and {@link #findCursorPage} queries a whole page without {@literal OFFSET} and
+ * without counting all rows. The sort must end with a unique property, like the id, and all sort properties
+ * must not be {@literal null}.
+ *
+ * @author Kai Toedter
+ */
+public final class JsonApiSpecifications {
+
+    private JsonApiSpecifications() {
+    }
+
+    /**
+     * Creates a {@link Specification} of all {@literal filter[...]} parameters of the given query.
+     * Only the given attribute paths can be filtered, to prevent clients from filtering
+     * by attributes that are not exposed.
+     *
+     * @param query                must not be {@literal null}.
+     * @param filterableAttributes the attribute paths that can be filtered, e.g. {@literal title}
+     *                             or {@literal directors.name}.
+     * @param <T>                  the type of the root entity.
+     * @return will never be {@literal null}.
+     * @throws JsonApiErrorException with status 400 if the query contains a filter that is not allowed
+     *                               or a filter value that cannot be converted to the attribute type.
+     */
+    public static <T> Specification<T> filter(JsonApiQuery query, String... filterableAttributes) {
+        Assert.notNull(query, "JsonApiQuery must not be null!");
+        Assert.notNull(filterableAttributes, "filterable attributes must not be null!");
+
+        final Set<String> allowedAttributes = new HashSet<>(Arrays.asList(filterableAttributes));
+        for (String attribute : query.getFilters().keySet()) {
+            if (!allowedAttributes.contains(attribute)) {
+                throw JsonApiQuery.invalidParameter(
+                        "filter[" + attribute + "]", "JSON:API filter[" + attribute + "] is not supported!");
+            }
+        }
+
+        final Map<String, List<String>> filters = query.getFilters();
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>(filters.size());
+            for (Map.Entry<String, List<String>> filter : filters.entrySet()) {
+                List<String> values = filter.getValue();
+                if (values.isEmpty()) {
+                    continue;
+                }
+
+                Path<?> path = getPath(root, filter.getKey(), criteriaQuery);
+                if (values.size() == 1) {
+                    Object convertedValue = convertFilterValue(filter.getKey(), values.get(0), path);
+                    predicates.add(criteriaBuilder.equal(path, convertedValue));
+                } else {
+                    List<Object> convertedValues = new ArrayList<>(values.size());
+                    for (String value : values) {
+                        convertedValues.add(convertFilterValue(filter.getKey(), value, path));
+                    }
+                    predicates.add(path.in(convertedValues));
+                }
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Creates a {@link Specification} of the rows after the {@literal after} cursor,
+     * or before the {@literal before} cursor, in the given sort order.
+     * For the sort {@literal year,id} and the cursor values {@literal 1999, 42}, the rows after the cursor are
+     * {@literal year > 1999 or (year = 1999 and id > 42)}.
+     *
+     * @param sort   the sort of the pages, must not be {@literal null}.
+     * @param after  the cursor of a {@literal page[after]} parameter, can be {@literal null}.
+     * @param before the cursor of a {@literal page[before]} parameter, can be {@literal null}.
+     * @param <T>    the type of the root entity.
+     * @return will never be {@literal null}, matches all rows if there is no cursor.
+     * @throws IllegalArgumentException if both cursors are given or a cursor does not match the sort.
+     */
+    public static <T> Specification<T> keyset(Sort sort,
+                                              @Nullable JsonApiCursor after,
+                                              @Nullable JsonApiCursor before) {
+        Assert.notNull(sort, "sort must not be null!");
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("JSON:API parameters page[after] and page[before] cannot be combined!");
+        }
+
+        final JsonApiCursor cursor = after != null ? after : before;
+        if (cursor == null) {
+            return (root, criteriaQuery, criteriaBuilder) -> null;
+        }
+        final List<Sort.Order> orders = sort.toList();
+        if (orders.size() != cursor.getValues().size()) {
+            throw new IllegalArgumentException("JSON:API cursor " + cursor + " does not match the sort " + sort + "!");
+        }
+
+        final boolean forward = after != null;
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> alternatives = new ArrayList<>(orders.size());
+            List<Predicate> equalPrefix = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Path<Comparable<Object>> path = getComparablePath(root, order.getProperty(), criteriaQuery);
+                Comparable<Object> value = convertCursorValue(cursor.getValues().get(i), path.getJavaType());
+
+                List<Predicate> conjunction = new ArrayList<>(equalPrefix);
+                conjunction.add(order.isAscending() == forward
+                        ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value));
+                alternatives.add(criteriaBuilder.and(conjunction.toArray(new Predicate[0])));
+                equalPrefix.add(criteriaBuilder.equal(path, value));
+            }
+            return criteriaBuilder.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Finds a page of keyset pagination, using the {@literal page[after]}, {@literal page[before]}
+     * and {@literal page[size]} parameters of the query.
+     * Only one row more than the page size is queried, to find out if there is another page,
+     * so the query time does not depend on the position of the page.
+     *
+     * @param entityManager   must not be {@literal null}.
+     * @param domainClass     the entity class, must not be {@literal null}.
+     * @param specification   additional restrictions like filters, can be {@literal null}.
+     * @param query           must not be {@literal null}.
+     * @param sort            the sort of the pages, ending with a unique property, must not be {@literal null}.
+     * @param defaultPageSize the page size, if no {@literal page[size]} parameter is given.
+     * @param <T>             the type of the entities.
+     * @return will never be {@literal null}.
+     */
+    public static <T> JsonApiCursorPage<T> findCursorPage(EntityManager entityManager,
+                                                          Class<T> domainClass,
+                                                          @Nullable Specification<T> specification,
+                                                          JsonApiQuery query,
+                                                          Sort sort,
+                                                          int defaultPageSize) {
+        Assert.notNull(entityManager, "EntityManager must not be null!");
+        Assert.notNull(domainClass, "domain class must not be null!");
+        Assert.notNull(query, "JsonApiQuery must not be null!");
+        Assert.notNull(sort, "sort must not be null!");
+        Assert.isTrue(sort.isSorted(), "sort of keyset pagination must not be unsorted!");
+
+        final JsonApiCursor after = query.getPageAfter();
+        final JsonApiCursor before = query.getPageBefore();
+        final int pageSize = query.getPageSize(defaultPageSize);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("JSON:API parameter page[size] must be greater than 0!");
+        }
+
+        final Specification<T> where = Specification.where(specification).and(keyset(sort, after, before));
+        // pages before a cursor are read backwards from the cursor
+        final Sort querySort = before != null ? reverse(sort) : sort;
+
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(domainClass);
+        final Root<T> root = criteriaQuery.from(domainClass);
+        final Predicate predicate = where.toPredicate(root, criteriaQuery, criteriaBuilder);
+        if (predicate != null) {
+            criteriaQuery.where(predicate);
+        }
+        criteriaQuery.select(root).orderBy(QueryUtils.toOrders(querySort, root, criteriaBuilder));
+
+        List<T> rows = entityManager.createQuery(criteriaQuery).setMaxResults(pageSize + 1).getResultList();
+        final boolean hasMore = rows.size() > pageSize;
+        rows = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (before != null) {
+            Collections.reverse(rows);
+        }
+
+        final boolean hasPrevious = before != null ? hasMore : after != null;
+        final boolean hasNext = before != null || hasMore;
+        final JsonApiCursor previousCursor =
+                hasPrevious && !rows.isEmpty() ? JsonApiCursor.of(rows.get(0), sort) : null;
+        final JsonApiCursor nextCursor =
+                hasNext && !rows.isEmpty() ? JsonApiCursor.of(rows.get(rows.size() - 1), sort) : null;
+        return JsonApiCursorPage.of(rows, pageSize, previousCursor, nextCursor);
+    }
+
+    private static Sort reverse(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.with(order.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+                .collect(Collectors.toList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Path<Comparable<Object>> getComparablePath(
+            Root<?> root, String attributePath, CriteriaQuery<?> criteriaQuery) {
+        return (Path<Comparable<Object>>) getPath(root, attributePath, criteriaQuery);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> convertCursorValue(Object value, Class<?> type) {
+        ConversionService conversionService = DefaultConversionService.getSharedInstance();
+        Object convertedValue;
+        try {
+            convertedValue = conversionService.convert(value, type);
+        } catch (ConversionException e) {
+            convertedValue = null;
+        }
+        if (!(convertedValue instanceof Comparable)) {
+            throw new IllegalArgumentException(
+                    "Cannot convert JSON:API cursor value " + value + " to " + type.getSimpleName() + "!");
+        }
+        return (Comparable<Object>) convertedValue;
+    }
+
+    static Path<?> getPath(Root<?> root, String attributePath, CriteriaQuery<?> criteriaQuery) {
+        String[] segments = attributePath.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            from = getOrCreateJoin(from, segments[i]);
+            // joining to-many relationships would return the root entity several times
+            criteriaQuery.distinct(true);
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+
+    private static From<?, ?> getOrCreateJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.INNER) {
+                return join;
+            }
+        }
+        return from.join(attribute, JoinType.INNER);
+    }
+
+    private static Object convertFilterValue(String attribute, String value, Path<?> path) {
+        try {
+            return convert(value, path.getJavaType());
+        } catch (IllegalArgumentException e) {
+            throw JsonApiQuery.invalidParameter("filter[" + attribute + "]", e.getMessage());
+        }
+    }
+
+    static Object convert(String value, Class<?> type) {
+        ConversionService conversionService = DefaultConversionService.getSharedInstance();
+        Object convertedValue;
+        try {
+            convertedValue = conversionService.convert(value, type);
+        } catch (ConversionException e) {
+            convertedValue = null;
+        }
+        if (convertedValue == null) {
+            throw new IllegalArgumentException(
+                    "Cannot convert JSON:API filter value " + value + " to " + type.getSimpleName() + "!");
+        }
+        return convertedValue;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import java.util.Locale;
+
+/**
+ * Collects the time spent in the JSON:API phases of the current request.
+ * <p>
+ * Timings are only recorded on threads where a collector was started with {@link #begin()},
+ * usually by the {@link JsonApiServerTimingFilter}. Until the first collector is started,
+ * {@link #start()} is a single read of a static field.
+ * <p>
+ * Phases can be nested, e.g. the attribute conversion runs within the resource extraction.
+ * Each phase only records its own time, without the time of the phases nested in it,
+ * so the durations of all phases add up to the time spent in the JSON:API layer.
+ *
+ * @author Kai Toedter
+ */
+final class JsonApiTimings {
+    static final long NOT_RECORDING = Long.MIN_VALUE;
+
+    private static final ThreadLocal<JsonApiTimings> CURRENT = new ThreadLocal<>();
+    private static volatile boolean enabled;
+
+    enum Phase {
+        BUILD("jsonapi-build", "JSON:API model assembly"),
+        DATA("jsonapi-data", "JSON:API resource extraction"),
+        INCLUDED("jsonapi-included", "JSON:API included extraction"),
+        ATTRIBUTES("jsonapi-attributes", "JSON:API attribute conversion"),
+        LINKS("jsonapi-links", "JSON:API links rendering"),
+        WRITE("jsonapi-write", "JSON:API document writing");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+    }
+
+    private static final int MAX_DEPTH = 8;
+
+    private final long[] durations = new long[Phase.values().length];
+    // the time spent in the phases nested in each running phase
+    private final long[] nestedDurations = new long[MAX_DEPTH + 1];
+    private int depth;
+    private int resourceCount;
+    private int includedCount;
+
+    private JsonApiTimings() {
+    }
+
+    static JsonApiTimings begin() {
+        enabled = true;
+        JsonApiTimings timings = new JsonApiTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Continues recording into the given collector on the current thread, e.g. in an async dispatch.
+     */
+    static void resume(JsonApiTimings timings) {
+        enabled = true;
+        timings.depth = 0;
+        CURRENT.set(timings);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static long start() {
+        if (!enabled) {
+            return NOT_RECORDING;
+        }
+        JsonApiTimings timings = CURRENT.get();
+        if (timings == null) {
+            return NOT_RECORDING;
+        }
+        timings.depth++;
+        if (timings.depth <= MAX_DEPTH) {
+            timings.nestedDurations[timings.depth] = 0;
+        }
+        return System.nanoTime();
+    }
+
+    static void stop(Phase phase, long start) {
+        if (start == NOT_RECORDING) {
+            return;
+        }
+        JsonApiTimings timings = CURRENT.get();
+        if (timings != null && timings.depth > 0) {
+            long duration = System.nanoTime() - start;
+            long nestedDuration = timings.depth <= MAX_DEPTH ? timings.nestedDurations[timings.depth] : 0;
+            timings.durations[phase.ordinal()] += Math.max(0, duration - nestedDuration);
+            timings.depth--;
+            if (timings.depth > 0 && timings.depth <= MAX_DEPTH) {
+                timings.nestedDurations[timings.depth] += duration;
+            }
+        }
+    }
+
+    static void countResources(long start, int count) {
+        if (start != NOT_RECORDING) {
+            JsonApiTimings timings = CURRENT.get();
+            if (timings != null) {
+                timings.resourceCount += count;
+            }
+        }
+    }
+
+    static void countIncluded(long start, int count) {
+        if (start != NOT_RECORDING) {
+            JsonApiTimings timings = CURRENT.get();
+            if (timings != null) {
+                timings.includedCount += count;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        for (long duration : durations) {
+            if (duration != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the collected timings as value of a {@literal Server-Timing} response header,
+     * see https://www.w3.org/TR/server-timing/.
+     *
+     * @return will never be {@literal null}.
+     */
+    String toServerTiming() {
+        StringBuilder builder = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            long duration = durations[phase.ordinal()];
+            if (duration == 0) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(phase.metricName)
+                    .append(";desc=\"").append(phase.description);
+            if (phase == Phase.DATA) {
+                builder.append(" (").append(resourceCount).append(" resources)");
+            } else if (phase == Phase.INCLUDED) {
+                builder.append(" (").append(includedCount).append(" resources)");
+            }
+            builder.append("\";dur=").append(String.format(Locale.ROOT, "%.3f", duration / 1_000_000.0));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Decoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.smile.Jackson2SmileDecoder;
+import org.springframework.http.codec.smile.Jackson2SmileEncoder;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * JSON:API specific Spring WebFlux configuration.
+ *
+ * @author Kai Toedter
+ */
+@RequiredArgsConstructor
+@Configuration
+// the custom codecs must be registered before the JSON:API codecs of Spring HATEOAS
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class JsonApiWebFluxConfiguration implements WebFluxConfigurer {
+
+    private final JsonApiMediaTypeConfiguration mediaTypeConfiguration;
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new JsonApiQueryWebFluxArgumentResolver());
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // the JSON:API codecs of Spring HATEOAS are not limited here, they keep their own maximum in-memory size
+        final long maxRequestDocumentBytes = mediaTypeConfiguration.getJsonApiConfiguration().getMaxRequestDocumentBytes();
+        final int maxInMemorySize = (int) Math.min(maxRequestDocumentBytes, Integer.MAX_VALUE);
+
+        Map<MediaType, ObjectMapper> objectMappers =
+                JsonApiBinaryFormats.createObjectMappers(mediaTypeConfiguration::configureObjectMapper);
+
+        ObjectMapper smileMapper = objectMappers.get(MediaTypes.JSON_API_SMILE);
+        if (smileMapper != null) {
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper, MediaTypes.JSON_API_SMILE));
+            registerDecoder(configurer, new Jackson2SmileDecoder(smileMapper, MediaTypes.JSON_API_SMILE),
+                    maxRequestDocumentBytes, maxInMemorySize);
+        }
+
+        ObjectMapper cborMapper = objectMappers.get(MediaTypes.JSON_API_CBOR);
+        if (cborMapper != null) {
+            configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper, MediaTypes.JSON_API_CBOR));
+            registerDecoder(configurer, new Jackson2CborDecoder(cborMapper, MediaTypes.JSON_API_CBOR),
+                    maxRequestDocumentBytes, maxInMemorySize);
+        }
+
+        ObjectMapper columnarMapper =
+                JsonApiColumnar.enable(mediaTypeConfiguration.configureObjectMapper(new ObjectMapper()));
+        configurer.customCodecs().register(new Jackson2JsonEncoder(columnarMapper, MediaTypes.JSON_API_COLUMNAR) {
+            @Override
+            public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+                return JsonApiColumnar.isRequested(mimeType) && super.canEncode(elementType, mimeType);
+            }
+        });
+        Jackson2JsonDecoder columnarDecoder = new Jackson2JsonDecoder(columnarMapper, MediaTypes.JSON_API_COLUMNAR) {
+            @Override
+            public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+                return JsonApiColumnar.isRequested(mimeType) && super.canDecode(elementType, mimeType);
+            }
+        };
+        registerDecoder(configurer, columnarDecoder, maxRequestDocumentBytes, maxInMemorySize);
+
+        ObjectMapper atomicMapper = mediaTypeConfiguration.configureObjectMapper(new ObjectMapper());
+        configurer.customCodecs().register(new Jackson2JsonEncoder(atomicMapper, MediaTypes.JSON_API_ATOMIC) {
+            @Override
+            public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+                return JsonApiAtomicResults.class.equals(elementType.toClass()) && isAtomic(mimeType)
+                        && super.canEncode(elementType, mimeType);
+            }
+        });
+        Jackson2JsonDecoder atomicDecoder = new Jackson2JsonDecoder(atomicMapper, MediaTypes.JSON_API_ATOMIC) {
+            @Override
+            public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+                return JsonApiAtomicOperations.class.equals(elementType.toClass())
+                        && JsonApiAtomicOperations.isRequested(mimeType) && super.canDecode(elementType, mimeType);
+            }
+        };
+        registerDecoder(configurer, atomicDecoder, maxRequestDocumentBytes, maxInMemorySize);
+    }
+
+    @Bean
+    @Order(-2)
+    WebExceptionHandler jsonApiErrorExceptionHandler() {
+        // exception handlers of the application handle exceptions before any WebExceptionHandler,
+        // the order is before the default error handler of Spring Boot
+        final ObjectMapper objectMapper = mediaTypeConfiguration.configureObjectMapper(new ObjectMapper());
+        return (exchange, exception) -> {
+            final JsonApiErrorException errorException = JsonApiErrorException.find(exception);
+            final ServerHttpResponse response = exchange.getResponse();
+            if (errorException == null || response.isCommitted()) {
+                return Mono.error(exception);
+            }
+            final byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(errorException.getErrors());
+            } catch (JsonProcessingException e) {
+                return Mono.error(exception);
+            }
+            response.setRawStatusCode(errorException.getStatus());
+            response.getHeaders().setContentType(MediaTypes.JSON_API);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private static void registerDecoder(ServerCodecConfigurer configurer, AbstractJackson2Decoder decoder,
+                                        long maxRequestDocumentBytes, int maxInMemorySize) {
+        if (maxRequestDocumentBytes != Long.MAX_VALUE) {
+            decoder.setMaxInMemorySize(maxInMemorySize);
+        }
+        configurer.customCodecs().register(decoder);
+    }
+
+    private static boolean isAtomic(@Nullable MimeType mimeType) {
+        // Spring asks without a mime type for the producible media types of a response
+        return mimeType == null || JsonApiAtomicOperations.isRequested(mimeType);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.mvc.TypeConstrainedMappingJackson2HttpMessageConverter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JSON:API specific Spring MVC configuration.
+ *
+ * @author Kai Toedter
+ */
+@RequiredArgsConstructor
+@Configuration
+class JsonApiWebMvcConfiguration implements WebMvcConfigurer {
+
+    private final JsonApiMediaTypeConfiguration mediaTypeConfiguration;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new JsonApiQueryWebMvcArgumentResolver());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        JsonApiBinaryFormats.createObjectMappers(mediaTypeConfiguration::configureObjectMapper)
+                .forEach((mediaType, objectMapper) -> converters.add(0,
+                        new TypeConstrainedMappingJackson2HttpMessageConverter(
+                                RepresentationModel.class, Collections.singletonList(mediaType), objectMapper)));
+        converters.add(0, new AtomicMessageConverter(mediaTypeConfiguration.configureObjectMapper(new ObjectMapper())));
+        // before the JSON:API converter, which would accept the media type with the ext parameter as well
+        converters.add(0, new ColumnarMessageConverter(
+                JsonApiColumnar.enable(mediaTypeConfiguration.configureObjectMapper(new ObjectMapper()))));
+    }
+
+    @Override
+    public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
+        // after the exception handlers of the application, before the default handling of wrapped exceptions
+        int index = 0;
+        for (int i = 0; i < resolvers.size(); i++) {
+            if (resolvers.get(i) instanceof ExceptionHandlerExceptionResolver) {
+                index = i + 1;
+            }
+        }
+        resolvers.add(index, new JsonApiErrorExceptionResolver(
+                mediaTypeConfiguration.configureObjectMapper(new ObjectMapper())));
+    }
+
+    @Bean
+    static BeanPostProcessor jsonApiLimitsAdviceRegistrar(
+            ObjectProvider<JsonApiMediaTypeConfiguration> mediaTypeConfiguration) {
+        // WebMvcConfigurer cannot contribute body advice, and the advice must not be a global @ControllerAdvice,
+        // so it is appended to the advice of the handler adapter, only if a limit is configured
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter) {
+                    final RequestMappingHandlerAdapter adapter = (RequestMappingHandlerAdapter) bean;
+                    final JsonApiConfiguration jsonApiConfiguration =
+                            mediaTypeConfiguration.getObject().getJsonApiConfiguration();
+                    if (jsonApiConfiguration.isResponseLimited()) {
+                        adapter.setResponseBodyAdvice(
+                                Collections.singletonList(new ResponseLimitsAdvice(jsonApiConfiguration)));
+                    }
+                    if (jsonApiConfiguration.getMaxRequestDocumentBytes() != Long.MAX_VALUE) {
+                        adapter.setRequestBodyAdvice(
+                                Collections.singletonList(new RequestLimitsAdvice(jsonApiConfiguration)));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean isJsonApiConverter(Class<? extends HttpMessageConverter<?>> converterType) {
+        // the JSON:API converters of Spring HATEOAS and of this library
+        return TypeConstrainedMappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                || AtomicMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    /**
+     * Checks the response limits before a JSON:API model is written,
+     * so an exceeded limit can still be rendered as error document.
+     */
+    static class ResponseLimitsAdvice implements ResponseBodyAdvice<Object> {
+        private final JsonApiConfiguration jsonApiConfiguration;
+
+        ResponseLimitsAdvice(JsonApiConfiguration jsonApiConfiguration) {
+            this.jsonApiConfiguration = jsonApiConfiguration;
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return isJsonApiConverter(converterType);
+        }
+
+        @Override
+        public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            if (body instanceof RepresentationModel && selectedContentType.getSubtype().startsWith("vnd.api+")) {
+                JsonApiResponseBudget.check(body, jsonApiConfiguration);
+            }
+            return body;
+        }
+    }
+
+    /**
+     * Limits the number of bytes that are read from the body of a JSON:API request,
+     * a request with a larger {@literal Content-Length} is rejected before its body is read.
+     */
+    static class RequestLimitsAdvice extends RequestBodyAdviceAdapter {
+        private final long maxRequestDocumentBytes;
+
+        RequestLimitsAdvice(JsonApiConfiguration jsonApiConfiguration) {
+            this.maxRequestDocumentBytes = jsonApiConfiguration.getMaxRequestDocumentBytes();
+        }
+
+        @Override
+        public boolean supports(MethodParameter methodParameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+            return isJsonApiConverter(converterType);
+        }
+
+        @Override
+        public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+                                               Type targetType, Class<? extends HttpMessageConverter<?>> converterType)
+                throws IOException {
+            final MediaType contentType = inputMessage.getHeaders().getContentType();
+            if (contentType == null || !contentType.getSubtype().startsWith("vnd.api+")) {
+                return inputMessage;
+            }
+            if (inputMessage.getHeaders().getContentLength() > maxRequestDocumentBytes) {
+                throw tooLarge();
+            }
+
+            final InputStream body = new FilterInputStream(inputMessage.getBody()) {
+                private long remaining = maxRequestDocumentBytes;
+
+                @Override
+                public int read() throws IOException {
+                    final int b = super.read();
+                    if (b >= 0) {
+                        count(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    final int count = super.read(bytes, offset, length);
+                    if (count > 0) {
+                        count(count);
+                    }
+                    return count;
+                }
+
+                private void count(int count) {
+                    remaining -= count;
+                    if (remaining < 0) {
+                        throw tooLarge();
+                    }
+                }
+            };
+            return new HttpInputMessage() {
+                @Override
+                public InputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return inputMessage.getHeaders();
+                }
+            };
+        }
+
+        private JsonApiErrorException tooLarge() {
+            return JsonApiDocumentReader.requestTooLarge(
+                    "JSON:API request must not be larger than " + maxRequestDocumentBytes + " bytes!", null);
+        }
+    }
+
+    /**
+     * Reads and writes representation models only if the columnar extension is requested.
+     */
+    static class ColumnarMessageConverter extends TypeConstrainedMappingJackson2HttpMessageConverter {
+
+        ColumnarMessageConverter(ObjectMapper objectMapper) {
+            super(RepresentationModel.class, Collections.singletonList(MediaTypes.JSON_API_COLUMNAR), objectMapper);
+        }
+
+        @Override
+        public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+            return JsonApiColumnar.isRequested(mediaType) && super.canRead(clazz, mediaType);
+        }
+
+        @Override
+        public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+            return JsonApiColumnar.isRequested(mediaType) && super.canRead(type, contextClass, mediaType);
+        }
+
+        @Override
+        public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+            return JsonApiColumnar.isRequested(mediaType) && super.canWrite(clazz, mediaType);
+        }
+    }
+
+    /**
+     * Reads atomic operations and writes atomic results, if the media type does not exclude the
+     * Atomic Operations extension.
+     */
+    static class AtomicMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        AtomicMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+            setSupportedMediaTypes(Collections.singletonList(MediaTypes.JSON_API_ATOMIC));
+        }
+
+        @Override
+        public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+            return JsonApiAtomicOperations.class.equals(clazz) && JsonApiAtomicOperations.isRequested(mediaType)
+                    && super.canRead(clazz, mediaType);
+        }
+
+        @Override
+        public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+            return JsonApiAtomicOperations.class.equals(type) && JsonApiAtomicOperations.isRequested(mediaType)
+                    && super.canRead(type, contextClass, mediaType);
+        }
+
+        @Override
+        public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+            return JsonApiAtomicResults.class.equals(clazz) && isAtomic(mediaType) && super.canWrite(clazz, mediaType);
+        }
+
+        private static boolean isAtomic(@Nullable MediaType mediaType) {
+            // Spring asks without a media type for the producible media types of a response
+            return mediaType == null || JsonApiAtomicOperations.isRequested(mediaType);
+        }
+    }
+}
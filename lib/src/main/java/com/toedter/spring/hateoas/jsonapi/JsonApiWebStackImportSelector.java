@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports the JSON:API configuration for Spring MVC and Spring WebFlux,
+ * depending on which web stack is on the classpath.
+ *
+ * @author Kai Toedter
+ */
+class JsonApiWebStackImportSelector implements ImportSelector {
+    private static final String WEB_MVC_DISPATCHER = "org.springframework.web.servlet.DispatcherServlet";
+    private static final String WEB_FLUX_DISPATCHER = "org.springframework.web.reactive.DispatcherHandler";
+
+    @Override
+    public String[] selectImports(AnnotationMetadata importingClassMetadata) {
+        ClassLoader classLoader = JsonApiWebStackImportSelector.class.getClassLoader();
+        List<String> imports = new ArrayList<>();
+
+        if (ClassUtils.isPresent(WEB_MVC_DISPATCHER, classLoader)) {
+            imports.add(JsonApiWebMvcConfiguration.class.getName());
+        }
+
+        if (ClassUtils.isPresent(WEB_FLUX_DISPATCHER, classLoader)) {
+            imports.add(JsonApiWebFluxConfiguration.class.getName());
+        }
+
+        return imports.toArray(new String[0]);
+    }
+}
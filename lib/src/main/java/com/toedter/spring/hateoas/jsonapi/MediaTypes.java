@@ -17,9 +17,14 @@
 package com.toedter.spring.hateoas.jsonapi;
 
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.util.Arrays;
 
 /**
- * Provides the {@literal JSON:API} media type {@code application/vnd.api+json}.
+ * Provides the {@literal JSON:API} media type {@code application/vnd.api+json}
+ * and its binary encodings {@code application/vnd.api+smile} and {@code application/vnd.api+cbor}.
  */
 public class MediaTypes {
 
@@ -32,4 +37,72 @@ public class MediaTypes {
 	 * Public constant media type for {@code application/vnd.api+json}.
 	 */
 	public static final MediaType JSON_API = MediaType.valueOf(JSON_API_VALUE);
+
+	/**
+	 * The URI of the columnar JSON:API extension, see {@link JsonApiColumnar}.
+	 */
+	public static final String COLUMNAR_EXTENSION = "https://toedter.github.io/spring-hateoas-jsonapi/ext/columnar";
+
+	/**
+	 * A String equivalent of the JSON:API media type with the columnar extension
+	 */
+	public static final String JSON_API_COLUMNAR_VALUE = JSON_API_VALUE + ";ext=\"" + COLUMNAR_EXTENSION + "\"";
+
+	/**
+	 * Public constant media type for {@code application/vnd.api+json} with the columnar extension.
+	 */
+	public static final MediaType JSON_API_COLUMNAR = MediaType.valueOf(JSON_API_COLUMNAR_VALUE);
+
+	/**
+	 * The URI of the JSON:API Atomic Operations extension, see {@link JsonApiAtomicOperations}.
+	 */
+	public static final String ATOMIC_EXTENSION = "https://jsonapi.org/ext/atomic";
+
+	/**
+	 * A String equivalent of the JSON:API media type with the Atomic Operations extension
+	 */
+	public static final String JSON_API_ATOMIC_VALUE = JSON_API_VALUE + ";ext=\"" + ATOMIC_EXTENSION + "\"";
+
+	/**
+	 * Public constant media type for {@code application/vnd.api+json} with the Atomic Operations extension.
+	 */
+	public static final MediaType JSON_API_ATOMIC = MediaType.valueOf(JSON_API_ATOMIC_VALUE);
+
+	/**
+	 * A String equivalent of the Smile encoded JSON:API media type
+	 */
+	public static final String JSON_API_SMILE_VALUE = "application/vnd.api+smile";
+
+	/**
+	 * Public constant media type for {@code application/vnd.api+smile}.
+	 */
+	public static final MediaType JSON_API_SMILE = MediaType.valueOf(JSON_API_SMILE_VALUE);
+
+	/**
+	 * A String equivalent of the CBOR encoded JSON:API media type
+	 */
+	public static final String JSON_API_CBOR_VALUE = "application/vnd.api+cbor";
+
+	/**
+	 * Public constant media type for {@code application/vnd.api+cbor}.
+	 */
+	public static final MediaType JSON_API_CBOR = MediaType.valueOf(JSON_API_CBOR_VALUE);
+
+	/**
+	 * Checks if the {@literal ext} parameter of the given media type, a space-separated list of extension URIs,
+	 * contains the given extension.
+	 */
+	static boolean isExtensionRequested(@Nullable MimeType mimeType, String extension) {
+		if (mimeType == null) {
+			return false;
+		}
+		String extensions = mimeType.getParameter("ext");
+		if (extensions == null) {
+			return false;
+		}
+		if (extensions.length() >= 2 && extensions.startsWith("\"") && extensions.endsWith("\"")) {
+			extensions = extensions.substring(1, extensions.length() - 1);
+		}
+		return Arrays.asList(extensions.split(" ")).contains(extension);
+	}
 }
@@ -17,21 +17,29 @@
 package com.toedter.spring.hateoas.jsonapi;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.toedter.spring.hateoas.jsonapi.support.*;
+import lombok.Data;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import org.junit.jupiter.api.*;
+import org.springframework.aop.TargetClassAware;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.hateoas.*;
+import org.springframework.http.MediaType;
 
 import javax.persistence.Id;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import java.lang.reflect.Proxy;
+import java.nio.LongBuffer;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 @DisplayName("Jackson2JsonApi Integration Test")
@@ -65,6 +73,142 @@ class Jackson2JsonApiIntegrationTest {
         compareWithFile(jsonMovie, "movieEntityModel.json");
     }
 
+    @Test
+    void should_serialize_raw_attributes_verbatim() throws Exception {
+        TokenBuffer tokenBuffer = new TokenBuffer(mapper, false);
+        tokenBuffer.writeStartArray();
+        tokenBuffer.writeNumber(1);
+        tokenBuffer.writeNumber(2);
+        tokenBuffer.writeEndArray();
+
+        @Getter
+        class Movie {
+            private final String id = "1";
+            @JsonApiRawAttribute
+            private final String settings = "{\"dark\": true}";
+            private final TokenBuffer ratings = tokenBuffer;
+        }
+
+        String jsonMovie = mapper.writeValueAsString(EntityModel.of(new Movie()));
+
+        assertThat(jsonMovie).isEqualTo("{\"data\":{\"id\":\"1\",\"type\":\"movies\","
+                + "\"attributes\":{\"settings\":{\"dark\": true},\"ratings\":[1,2]}}}");
+    }
+
+    @Test
+    void should_not_serialize_invalid_raw_attribute_if_validated() {
+        @Getter
+        class Movie {
+            private final String id = "1";
+            @JsonApiRawAttribute
+            private final String settings = "{\"dark\": ";
+        }
+
+        mapper = createObjectMapper(new JsonApiConfiguration().withRawAttributesValidated(true));
+
+        assertThatThrownBy(() -> mapper.writeValueAsString(EntityModel.of(new Movie())))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void should_fail_with_json_api_error_if_data_limit_is_exceeded() {
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxDataResources(1));
+        CollectionModel<Movie> collectionModel =
+                CollectionModel.of(Arrays.asList(new Movie("1", "Star Wars"), new Movie("2", "Avengers")));
+
+        assertThatThrownBy(() -> mapper.writeValueAsString(collectionModel))
+                .hasRootCauseInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> {
+                    JsonApiErrorException errorException = JsonApiErrorException.find(e);
+                    assertThat(errorException.getStatus()).isEqualTo(400);
+                    assertThat(errorException.getErrors().getErrors().get(0).getSource())
+                            .containsEntry("parameter", "page[size]");
+                });
+    }
+
+    @Test
+    void should_fail_before_converting_attributes_if_included_limit_is_exceeded() {
+        @Getter
+        class Movie {
+            private final String id = "1";
+
+            public String getTitle() {
+                throw new IllegalStateException("attributes must not be converted");
+            }
+        }
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxIncludedResources(1));
+        RepresentationModel<?> jsonApiModel = JsonApiModelBuilder.jsonApiModel()
+                .model(EntityModel.of(new Movie()))
+                .included(new Director("1", "Lana Wachowski"))
+                .included(new Director("2", "Lilly Wachowski"))
+                .build();
+
+        assertThatThrownBy(() -> mapper.writeValueAsString(jsonApiModel))
+                .hasRootCauseInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> {
+                    JsonApiErrorException errorException = JsonApiErrorException.find(e);
+                    assertThat(errorException.getStatus()).isEqualTo(400);
+                    assertThat(errorException.getErrors().getErrors().get(0).getSource())
+                            .containsEntry("parameter", "include");
+                });
+    }
+
+    @Test
+    void should_fail_with_json_api_error_if_estimated_size_is_exceeded() {
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxEstimatedDocumentBytes(10));
+
+        assertThatThrownBy(() -> mapper.writeValueAsString(EntityModel.of(new Movie("1", "Star Wars"))))
+                .hasRootCauseInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(JsonApiErrorException.find(e).getStatus()).isEqualTo(500));
+    }
+
+    @Test
+    void should_truncate_data_with_next_link_and_truncation_meta() throws Exception {
+        mapper = createObjectMapper(new JsonApiConfiguration()
+                .withMaxDataResources(2)
+                .withResponseTruncatedAtLimits(true));
+        CollectionModel<Movie> collectionModel = CollectionModel.of(
+                Arrays.asList(new Movie("1", "Star Wars"), new Movie("2", "Avengers"), new Movie("3", "Dune")),
+                Link.of("http://localhost/movies?filter[year]=1977"));
+
+        String json = mapper.writeValueAsString(collectionModel);
+
+        assertThat(json).isEqualTo("{\"data\":["
+                + "{\"id\":\"1\",\"type\":\"movies\",\"attributes\":{\"title\":\"Star Wars\"}},"
+                + "{\"id\":\"2\",\"type\":\"movies\",\"attributes\":{\"title\":\"Avengers\"}}],"
+                + "\"links\":{\"self\":\"http://localhost/movies?filter[year]=1977\","
+                + "\"next\":\"http://localhost/movies?filter[year]=1977&page[number]=1&page[size]=2\"},"
+                + "\"meta\":{\"truncation\":{\"limit\":\"maxDataResources\",\"data\":2,\"included\":0}}}");
+    }
+
+    @Test
+    void should_serialize_primitive_arrays_and_buffers() throws Exception {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setId("1");
+        telemetry.setSamples(new double[]{1.5, 2.5});
+        telemetry.setTimestamps(LongBuffer.wrap(new long[]{0, 10, 20, 30}, 1, 2));
+
+        String json = mapper.writeValueAsString(EntityModel.of(telemetry));
+
+        assertThat(json).isEqualTo("{\"data\":{\"id\":\"1\",\"type\":\"telemetries\","
+                + "\"attributes\":{\"samples\":[1.5,2.5],\"timestamps\":[10,20]}}}");
+    }
+
+    @Test
+    void should_deserialize_primitive_arrays_and_buffers() throws Exception {
+        String json = "{\"data\":{\"id\":\"1\",\"type\":\"telemetries\","
+                + "\"attributes\":{\"samples\":[1.5,2,3e2],\"timestamps\":[10,20]}}}";
+        JavaType telemetryEntityModelType =
+                mapper.getTypeFactory().constructParametricType(EntityModel.class, Telemetry.class);
+
+        EntityModel<Telemetry> entityModel = mapper.readValue(json, telemetryEntityModelType);
+
+        Telemetry telemetry = entityModel.getContent();
+        assertThat(telemetry.getId()).isEqualTo("1");
+        assertThat(telemetry.getSamples()).containsExactly(1.5, 2.0, 300.0);
+        assertThat(telemetry.getTimestamps().array()).containsExactly(10L, 20L);
+    }
+
     @Test
     void should_serialize_entity_model_with_annotated_jpa_id_method() throws Exception {
         class Movie {
@@ -229,6 +373,139 @@ class Jackson2JsonApiIntegrationTest {
         compareWithFile(moviesJson, "moviesCollectionModel.json");
     }
 
+    @Test
+    void should_serialize_movie_collection_model_with_columnar_extension() throws Exception {
+        EntityModel<Movie> movie1Model = EntityModel.of(new Movie("1", "Star Wars"));
+        movie1Model.add(Link.of("http://localhost/movies/1").withSelfRel());
+        EntityModel<Movie> movie2Model = EntityModel.of(new Movie("2", "Avengers"));
+        movie2Model.add(Link.of("http://localhost/movies/2").withSelfRel());
+
+        CollectionModel<EntityModel<Movie>> collectionModel = CollectionModel.of(Arrays.asList(movie1Model, movie2Model))
+                .add(Link.of("http://localhost/movies").withSelfRel());
+        String moviesJson = JsonApiColumnar.enable(mapper).writeValueAsString(collectionModel);
+
+        compareWithFile(moviesJson, "moviesCollectionModelColumnar.json");
+    }
+
+    @Test
+    void should_not_serialize_heterogeneous_collection_model_with_columnar_extension() {
+        CollectionModel<Object> collectionModel = CollectionModel.of(Arrays.asList(
+                JsonApiRow.of("movies", "1", Collections.singletonMap("title", "Star Wars")),
+                JsonApiRow.of("directors", "2", Collections.singletonMap("name", "George Lucas"))));
+
+        assertThatThrownBy(() -> JsonApiColumnar.enable(mapper).writeValueAsString(collectionModel))
+                .satisfies(e -> assertThat(JsonApiErrorException.find(e).getStatus()).isEqualTo(406));
+    }
+
+    @Test
+    void should_serialize_empty_collection_model_with_columnar_extension() throws Exception {
+        String json = JsonApiColumnar.enable(mapper).writeValueAsString(CollectionModel.empty());
+
+        assertThat(json).isEqualTo("{\"data\":[]}");
+    }
+
+    @Test
+    void should_detect_columnar_extension() {
+        assertThat(JsonApiColumnar.isRequested(MediaTypes.JSON_API_COLUMNAR)).isTrue();
+        assertThat(JsonApiColumnar.isRequested(MediaType.parseMediaType(
+                "application/vnd.api+json;ext=\"https://example.com/other "
+                        + MediaTypes.COLUMNAR_EXTENSION + "\""))).isTrue();
+        assertThat(JsonApiColumnar.isRequested(MediaType.parseMediaType(
+                "application/vnd.api+json;profile=\"" + MediaTypes.COLUMNAR_EXTENSION + "\""))).isFalse();
+        assertThat(JsonApiColumnar.isRequested(MediaTypes.JSON_API)).isFalse();
+        assertThat(JsonApiColumnar.isRequested(null)).isFalse();
+    }
+
+    @Test
+    void should_serialize_movie_collection_model_with_projections() throws Exception {
+        EntityModel<JsonApiRow> movie1Model = EntityModel.of(
+                JsonApiRow.of(Movie.class, 1L, Collections.singletonMap("title", "Star Wars")));
+        movie1Model.add(Link.of("http://localhost/movies/1").withSelfRel());
+        EntityModel<JsonApiRow> movie2Model = EntityModel.of(
+                JsonApiRow.of(Movie.class, 2L, Collections.singletonMap("title", "Avengers")));
+        movie2Model.add(Link.of("http://localhost/movies/2").withSelfRel());
+
+        CollectionModel<EntityModel<JsonApiRow>> collectionModel =
+                CollectionModel.of(Arrays.asList(movie1Model, movie2Model))
+                        .add(Link.of("http://localhost/movies").withSelfRel());
+        String moviesJson = mapper.writeValueAsString(collectionModel);
+
+        compareWithFile(moviesJson, "moviesCollectionModel.json");
+    }
+
+    @Test
+    void should_serialize_interface_projection() throws Exception {
+        MovieProjection projection = (MovieProjection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MovieProjection.class, TargetClassAware.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return "1";
+                        case "getTitle":
+                            return "Star Wars";
+                        case "getTargetClass":
+                            return Movie.class;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        String movieJson = mapper.writeValueAsString(EntityModel.of(projection));
+
+        compareWithFile(movieJson, "movieEntityModel.json");
+    }
+
+    @Test
+    void should_serialize_interface_projection_with_jackson_annotations() throws Exception {
+        AnnotatedMovieProjection projection = (AnnotatedMovieProjection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{AnnotatedMovieProjection.class, TargetClassAware.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return "1";
+                        case "getTitle":
+                            return "Star Wars";
+                        case "getImdbId":
+                            return "tt0076759";
+                        case "getTargetClass":
+                            return Movie.class;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        String movieJson = mapper.writeValueAsString(EntityModel.of(projection));
+
+        assertThat(movieJson).isEqualTo(
+                "{\"data\":{\"id\":\"1\",\"type\":\"movies\",\"attributes\":{\"name\":\"Star Wars\"}}}");
+    }
+
+    @Test
+    void should_serialize_class_proxy() throws Exception {
+        Movie target = new Movie("1", "Star Wars");
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(Movie.class);
+        enhancer.setCallback((MethodInterceptor) (object, method, args, methodProxy) -> method.invoke(target, args));
+        Movie lazyMovie = (Movie) enhancer.create();
+
+        String movieJson = mapper.writeValueAsString(EntityModel.of(lazyMovie));
+
+        compareWithFile(movieJson, "movieEntityModel.json");
+    }
+
+    @Test
+    void should_serialize_projection_with_configured_type() throws Exception {
+        mapper = createObjectMapper(new JsonApiConfiguration().withTypeForClass(Movie.class, "my-movies"));
+        JsonApiRow projection =
+                JsonApiRow.of(Movie.class, "1", Collections.singletonMap("title", "Star Wars"));
+
+        String movieJson = mapper.writeValueAsString(EntityModel.of(projection));
+
+        assertThat(movieJson).isEqualTo(
+                "{\"data\":{\"id\":\"1\",\"type\":\"my-movies\",\"attributes\":{\"title\":\"Star Wars\"}}}");
+    }
+
     @Test
     void should_serialize_movie_paged_model() throws Exception {
         Movie movie1 = new Movie("1", "Star Wars");
@@ -391,6 +668,204 @@ class Jackson2JsonApiIntegrationTest {
         assertThat(links.getLink("self").get().getHref()).isEqualTo("http://localhost/movies/7");
     }
 
+    @Test
+    void should_deserialize_movies_collection_model_with_columnar_extension() throws Exception {
+        JsonApiColumnar.enable(mapper);
+        JavaType moviesCollectionModelType =
+                mapper.getTypeFactory().constructParametricType(CollectionModel.class, Movie.class);
+        File file = new ClassPathResource("moviesCollectionModelColumnar.json", getClass()).getFile();
+        CollectionModel<Movie> movieCollectionModel = mapper.readValue(file, moviesCollectionModelType);
+
+        assertThat(movieCollectionModel.getContent())
+                .containsExactly(new Movie("1", "Star Wars"), new Movie("2", "Avengers"));
+        assertThat(movieCollectionModel.getLink("self").get().getHref()).isEqualTo("http://localhost/movies");
+    }
+
+    @Test
+    void should_not_deserialize_more_data_resources_than_allowed() throws Exception {
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxRequestDataResources(1));
+        JavaType moviesCollectionModelType =
+                mapper.getTypeFactory().constructParametricType(CollectionModel.class, Movie.class);
+        File file = new ClassPathResource("moviesCollectionModel.json", getClass()).getFile();
+
+        assertThatThrownBy(() -> mapper.readValue(file, moviesCollectionModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .satisfies(e -> {
+                    JsonApiErrorException errorException = JsonApiErrorException.find(e);
+                    assertThat(errorException.getStatus()).isEqualTo(413);
+                    assertThat(errorException.getErrors().getErrors().get(0).getSource())
+                            .containsEntry("pointer", "/data/1");
+                });
+    }
+
+    @Test
+    void should_not_deserialize_more_relationship_linkage_than_allowed() throws Exception {
+        JavaType movieEntityModelType =
+                mapper.getTypeFactory().constructParametricType(EntityModel.class, MovieWithDirectors.class);
+        File file = new ClassPathResource("postMovieWithTwoRelationships.json", getClass()).getFile();
+
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxRequestRelationshipLinkage(2));
+        EntityModel<MovieWithDirectors> movieEntityModel = mapper.readValue(file, movieEntityModelType);
+        assertThat(movieEntityModel.getContent().getDirectors()).hasSize(2);
+
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxRequestRelationshipLinkage(1));
+        assertThatThrownBy(() -> mapper.readValue(file, movieEntityModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .satisfies(e -> assertThat(JsonApiErrorException.find(e).getErrors().getErrors().get(0).getSource())
+                        .containsEntry("pointer", "/data/relationships/directors/data/1"));
+    }
+
+    @Test
+    void should_not_deserialize_too_deep_documents_and_too_long_strings() throws Exception {
+        JavaType movieEntityModelType = mapper.getTypeFactory().constructParametricType(EntityModel.class, Movie.class);
+        File file = new ClassPathResource("postMovie.json", getClass()).getFile();
+
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxRequestNestingDepth(2));
+        assertThatThrownBy(() -> mapper.readValue(file, movieEntityModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .hasMessageContaining("nested deeper than 2 levels");
+
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxRequestStringLength(5));
+        assertThatThrownBy(() -> mapper.readValue(file, movieEntityModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .hasMessageContaining("longer than 5 characters");
+
+        mapper = createObjectMapper(new JsonApiConfiguration().withMaxRequestStringLength(12));
+        assertThatThrownBy(() -> mapper.readValue(
+                "{\"data\":{\"attributes\":{\"veryLongMemberName\":\"x\"}}}", movieEntityModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .hasMessageContaining("member names must not be longer than 12 characters");
+    }
+
+    @Test
+    void should_deserialize_movies_collection_with_relationships_in_parallel() throws Exception {
+        mapper = createObjectMapper(new JsonApiConfiguration().withRequestParallelBindingThreshold(2));
+        JavaType moviesCollectionModelType =
+                mapper.getTypeFactory().constructParametricType(CollectionModel.class, MovieWithDirectors.class);
+        StringJoiner movies = new StringJoiner(",", "{\"data\":[", "]}");
+        for (int i = 0; i < 100; i++) {
+            movies.add(createMovieWithDirector(i, "{\"data\":[{\"id\":\"" + i + "\",\"type\":\"directors\"}]}"));
+        }
+
+        CollectionModel<MovieWithDirectors> movieCollectionModel =
+                mapper.readValue(movies.toString(), moviesCollectionModelType);
+
+        int i = 0;
+        for (MovieWithDirectors movie : movieCollectionModel.getContent()) {
+            assertThat(movie.getId()).isEqualTo(String.valueOf(i));
+            assertThat(movie.getDirectors()).extracting(Director::getId).containsExactly(String.valueOf(i));
+            i++;
+        }
+        assertThat(i).isEqualTo(100);
+    }
+
+    @Test
+    void should_report_collection_binding_errors_with_resource_pointers() {
+        JavaType moviesCollectionModelType =
+                mapper.getTypeFactory().constructParametricType(CollectionModel.class, MovieWithDirectors.class);
+        String movies = "{\"data\":["
+                + createMovieWithDirector(0, "{\"data\":\"1\"}") + ","
+                + createMovieWithDirector(1, "{\"data\":[]}") + ","
+                + createMovieWithDirector(2, "{\"data\":\"2\"}") + "]}";
+
+        assertThatThrownBy(() -> mapper.readValue(movies, moviesCollectionModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .satisfies(e -> assertThat(JsonApiErrorException.find(e).getErrors().getErrors())
+                        .extracting(error -> error.getSource().get("pointer"))
+                        .containsExactly("/data/0/relationships/directors", "/data/2/relationships/directors"));
+    }
+
+    @Test
+    void should_report_collection_binding_errors_with_attribute_pointers_and_causes() {
+        JavaType moviesCollectionModelType =
+                mapper.getTypeFactory().constructParametricType(CollectionModel.class, Movie.class);
+        String movies = "{\"data\":["
+                + "{\"id\":\"1\",\"type\":\"movies\",\"attributes\":{\"title\":\"Star Wars\"}},"
+                + "{\"id\":\"2\",\"type\":\"movies\",\"attributes\":{\"title\":[\"Avengers\"]}}]}";
+
+        assertThatThrownBy(() -> mapper.readValue(movies, moviesCollectionModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .satisfies(e -> {
+                    JsonApiError error = JsonApiErrorException.find(e).getErrors().getErrors().get(0);
+                    assertThat(error.getSource()).containsEntry("pointer", "/data/1/attributes/title");
+                    assertThat(error.getDetail()).startsWith("JSON:API resource 1 cannot be bound to Movie: ");
+                });
+    }
+
+    @Test
+    void should_report_collection_binding_errors_with_pointer_of_rejected_attribute() {
+        JavaType moviesCollectionModelType =
+                mapper.getTypeFactory().constructParametricType(CollectionModel.class, MovieWithYear.class);
+        String movies = "{\"data\":["
+                + "{\"id\":\"1\",\"type\":\"movies\",\"attributes\":{\"title\":\"Star Wars\",\"year\":1977}},"
+                + "{\"id\":\"2\",\"type\":\"movies\",\"attributes\":{\"title\":\"Avengers\",\"year\":1000}}]}";
+
+        assertThatThrownBy(() -> mapper.readValue(movies, moviesCollectionModelType))
+                .isInstanceOf(JsonMappingException.class)
+                .satisfies(e -> {
+                    JsonApiError error = JsonApiErrorException.find(e).getErrors().getErrors().get(0);
+                    assertThat(error.getSource()).containsEntry("pointer", "/data/1/attributes/year");
+                    assertThat(error.getDetail()).endsWith("year must not be before 1888");
+                });
+    }
+
+    @Test
+    void should_deserialize_atomic_operations() throws Exception {
+        File file = new ClassPathResource("postAtomicOperations.json", getClass()).getFile();
+        JsonApiAtomicOperations atomicOperations = mapper.readValue(file, JsonApiAtomicOperations.class);
+        List<JsonApiAtomicOperation> operations = atomicOperations.getOperations();
+
+        assertThat(operations).hasSize(3);
+        JsonApiAtomicOperation addMovie = operations.get(0);
+        assertThat(addMovie.getOp()).isEqualTo(JsonApiAtomicOperation.Op.ADD);
+        assertThat(addMovie.getType()).isEqualTo("movies");
+        assertThat(addMovie.getLid()).isEqualTo("new-movie");
+        MovieWithDirectors movie = addMovie.getResource(MovieWithDirectors.class);
+        assertThat(movie.getTitle()).isEqualTo("New Movie");
+        assertThat(movie.getDirectors()).extracting(Director::getId).containsExactly("1");
+        assertThat(operations.get(1).getRelationship()).isEqualTo("directors");
+        assertThat(operations.get(1).getRelatedIds()).containsExactly("2");
+        assertThat(operations.get(2).getOp()).isEqualTo(JsonApiAtomicOperation.Op.REMOVE);
+        assertThat(operations.get(2).getId()).isEqualTo("3");
+    }
+
+    @Test
+    void should_execute_atomic_operations_with_local_ids_in_transaction() throws Exception {
+        File file = new ClassPathResource("postAtomicOperations.json", getClass()).getFile();
+        JsonApiAtomicOperations atomicOperations = mapper.readValue(file, JsonApiAtomicOperations.class);
+        List<String> transactions = new ArrayList<>();
+        List<String> targetIds = new ArrayList<>();
+
+        JsonApiAtomicResults results = atomicOperations.execute(operation -> {
+            if (operation.getLid() != null) {
+                return new Movie("42", operation.getResource(Movie.class).getTitle());
+            }
+            targetIds.add(operation.getId());
+            return null;
+        }, operations -> {
+            transactions.add("begin");
+            JsonApiAtomicResults atomicResults = operations.get();
+            transactions.add("commit");
+            return atomicResults;
+        });
+
+        assertThat(transactions).containsExactly("begin", "commit");
+        assertThat(targetIds).containsExactly("42", "3");
+        assertThat(mapper.writeValueAsString(results)).isEqualTo("{\"atomic:results\":["
+                + "{\"data\":{\"id\":\"42\",\"type\":\"movies\",\"attributes\":{\"title\":\"New Movie\"}}},{},{}]}");
+    }
+
+    @Test
+    void should_not_execute_atomic_operations_with_unknown_local_id() throws Exception {
+        File file = new ClassPathResource("postAtomicOperations.json", getClass()).getFile();
+        JsonApiAtomicOperations atomicOperations = mapper.readValue(file, JsonApiAtomicOperations.class);
+
+        assertThatThrownBy(() -> atomicOperations.execute(operation -> null))
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(((JsonApiErrorException) e).getErrors().getErrors().get(0).getSource())
+                        .containsEntry("pointer", "/atomic:operations/1/ref/lid"));
+    }
+
     @Test
     void should_deserialize_movies_collection_model() throws Exception {
         JavaType moviesCollectionModelType =
@@ -531,6 +1006,11 @@ class Jackson2JsonApiIntegrationTest {
         assertThat(json).isEqualTo(jsonNode.toString());
     }
 
+    private static String createMovieWithDirector(int id, String directors) {
+        return "{\"id\":\"" + id + "\",\"type\":\"movies\",\"attributes\":{\"title\":\"Movie " + id + "\"},"
+                + "\"relationships\":{\"directors\":" + directors + "}}";
+    }
+
     private ObjectMapper createObjectMapper(JsonApiConfiguration jsonApiConfiguration) {
         JsonApiMediaTypeConfiguration configuration =
                 new JsonApiMediaTypeConfiguration(null, null);
@@ -538,4 +1018,43 @@ class Jackson2JsonApiIntegrationTest {
         configuration.configureObjectMapper(mapper, jsonApiConfiguration);
         return mapper;
     }
+
+    public interface MovieProjection {
+        String getId();
+
+        String getTitle();
+    }
+
+    public interface AnnotatedMovieProjection {
+        String getId();
+
+        @JsonProperty("name")
+        String getTitle();
+
+        @JsonIgnore
+        String getImdbId();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class MovieWithYear {
+        private String id;
+        private String title;
+        private int year;
+
+        public void setYear(int year) {
+            if (year < 1888) {
+                throw new IllegalArgumentException("year must not be before 1888");
+            }
+            this.year = year;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Telemetry {
+        private String id;
+        private double[] samples;
+        private LongBuffer timestamps;
+    }
 }
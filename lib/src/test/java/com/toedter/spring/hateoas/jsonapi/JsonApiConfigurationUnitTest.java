@@ -22,6 +22,9 @@ import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
@@ -32,6 +35,13 @@ class JsonApiConfigurationUnitTest {
         assertThat(new JsonApiConfiguration().isPluralizedTypeRendered()).isTrue();
         assertThat(new JsonApiConfiguration().isJsonApiVersionRendered()).isFalse();
         assertThat(new JsonApiConfiguration().isPageMetaAutomaticallyCreated()).isTrue();
+        assertThat(new JsonApiConfiguration().isRawAttributesValidated()).isFalse();
+        assertThat(new JsonApiConfiguration().getMaxDataResources()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(new JsonApiConfiguration().getMaxIncludedResources()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(new JsonApiConfiguration().getMaxEstimatedDocumentBytes()).isEqualTo(Long.MAX_VALUE);
+        assertThat(new JsonApiConfiguration().isResponseTruncatedAtLimits()).isFalse();
+        assertThat(new JsonApiConfiguration().getRequestParallelBindingThreshold()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(new JsonApiConfiguration().getRequestBindingExecutor()).isSameAs(ForkJoinPool.commonPool());
     }
 
     @Test
@@ -50,6 +60,59 @@ class JsonApiConfigurationUnitTest {
                 .isPageMetaAutomaticallyCreated()).isFalse();
     }
 
+    @Test
+    void should_set_raw_attributes_validated() {
+        assertThat(new JsonApiConfiguration().withRawAttributesValidated(true).isRawAttributesValidated()).isTrue();
+    }
+
+    @Test
+    void should_set_response_limits() {
+        JsonApiConfiguration configuration = new JsonApiConfiguration()
+                .withMaxDataResources(100)
+                .withMaxIncludedResources(200)
+                .withMaxEstimatedDocumentBytes(1_000_000)
+                .withResponseTruncatedAtLimits(true);
+
+        assertThat(configuration.getMaxDataResources()).isEqualTo(100);
+        assertThat(configuration.getMaxIncludedResources()).isEqualTo(200);
+        assertThat(configuration.getMaxEstimatedDocumentBytes()).isEqualTo(1_000_000);
+        assertThat(configuration.isResponseTruncatedAtLimits()).isTrue();
+    }
+
+    @Test
+    void should_set_request_limits() {
+        JsonApiConfiguration configuration = new JsonApiConfiguration()
+                .withMaxRequestDataResources(100)
+                .withMaxRequestIncludedResources(200)
+                .withMaxRequestNestingDepth(10)
+                .withMaxRequestStringLength(10_000)
+                .withMaxRequestRelationshipLinkage(1000)
+                .withMaxRequestDocumentBytes(1_000_000);
+
+        assertThat(new JsonApiConfiguration().isRequestLimited()).isFalse();
+        assertThat(new JsonApiConfiguration().getMaxRequestDocumentBytes()).isEqualTo(Long.MAX_VALUE);
+        assertThat(configuration.isRequestLimited()).isTrue();
+        assertThat(configuration.getMaxRequestDataResources()).isEqualTo(100);
+        assertThat(configuration.getMaxRequestIncludedResources()).isEqualTo(200);
+        assertThat(configuration.getMaxRequestNestingDepth()).isEqualTo(10);
+        assertThat(configuration.getMaxRequestStringLength()).isEqualTo(10_000);
+        assertThat(configuration.getMaxRequestRelationshipLinkage()).isEqualTo(1000);
+        assertThat(configuration.getMaxRequestDocumentBytes()).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void should_set_request_parallel_binding_threshold() {
+        assertThat(new JsonApiConfiguration().withRequestParallelBindingThreshold(1000)
+                .getRequestParallelBindingThreshold()).isEqualTo(1000);
+    }
+
+    @Test
+    void should_set_request_binding_executor() {
+        Executor executor = Runnable::run;
+        assertThat(new JsonApiConfiguration().withRequestBindingExecutor(executor)
+                .getRequestBindingExecutor()).isSameAs(executor);
+    }
+
     @Test
     void should_set_type_for_class() {
         assertThat(new JsonApiConfiguration().withTypeForClass(Movie.class, "mymovies")
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toedter.spring.hateoas.jsonapi.support.Movie;
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApiEvents Unit Test")
+class JsonApiEventsUnitTest {
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUpModule() {
+        JsonApiMediaTypeConfiguration configuration = new JsonApiMediaTypeConfiguration(null, null);
+        mapper = new ObjectMapper();
+        configuration.configureObjectMapper(mapper, new JsonApiConfiguration());
+    }
+
+    @Test
+    void should_record_serialization_event() throws Exception {
+        List<RecordedEvent> events = record(JsonApiEvents.Serialization.class, () ->
+                mapper.writeValueAsString(CollectionModel.of(Arrays.asList(
+                        new Movie("1", "Star Wars"), new Movie("2", "Avengers")))));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("resourceType")).isEqualTo("movies");
+        assertThat(events.get(0).getInt("resourceCount")).isEqualTo(2);
+        assertThat(events.get(0).getInt("includedCount")).isEqualTo(0);
+    }
+
+    @Test
+    void should_record_deserialization_event() throws Exception {
+        String json = "{\"data\":{\"id\":\"1\",\"type\":\"movies\",\"attributes\":{\"title\":\"Star Wars\"}}}";
+        JavaType movieEntityModelType =
+                mapper.getTypeFactory().constructParametricType(EntityModel.class, Movie.class);
+
+        List<RecordedEvent> events = record(JsonApiEvents.Deserialization.class, () ->
+                mapper.readValue(json.getBytes(), movieEntityModelType));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("resourceType")).isEqualTo("movies");
+        assertThat(events.get(0).getInt("resourceCount")).isEqualTo(1);
+        assertThat(events.get(0).getLong("bytes")).isEqualTo(json.length());
+    }
+
+    @Test
+    void should_not_create_event_without_recording() {
+        assertThat(JsonApiEvents.beginResourceFieldResolution()).isNull();
+        assertThat(JsonApiEvents.beginAttributesConversion()).isNull();
+    }
+
+    @Test
+    void should_record_resource_field_resolution_event() throws Exception {
+        List<RecordedEvent> events = record(JsonApiEvents.ResourceFieldResolution.class, () ->
+                JsonApiResource.getId(new Movie("1", "Star Wars"), new JsonApiConfiguration()));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("field")).isEqualTo("id");
+        assertThat(events.get(0).getString("resourceClass")).isEqualTo(Movie.class.getName());
+    }
+
+    private List<RecordedEvent> record(Class<? extends Event> eventClass, Action action) throws Exception {
+        Path file = Files.createTempFile("jsonapi", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventClass).withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(eventClass.getAnnotation(Name.class).value()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApiIncludePolicy Unit Test")
+class JsonApiIncludePolicyUnitTest {
+    @Test
+    void should_estimate_included_resources_of_allowed_includes() {
+        JsonApiIncludePolicy policy = JsonApiIncludePolicy.of("movies")
+                .relationship("movies", "directors", "directors", 3)
+                .relationship("directors", "movies", "movies", 50);
+
+        long includedResources = policy.validate(JsonApiQuery.parse("include=directors.movies,directors"), 10);
+
+        assertThat(includedResources).isEqualTo(10 * 3 + 10 * 3 * 50);
+        assertThat(policy.validate(JsonApiQuery.parse(""), 10)).isZero();
+    }
+
+    @Test
+    void should_reject_unsupported_deep_and_expensive_includes() {
+        JsonApiIncludePolicy policy = JsonApiIncludePolicy.of("movies")
+                .relationship("movies", "directors", "directors", 3)
+                .relationship("directors", "movies", "movies", 50)
+                .withMaxDepth(2);
+
+        assertThatThrownBy(() -> policy.validate(JsonApiQuery.parse("include=directors.awards"), 10))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("directors.awards is not supported");
+        assertThatThrownBy(() -> policy.validate(JsonApiQuery.parse("include=directors.movies.directors"), 10))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("more than 2 relationships");
+        assertThatThrownBy(() -> policy.withMaxPathFanOut(100)
+                .validate(JsonApiQuery.parse("include=directors.movies"), 10))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("directors.movies can relate to more than 100 resources");
+        assertThatThrownBy(() -> policy.withMaxIncludedResources(1000)
+                .validate(JsonApiQuery.parse("include=directors.movies"), 10))
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(((JsonApiErrorException) e).getErrors().getErrors().get(0).getSource())
+                        .containsEntry("parameter", "include"));
+    }
+}
@@ -17,13 +17,20 @@
 package com.toedter.spring.hateoas.jsonapi;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.Getter;
 import org.junit.jupiter.api.*;
+import org.springframework.hateoas.EntityModel;
 import org.springframework.http.MediaType;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -60,4 +67,51 @@ class JsonApiMediaTypeConfigurationUnitTest {
                 contains("com.toedter.spring.hateoas.jsonapi.Jackson2JsonApiModule")).isTrue();
     }
 
+    @Test
+    public void should_create_binary_object_mappers() {
+        Map<MediaType, ObjectMapper> objectMappers = JsonApiBinaryFormats.createObjectMappers(
+                objectMapper -> configuration.configureObjectMapper(objectMapper, new JsonApiConfiguration()));
+
+        assertThat(objectMappers.keySet()).containsExactly(MediaTypes.JSON_API_SMILE, MediaTypes.JSON_API_CBOR);
+        assertThat(objectMappers.get(MediaTypes.JSON_API_SMILE).getFactory()).isInstanceOf(SmileFactory.class);
+        assertThat(((SmileFactory) objectMappers.get(MediaTypes.JSON_API_SMILE).getFactory())
+                .isEnabled(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)).isTrue();
+        assertThat(objectMappers.get(MediaTypes.JSON_API_CBOR).getFactory()).isInstanceOf(CBORFactory.class);
+        assertThat(objectMappers.get(MediaTypes.JSON_API_CBOR).getRegisteredModuleIds()
+                .contains("com.toedter.spring.hateoas.jsonapi.Jackson2JsonApiModule")).isTrue();
+    }
+
+    @Test
+    public void should_serialize_raw_attribute_with_smile() throws Exception {
+        JsonNode attributes = serializeAttributes(MediaTypes.JSON_API_SMILE, new MovieWithRawAttribute());
+
+        assertThat(attributes.get("title").asText()).isEqualTo("Star Wars");
+        assertThat(attributes.get("settings").get("dark").asBoolean()).isTrue();
+        assertThat(attributes.get("settings").get("ratings").get(1).asInt()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_serialize_raw_attribute_with_cbor() throws Exception {
+        JsonNode attributes = serializeAttributes(MediaTypes.JSON_API_CBOR, new MovieWithRawAttribute());
+
+        assertThat(attributes.get("title").asText()).isEqualTo("Star Wars");
+        assertThat(attributes.get("settings").get("dark").asBoolean()).isTrue();
+        assertThat(attributes.get("settings").get("ratings").get(1).asInt()).isEqualTo(2);
+    }
+
+    private JsonNode serializeAttributes(MediaType mediaType, Object entity) throws Exception {
+        ObjectMapper objectMapper = JsonApiBinaryFormats.createObjectMappers(
+                mapper -> configuration.configureObjectMapper(mapper, new JsonApiConfiguration())).get(mediaType);
+
+        byte[] document = objectMapper.writeValueAsBytes(EntityModel.of(entity));
+        return objectMapper.readTree(document).get("data").get("attributes");
+    }
+
+    @Getter
+    static class MovieWithRawAttribute {
+        private final String id = "1";
+        private final String title = "Star Wars";
+        @JsonApiRawAttribute
+        private final String settings = "{\"dark\": true, \"ratings\": [1, 2]}";
+    }
 }
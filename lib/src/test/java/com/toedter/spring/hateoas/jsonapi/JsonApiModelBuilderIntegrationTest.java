@@ -20,14 +20,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.toedter.spring.hateoas.jsonapi.support.Director;
 import com.toedter.spring.hateoas.jsonapi.support.Movie;
 import org.junit.jupiter.api.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.*;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder.jsonApiModel;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
@@ -90,6 +105,36 @@ class JsonApiModelBuilderIntegrationTest extends AbstractJsonApiTest {
     }
 
 
+    @Test
+    void should_build_movie_model_of_attribute_map() throws Exception {
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel().model("movies", 1, Collections.singletonMap("title", "Star Wars")).build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+        compareWithFile(movieJson, "movieEntityModel.json");
+    }
+
+    @Test
+    void should_build_movies_collection_model_of_rows() throws Exception {
+        List<String> columns = Collections.singletonList("title");
+        List<Object[]> rows = Arrays.asList(new Object[]{"Star Wars"}, new Object[]{"Avengers"});
+
+        List<EntityModel<JsonApiRow>> movies = new ArrayList<>();
+        for (int id = 1; id <= rows.size(); id++) {
+            movies.add(EntityModel.of(JsonApiRow.of("movies", id, columns, rows.get(id - 1)))
+                    .add(Link.of("http://localhost/movies/" + id).withSelfRel()));
+        }
+
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel()
+                        .model(CollectionModel.of(movies))
+                        .link(Link.of("http://localhost/movies").withSelfRel())
+                        .build();
+
+        final String moviesJson = mapper.writeValueAsString(jsonApiModel);
+        compareWithFile(moviesJson, "moviesCollectionModel.json");
+    }
+
     @Test
     void should_build_single_movie_entity_model() throws Exception {
         Movie movie = new Movie("1", "Star Wars");
@@ -115,6 +160,130 @@ class JsonApiModelBuilderIntegrationTest extends AbstractJsonApiTest {
         compareWithFile(movieJson, "movieJsonApiModelWithRelationship.json");
     }
 
+    @Test
+    void should_build_single_movie_model_with_resource_template() throws Exception {
+        JsonApiResourceTemplate movieTemplate = JsonApiResourceTemplate.of("/movies/{id}", new JsonApiConfiguration())
+                .relationship("directors")
+                .withBaseUri("http://localhost/");
+        Movie movie = new Movie("1", "Star Wars");
+        Director director = new Director("1", "George Lucas");
+
+        final RepresentationModel<?> jsonApiModel =
+                movieTemplate.builder(movie)
+                        .relationship("directors", director)
+                        .build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+        assertThat(movieJson).isEqualTo("{\"data\":{\"id\":\"1\",\"type\":\"movies\","
+                + "\"attributes\":{\"title\":\"Star Wars\"},"
+                + "\"relationships\":{\"directors\":{\"data\":{\"id\":\"1\",\"type\":\"directors\"},"
+                + "\"links\":{\"self\":\"http://localhost/movies/1/relationships/directors\","
+                + "\"related\":\"http://localhost/movies/1/directors\"}}}},"
+                + "\"links\":{\"self\":\"http://localhost/movies/1\"}}");
+    }
+
+    @Test
+    void should_expand_all_id_placeholders_of_resource_template() {
+        JsonApiResourceTemplate template = JsonApiResourceTemplate.of("/movies/{id}")
+                .relationship("related", null, "/movies?filter[related]={id}&exclude={id}");
+
+        assertThat(template.selfLink("a b").getHref()).isEqualTo("/movies/a%20b");
+        JsonApiModel jsonApiModel = (JsonApiModel) template.builder(new Movie("7", "Star Wars"), "7").build();
+        assertThat(jsonApiModel.getRelationships().get("related").getLinks().getRequiredLink("related").getHref())
+                .isEqualTo("/movies?filter[related]=7&exclude=7");
+        assertThatThrownBy(() -> JsonApiResourceTemplate.of("/movies"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonApiResourceTemplate.of("/movies/{id}", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_build_single_movie_model_with_lazy_relationship() throws Exception {
+        Movie movie = new Movie("1", "Star Wars");
+        Director director = new Director("1", "George Lucas");
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel()
+                        .model(movie)
+                        .relationship("directors", () -> director)
+                        .build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+        compareWithFile(movieJson, "movieJsonApiModelWithRelationship.json");
+    }
+
+    @Test
+    void should_not_evaluate_lazy_relationships_and_included_if_not_requested() throws Exception {
+        Movie movie = new Movie("1", "Star Wars");
+        Director director = new Director("1", "George Lucas");
+        List<String> evaluated = new ArrayList<>();
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel()
+                        .model(movie)
+                        .relationship("directors", () -> {
+                            evaluated.add("directors");
+                            return director;
+                        })
+                        .relationshipMeta("directors", () -> {
+                            evaluated.add("directors meta");
+                            return Collections.singletonMap("count", 1);
+                        })
+                        .included("directors", () -> {
+                            evaluated.add("included directors");
+                            return director;
+                        })
+                        .query(JsonApiQuery.parse("fields%5Bmovies%5D=title"))
+                        .build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+
+        assertThat(movieJson).isEqualTo(
+                "{\"data\":{\"id\":\"1\",\"type\":\"movies\",\"attributes\":{\"title\":\"Star Wars\"}}}");
+        assertThat(evaluated).isEmpty();
+    }
+
+    @Test
+    void should_evaluate_lazy_relationships_and_included_if_requested() throws Exception {
+        Movie movie = new Movie("1", "Star Wars");
+        Director director = new Director("1", "George Lucas");
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel()
+                        .model(movie)
+                        .relationship("directors", () -> Collections.singletonList(director))
+                        .relationshipMeta("directors", () -> Collections.singletonMap("count", 1))
+                        .included("directors", () -> EntityModel.of(director))
+                        .query(JsonApiQuery.parse("fields%5Bmovies%5D=title,directors&include=directors"))
+                        .build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+
+        assertThat(movieJson).isEqualTo("{\"data\":{\"id\":\"1\",\"type\":\"movies\","
+                + "\"attributes\":{\"title\":\"Star Wars\"},"
+                + "\"relationships\":{\"directors\":{\"data\":[{\"id\":\"1\",\"type\":\"directors\"}],"
+                + "\"meta\":{\"count\":1}}}},"
+                + "\"included\":[{\"id\":\"1\",\"type\":\"directors\",\"attributes\":{\"name\":\"George Lucas\"}}]}");
+    }
+
+    @Test
+    void should_evaluate_lazy_included_only_once() throws Exception {
+        Movie movie = new Movie("1", "Star Wars");
+        Director director = new Director("1", "George Lucas");
+        List<String> evaluated = new ArrayList<>();
+        final JsonApiModel jsonApiModel = (JsonApiModel)
+                jsonApiModel()
+                        .model(movie)
+                        .included("directors", () -> {
+                            evaluated.add("included directors");
+                            return director;
+                        })
+                        .query(JsonApiQuery.parse("include=directors"))
+                        .build();
+
+        assertThat(jsonApiModel.getIncludedEntities()).hasSize(1);
+        mapper.writeValueAsString(jsonApiModel);
+
+        assertThat(evaluated).containsExactly("included directors");
+    }
+
     @Test
     void should_build_single_movie_model_with_relationship_and_links() throws Exception {
         Movie movie = new Movie("1", "Star Wars");
@@ -234,6 +403,141 @@ class JsonApiModelBuilderIntegrationTest extends AbstractJsonApiTest {
         compareWithFile(movieJson, "movieJsonApiModelWithManyRelationshipsAndIncluded.json");
     }
 
+    @Test
+    void should_build_single_movie_model_with_included_models_and_collections_as_objects() throws Exception {
+        Movie movie = new Movie("1", "The Matrix");
+        Movie relatedMovie = new Movie("2", "The Matrix 2");
+        Director director1 = new Director("1", "Lana Wachowski");
+        Director director2 = new Director("2", "Lilly Wachowski");
+        Object includedModel = EntityModel.of(director1);
+        Object includedCollection = Collections.singletonList(director2);
+
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel()
+                        .model(movie)
+                        .relationship("directors", director1)
+                        .relationship("directors", director2)
+                        .relationship("relatedMovies", relatedMovie)
+                        .included(includedModel)
+                        .included(includedCollection)
+                        .build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+        compareWithFile(movieJson, "movieJsonApiModelWithManyRelationshipsAndIncluded.json");
+    }
+
+    @Test
+    void should_build_single_movie_model_with_async_relationships_and_included() throws Exception {
+        Movie movie = new Movie("1", "The Matrix");
+        Movie relatedMovie = new Movie("2", "The Matrix 2");
+        Director director1 = new Director("1", "Lana Wachowski");
+        Director director2 = new Director("2", "Lilly Wachowski");
+        CompletableFuture<List<Director>> directors = new CompletableFuture<>();
+        CompletableFuture<Movie> relatedMovies = new CompletableFuture<>();
+
+        final CompletionStage<RepresentationModel<?>> jsonApiModel =
+                jsonApiModel()
+                        .model(movie)
+                        .async()
+                        .relationship("directors", directors)
+                        .relationship("relatedMovies", relatedMovies)
+                        .included(directors)
+                        .build();
+
+        relatedMovies.complete(relatedMovie);
+        assertThat(jsonApiModel.toCompletableFuture()).isNotDone();
+        directors.complete(Arrays.asList(director1, director2));
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel.toCompletableFuture().get());
+        compareWithFile(movieJson, "movieJsonApiModelWithManyRelationshipsAndIncluded.json");
+    }
+
+    @Test
+    void should_build_single_movie_model_with_reactive_relationships_and_included() throws Exception {
+        Movie movie = new Movie("1", "The Matrix");
+        Movie relatedMovie = new Movie("2", "The Matrix 2");
+        Director director1 = new Director("1", "Lana Wachowski");
+        Director director2 = new Director("2", "Lilly Wachowski");
+        AtomicInteger directorLookups = new AtomicInteger();
+        // the directors are used for the relationship and the included resources, so they are looked up once
+        Flux<Director> directors = Flux.just(director1, director2)
+                .delayElements(Duration.ofMillis(10))
+                .doOnSubscribe(subscription -> directorLookups.incrementAndGet())
+                .cache();
+
+        final RepresentationModel<?> jsonApiModel =
+                jsonApiModel()
+                        .model(movie)
+                        .reactive()
+                        .relationship("directors", directors)
+                        .relationship("relatedMovies", Mono.just(relatedMovie))
+                        .relationship("genres", Mono.empty())
+                        .included(directors)
+                        .build()
+                        .block();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+        compareWithFile(movieJson, "movieJsonApiModelWithManyRelationshipsAndIncluded.json");
+        assertThat(directorLookups).hasValue(1);
+    }
+
+    @Test
+    void should_build_single_movie_model_with_batch_loaded_included() throws Exception {
+        Movie movie = new Movie("1", "The Matrix");
+        Movie relatedMovie = new Movie("2", "The Matrix 2");
+        Director director1 = new Director("1", "Lana Wachowski");
+        Director director2 = new Director("2", "Lilly Wachowski");
+        Map<String, Director> directorRepository = new HashMap<>();
+        directorRepository.put("1", director1);
+        directorRepository.put("2", director2);
+        List<Collection<String>> loaderCalls = new ArrayList<>();
+
+        JsonApiIncludedLoader includedLoader = JsonApiIncludedLoader.includedLoader()
+                .loader("directors", (Collection<String> ids) -> {
+                    loaderCalls.add(new ArrayList<>(ids));
+                    return ids.stream().map(directorRepository::get).collect(Collectors.toList());
+                });
+
+        final JsonApiModelBuilder builder =
+                jsonApiModel()
+                        .model(movie)
+                        .relationship("directors", director1)
+                        .relationship("directors", director2)
+                        .relationship("relatedMovies", relatedMovie)
+                        .included(includedLoader);
+        includedLoader.need("directors", "1").need("directors", Arrays.asList("2", "1"));
+        final RepresentationModel<?> jsonApiModel = builder.build();
+
+        final String movieJson = mapper.writeValueAsString(jsonApiModel);
+        compareWithFile(movieJson, "movieJsonApiModelWithManyRelationshipsAndIncluded.json");
+        assertThat(loaderCalls).containsExactly(Arrays.asList("1", "2"));
+    }
+
+    @Test
+    void should_return_only_resources_loaded_by_each_call() {
+        JsonApiIncludedLoader includedLoader = JsonApiIncludedLoader.includedLoader()
+                .loader("directors", (Collection<String> ids) ->
+                        ids.stream().map(id -> new Director(id, "Director " + id)).collect(Collectors.toList()))
+                .need("directors", "1");
+
+        assertThat(includedLoader.load()).extracting(director -> ((Director) director).getId()).containsExactly("1");
+
+        includedLoader.need("directors", Arrays.asList("1", "2"));
+
+        assertThat(includedLoader.load()).extracting(director -> ((Director) director).getId()).containsExactly("2");
+        assertThat(includedLoader.load()).isEmpty();
+    }
+
+    @Test
+    void should_not_build_model_with_included_without_loader() {
+        JsonApiIncludedLoader includedLoader = JsonApiIncludedLoader.includedLoader().need("directors", "1");
+
+        assertThrows(IllegalStateException.class, () -> jsonApiModel()
+                .model(new Movie("1", "The Matrix"))
+                .included(includedLoader)
+                .build());
+    }
+
     @Test
     void should_build_paged_movie_model_with_many_relationships_and_included() throws Exception {
         // tag::complex-paged-model[]
@@ -282,6 +586,221 @@ class JsonApiModelBuilderIntegrationTest extends AbstractJsonApiTest {
         compareWithFile(pagedModelJson, "moviesPagedJsonApiModelWithIncluded.json");
     }
 
+    @Test
+    void should_build_sliced_movie_model_without_totals() throws Exception {
+        List<Movie> movies = Arrays.asList(new Movie("3", "Star Wars"), new Movie("4", "Avengers"));
+        Slice<Movie> slice = new SliceImpl<>(movies, PageRequest.of(1, 2), true);
+
+        RepresentationModel<?> slicedModel =
+                jsonApiModel()
+                        .model(CollectionModel.of(slice.getContent()))
+                        .meta("page", JsonApiSlices.meta(slice))
+                        .links(JsonApiSlices.links("http://localhost/movies", slice))
+                        .build();
+
+        final String slicedModelJson = mapper.writeValueAsString(slicedModel);
+        compareWithFile(slicedModelJson, "moviesSlicedModel.json");
+    }
+
+    @Test
+    void should_build_page_of_entities_with_resource_template() throws Exception {
+        JsonApiResourceTemplate movieTemplate = JsonApiResourceTemplate.of("/movies/{id}")
+                .relationship("directors")
+                .withBaseUri("http://localhost");
+        Page<Movie> page = new PageImpl<>(
+                Arrays.asList(new Movie("3", "Star Wars"), new Movie("4", "Avengers")), PageRequest.of(1, 2), 6);
+
+        RepresentationModel<?> pageModel =
+                JsonApiSlices.page(page, movieTemplate, "http://localhost/movies").build();
+
+        final String pageModelJson = mapper.writeValueAsString(pageModel);
+        compareWithFile(pageModelJson, "moviesPageWithResourceTemplate.json");
+    }
+
+    @Test
+    void should_build_slice_of_entities_without_overriding_entity_model_links() throws Exception {
+        JsonApiResourceTemplate movieTemplate = JsonApiResourceTemplate.of("/movies/{id}");
+        Slice<EntityModel<Movie>> slice = new SliceImpl<>(
+                Collections.singletonList(EntityModel.of(new Movie("3", "Star Wars"), Link.of("/films/3"))),
+                PageRequest.of(0, 2), false);
+
+        RepresentationModel<?> sliceModel =
+                JsonApiSlices.page(slice, movieTemplate, "http://localhost/movies").build();
+
+        final String sliceModelJson = mapper.writeValueAsString(sliceModel);
+        assertThat(sliceModelJson).contains("\"links\":{\"self\":\"/films/3\"}")
+                .doesNotContain("/movies/3")
+                .contains("\"page\":{\"number\":0,\"size\":2}");
+    }
+
+    @Test
+    void should_build_sliced_movie_model_with_cached_totals() {
+        Slice<Movie> slice = new SliceImpl<>(
+                Arrays.asList(new Movie("3", "Star Wars"), new Movie("4", "Avengers")), PageRequest.of(1, 2), true);
+        JsonApiCountCache countCache = JsonApiCountCache.of(Duration.ofMinutes(1));
+        List<String> countQueries = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            long totalElements = countCache.count("filter[year]=1977", () -> {
+                countQueries.add("count");
+                return 5;
+            });
+            JsonApiModel slicedModel = (JsonApiModel) jsonApiModel()
+                    .model(CollectionModel.of(slice.getContent()))
+                    .meta("page", JsonApiSlices.meta(slice, totalElements))
+                    .build();
+
+            assertThat((Map<?, ?>) slicedModel.getMetaData().get("page"))
+                    .containsEntry("totalElements", 5L)
+                    .containsEntry("totalPages", 3L);
+        }
+        assertThat(countQueries).hasSize(1);
+
+        countCache.clear();
+        countCache.count("filter[year]=1977", () -> {
+            countQueries.add("count");
+            return 5;
+        });
+        assertThat(countQueries).hasSize(2);
+    }
+
+    @Test
+    void should_build_cursor_paged_movie_model() throws Exception {
+        List<Movie> movies = Arrays.asList(new Movie("3", "Star Wars"), new Movie("4", "Avengers"));
+        Sort sort = Sort.by("id");
+        JsonApiCursorPage<Movie> page = JsonApiCursorPage.of(movies, 2,
+                JsonApiCursor.of(movies.get(0), sort), JsonApiCursor.of(movies.get(1), sort));
+
+        RepresentationModel<?> cursorPagedModel =
+                jsonApiModel()
+                        .model(CollectionModel.of(page.getContent()))
+                        .cursorPageMeta(page)
+                        .cursorPageLinks("http://localhost/movies", page)
+                        .build();
+
+        final String cursorPagedModelJson = mapper.writeValueAsString(cursorPagedModel);
+        compareWithFile(cursorPagedModelJson, "moviesCursorPagedModel.json");
+    }
+
+    @Test
+    void should_build_paged_movie_model_of_collection_with_merged_included() throws Exception {
+        Movie movie = new Movie("1", "The Matrix");
+        Movie relatedMovie = new Movie("2", "The Matrix 2");
+        Director director1 = new Director("1", "Lana Wachowski");
+        Director director2 = new Director("2", "Lilly Wachowski");
+        Movie movie2 = new Movie("3", "Star Wars");
+        Director director3 = new Director("3", "George Lucas");
+
+        Map<String, List<Director>> directors = new HashMap<>();
+        directors.put(movie.getId(), Arrays.asList(director1, director2));
+        directors.put(movie2.getId(), Arrays.asList(director3, director1));
+
+        PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(2, 1, 100, 50);
+        RepresentationModel<?> pagedJasonApiModel =
+                JsonApiModelBuilder.collection(Arrays.asList(movie, movie2), m -> {
+                    JsonApiModelBuilder builder = jsonApiModel().model(m);
+                    if (m == movie) {
+                        builder.relationship("directors", director1)
+                                .relationship("directors", director2)
+                                .relationship("relatedMovies", EntityModel.of(relatedMovie));
+                    } else {
+                        builder.relationship("directors", director3);
+                    }
+                    directors.get(m.getId()).forEach(builder::included);
+                    return builder.build();
+                }, pageMetadata)
+                        .link(Link.of("http://localhost/movies").withSelfRel())
+                        .pageMeta()
+                        .pageLinks("http://localhost/movies")
+                        .build();
+
+        final String pagedModelJson = mapper.writeValueAsString(pagedJasonApiModel);
+        compareWithFile(pagedModelJson, "moviesPagedJsonApiModelWithIncluded.json");
+    }
+
+    @Test
+    void should_build_large_collection_in_parallel_preserving_order() {
+        Director director = new Director("1", "George Lucas");
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            movies.add(new Movie(String.valueOf(i), "Movie " + i));
+        }
+        Set<String> threadNames = Collections.synchronizedSet(new HashSet<>());
+        ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> new Thread(runnable, "assembler"));
+
+        RepresentationModel<?> collectionModel;
+        try {
+            collectionModel = JsonApiModelBuilder.collection(movies, movie -> {
+                threadNames.add(Thread.currentThread().getName());
+                return jsonApiModel()
+                        .model(movie)
+                        .relationship("directors", director)
+                        .included(director)
+                        .build();
+            }, null, executor, 100).build();
+        } finally {
+            executor.shutdown();
+        }
+
+        Collection<?> content = ((CollectionModel<?>) ((JsonApiModel) collectionModel).getContent()).getContent();
+        assertThat(content.stream()
+                .map(model -> ((Movie) ((EntityModel<?>) ((JsonApiModel) model).getContent()).getContent()).getId())
+                .collect(Collectors.toList()))
+                .containsExactlyElementsOf(movies.stream().map(Movie::getId).collect(Collectors.toList()));
+        assertThat(((JsonApiModel) collectionModel).getIncludedEntities(new JsonApiConfiguration())).hasSize(1);
+        assertThat(threadNames).containsExactly("assembler");
+    }
+
+    @Test
+    void should_merge_lazy_included_of_collection_items_without_evaluating_them() throws Exception {
+        Director director = new Director("1", "George Lucas");
+        List<String> evaluated = new ArrayList<>();
+        final RepresentationModel<?> collectionModel =
+                JsonApiModelBuilder.collection(Arrays.asList(new Movie("1", "Star Wars"), new Movie("2", "Star Wars 2")),
+                        movie -> jsonApiModel()
+                                .model(movie)
+                                .included("directors", () -> {
+                                    evaluated.add(movie.getId());
+                                    return director;
+                                })
+                                .query(JsonApiQuery.parse("include=directors"))
+                                .build())
+                        .build();
+
+        assertThat(evaluated).isEmpty();
+
+        final String moviesJson = mapper.writeValueAsString(collectionModel);
+
+        assertThat(evaluated).containsExactly("1", "2");
+        assertThat(moviesJson).endsWith(
+                "\"included\":[{\"id\":\"1\",\"type\":\"directors\",\"attributes\":{\"name\":\"George Lucas\"}}]}");
+    }
+
+    @Test
+    void should_build_models_with_shared_empty_and_compact_collections() {
+        JsonApiModel emptyModel = (JsonApiModel) jsonApiModel().model(new Movie("1", "The Matrix")).build();
+
+        assertThat(emptyModel.getRelationships()).isSameAs(Collections.emptyMap());
+        assertThat(emptyModel.getMetaData()).isSameAs(Collections.emptyMap());
+        assertThat(emptyModel.getIncludedEntities()).isSameAs(Collections.emptyList());
+
+        Director director = new Director("1", "Lana Wachowski");
+        JsonApiModel model = (JsonApiModel) jsonApiModel()
+                .model(new Movie("1", "The Matrix"))
+                .relationship("directors", director)
+                .relationship("relatedMovies", new Movie("2", "The Matrix 2"))
+                .included(director)
+                .meta("version", 1)
+                .build();
+
+        assertThat(model.getRelationships()).isInstanceOf(JsonApiSmallMap.class);
+        assertThat(model.getRelationships()).containsOnlyKeys("directors", "relatedMovies");
+        assertThat(model.getRelationships().get("relatedMovies").getData())
+                .isEqualTo(new JsonApiResource("2", "movies"));
+        assertThat(model.getMetaData()).containsExactly(entry("version", 1));
+        assertThat(model.getIncludedEntities()).containsExactly(director);
+    }
+
     @Test
     void should_build_single_movie_entity_model_with_meta() throws Exception {
         Movie movie = new Movie("1", "Star Wars");
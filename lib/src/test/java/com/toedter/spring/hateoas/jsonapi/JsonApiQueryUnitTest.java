@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.toedter.spring.hateoas.jsonapi.support.Movie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApiQuery Unit Test")
+class JsonApiQueryUnitTest {
+    @Test
+    void should_parse_empty_query() {
+        JsonApiQuery query = JsonApiQuery.parse(null);
+
+        assertThat(query.getFilters()).isEmpty();
+        assertThat(query.getSortFields()).isEmpty();
+        assertThat(query.getPageParameters()).isEmpty();
+        assertThat(query.getSort().isUnsorted()).isTrue();
+    }
+
+    @Test
+    void should_parse_filters() {
+        JsonApiQuery query = JsonApiQuery.parse("filter%5Btitle%5D=Star%20Wars&filter[year]=1977,1980");
+
+        assertThat(query.getFilter("title")).containsExactly("Star Wars");
+        assertThat(query.getFilter("year")).containsExactly("1977", "1980");
+        assertThat(query.getFilter("rating")).isEmpty();
+    }
+
+    @Test
+    void should_not_parse_filter_without_member() {
+        assertThatThrownBy(() -> JsonApiQuery.parse("filter=x"))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("must have a member")
+                .satisfies(e -> assertThat(getError(e).getStatus()).isEqualTo("400"))
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "filter"));
+    }
+
+    @Test
+    void should_not_parse_page_without_member() {
+        assertThatThrownBy(() -> JsonApiQuery.parse("page=1"))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("must have a member")
+                .satisfies(e -> assertThat(getError(e).getStatus()).isEqualTo("400"))
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "page"));
+    }
+
+    @Test
+    void should_parse_sort() {
+        JsonApiQuery query = JsonApiQuery.parse("sort=-year,title");
+
+        assertThat(query.getSortFields()).containsExactly("-year", "title");
+        assertThat(query.getSort()).isEqualTo(Sort.by(Sort.Order.desc("year"), Sort.Order.asc("title")));
+    }
+
+    @Test
+    void should_create_pageable() {
+        Pageable pageable = JsonApiQuery.parse("page[number]=2&page[size]=5&sort=title").toPageable(10, 100, "title");
+
+        assertThat(pageable.getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getPageSize()).isEqualTo(5);
+        assertThat(pageable.getSort()).isEqualTo(Sort.by("title"));
+    }
+
+    @Test
+    void should_create_pageable_with_default_page_size() {
+        Pageable pageable = JsonApiQuery.parse("filter[year]=1977").toPageable(10, 100);
+
+        assertThat(pageable.getPageNumber()).isZero();
+        assertThat(pageable.getPageSize()).isEqualTo(10);
+    }
+
+    @Test
+    void should_not_create_pageable_with_invalid_page_number() {
+        JsonApiQuery query = JsonApiQuery.parse("page[number]=abc");
+
+        assertThatThrownBy(() -> query.toPageable(10, 100))
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(getError(e).getStatus()).isEqualTo("400"))
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "page[number]"));
+    }
+
+    @Test
+    void should_limit_page_size() {
+        assertThat(JsonApiQuery.parse("page[size]=100").toPageable(10, 100).getPageSize()).isEqualTo(100);
+        assertThat(JsonApiQuery.parse("").toPageable(10, 100).getPageSize()).isEqualTo(10);
+
+        assertThatThrownBy(() -> JsonApiQuery.parse("page[size]=101").toPageable(10, 100))
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "page[size]"));
+        assertThatThrownBy(() -> JsonApiQuery.parse("page[size]=0").toPageable(10, 100))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("must be between 1 and 100");
+        assertThatThrownBy(() -> JsonApiQuery.parse("page[number]=-1").toPageable(10, 100))
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "page[number]"));
+    }
+
+    @Test
+    void should_only_sort_by_sortable_fields() {
+        JsonApiQuery query = JsonApiQuery.parse("sort=-year,title");
+
+        assertThat(query.toPageable(10, 100, "title", "year").getSort())
+                .containsExactly(Sort.Order.desc("year"), Sort.Order.asc("title"));
+        assertThatThrownBy(() -> query.toPageable(10, 100, "title"))
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("sort field year is not supported")
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "sort"));
+        assertThatThrownBy(() -> JsonApiQuery.parse("sort=secret").getSort(Collections.emptySet()))
+                .isInstanceOf(JsonApiErrorException.class);
+    }
+
+    @Test
+    void should_not_filter_by_unsupported_attributes() {
+        JsonApiQuery query = JsonApiQuery.parse("filter[secret]=42");
+
+        assertThatThrownBy(() -> JsonApiSpecifications.filter(query, "title", "year"))
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "filter[secret]"));
+    }
+
+    @Test
+    void should_remove_pagination_from_query_string() {
+        JsonApiQuery query = JsonApiQuery.parse("filter[year]=1977&page[number]=2&sort=title&page[size]=5");
+
+        assertThat(query.getQueryStringWithoutPagination()).isEqualTo("filter[year]=1977&sort=title");
+    }
+
+    @Test
+    void should_parse_includes() {
+        JsonApiQuery query = JsonApiQuery.parse("include=directors,directors.movies");
+
+        assertThat(query.getIncludes()).containsExactly("directors", "directors.movies");
+    }
+
+    @Test
+    void should_cache_parsed_query() {
+        assertThat(JsonApiQuery.parse("filter[year]=1977")).isSameAs(JsonApiQuery.parse("filter[year]=1977"));
+    }
+
+    @Test
+    void should_not_create_specification_with_unsupported_filter() {
+        JsonApiQuery query = JsonApiQuery.parse("filter[rating]=5");
+
+        assertThatThrownBy(() -> JsonApiSpecifications.filter(query, "title", "year"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("filter[rating]");
+    }
+
+    @Test
+    void should_convert_filter_value() {
+        assertThat(JsonApiSpecifications.convert("1977", Integer.class)).isEqualTo(1977);
+        assertThatThrownBy(() -> JsonApiSpecifications.convert("abc", Integer.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_parse_cursors() {
+        JsonApiCursor cursor = JsonApiCursor.of(1999, "The Matrix", 42L);
+        JsonApiQuery query = JsonApiQuery.parse("page[after]=" + cursor.encode() + "&page[size]=5");
+
+        assertThat(query.getPageAfter()).isEqualTo(JsonApiCursor.of(1999, "The Matrix", 42));
+        assertThat(query.getPageBefore()).isNull();
+        assertThat(query.getPageSize(10)).isEqualTo(5);
+        assertThat(cursor.encode()).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void should_not_parse_invalid_cursors() {
+        assertThatThrownBy(() -> JsonApiQuery.parse("page[after]=abc").getPageAfter())
+                .isInstanceOf(JsonApiErrorException.class)
+                .satisfies(e -> assertThat(getError(e).getSource()).containsEntry("parameter", "page[after]"));
+        assertThatThrownBy(() -> JsonApiQuery.parse("page[after]=W10&page[before]=W10").getPageBefore())
+                .isInstanceOf(JsonApiErrorException.class)
+                .hasMessageContaining("cannot be combined");
+    }
+
+    @Test
+    void should_create_cursor_of_entity() {
+        Movie movie = new Movie("42", "The Matrix");
+
+        assertThat(JsonApiCursor.of(movie, Sort.by("title", "id")).getValues()).containsExactly("The Matrix", "42");
+    }
+
+    @Test
+    void should_not_create_keyset_specification_with_incomplete_cursor() {
+        Sort sort = Sort.by(Sort.Order.asc("year"), Sort.Order.desc("id"));
+
+        assertThatThrownBy(() -> JsonApiSpecifications.keyset(sort, JsonApiCursor.of(1999), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JsonApiError getError(Throwable throwable) {
+        return ((JsonApiErrorException) throwable).getErrors().getErrors().get(0);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApiSmallMap Unit Test")
+class JsonApiSmallMapUnitTest {
+    @Test
+    void should_keep_entries_in_order() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("directors", 1);
+        map.put("genres", 2);
+
+        Map<String, Object> smallMap = JsonApiSmallMap.copyOf(map);
+
+        assertThat(smallMap).isInstanceOf(JsonApiSmallMap.class);
+        assertThat(smallMap).containsExactly(entry("directors", 1), entry("genres", 2));
+        assertThat(smallMap.get("genres")).isEqualTo(2);
+        assertThat(smallMap.get("movies")).isNull();
+    }
+
+    @Test
+    void should_look_up_null_keys() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("directors", 1);
+        map.put(null, 2);
+
+        Map<String, Object> smallMap = JsonApiSmallMap.copyOf(map);
+
+        assertThat(smallMap.containsKey(null)).isTrue();
+        assertThat(smallMap.get(null)).isEqualTo(2);
+        assertThat(JsonApiSmallMap.copyOf(Collections.singletonMap("directors", 1)).get(null)).isNull();
+    }
+}
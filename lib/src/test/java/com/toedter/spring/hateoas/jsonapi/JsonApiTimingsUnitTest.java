@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.toedter.spring.hateoas.jsonapi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApiTimings Unit Test")
+class JsonApiTimingsUnitTest {
+    @Test
+    void should_not_record_time_of_nested_phases_twice() throws Exception {
+        JsonApiTimings timings = JsonApiTimings.begin();
+        try {
+            long dataStart = JsonApiTimings.start();
+            long attributesStart = JsonApiTimings.start();
+            Thread.sleep(50);
+            JsonApiTimings.stop(JsonApiTimings.Phase.ATTRIBUTES, attributesStart);
+            JsonApiTimings.stop(JsonApiTimings.Phase.DATA, dataStart);
+        } finally {
+            JsonApiTimings.end();
+        }
+
+        String serverTiming = timings.toServerTiming();
+
+        assertThat(getDuration(serverTiming, "jsonapi-attributes")).isGreaterThanOrEqualTo(50);
+        assertThat(getDuration(serverTiming, "jsonapi-data")).isLessThan(50);
+    }
+
+    @Test
+    void should_not_record_without_collector() {
+        assertThat(JsonApiTimings.start()).isEqualTo(JsonApiTimings.NOT_RECORDING);
+    }
+
+    private static double getDuration(String serverTiming, String metricName) {
+        Matcher matcher = Pattern.compile(metricName + ";desc=\"[^\"]*\";dur=([0-9.]+)").matcher(serverTiming);
+        // phases without recorded time are not rendered
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+    }
+}
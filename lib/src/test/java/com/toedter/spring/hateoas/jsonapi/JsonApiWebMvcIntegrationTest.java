@@ -16,6 +16,10 @@
 package com.toedter.spring.hateoas.jsonapi;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.toedter.spring.hateoas.jsonapi.support.WebMvcMovieController;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,12 +32,21 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API;
+import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API_ATOMIC;
+import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API_CBOR;
+import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API_COLUMNAR;
+import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API_SMILE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
@@ -82,6 +95,52 @@ class JsonApiWebMvcIntegrationTest extends AbstractJsonApiTest {
         compareWithFile(moviesJson, "moviesCollectionModel.json");
     }
 
+    @Test
+    void should_get_collection_of_movies_with_columnar_extension() throws Exception {
+
+        String moviesJson = this.mockMvc
+                .perform(get("/movies").accept(JSON_API_COLUMNAR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString(MediaTypes.COLUMNAR_EXTENSION)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        compareWithFile(moviesJson, "moviesCollectionModelColumnar.json");
+    }
+
+    @Test
+    void should_execute_atomic_operations() throws Exception {
+        String input = readFile("postAtomicOperations.json");
+
+        this.mockMvc.perform(post("/operations")
+                .content(input)
+                .contentType(JSON_API_ATOMIC)
+                .accept(JSON_API_ATOMIC))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(JSON_API))
+                .andExpect(content().string(containsString("\"id\":\"3\"")));
+    }
+
+    @Test
+    void should_reject_atomic_operations_with_unknown_local_id() throws Exception {
+        String input = readFile("postAtomicOperations.json");
+        int lidIndex = input.lastIndexOf("new-movie");
+        input = input.substring(0, lidIndex) + "unknown-movie" + input.substring(lidIndex + "new-movie".length());
+
+        String errorsJson = this.mockMvc.perform(post("/operations")
+                .content(input)
+                .contentType(JSON_API_ATOMIC)
+                .accept(JSON_API_ATOMIC))
+                .andExpect(status().isBadRequest())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode error = new ObjectMapper().readTree(errorsJson).get("errors").get(0);
+        assertThat(error.get("source").get("pointer").asText()).isEqualTo("/atomic:operations/1/ref/lid");
+    }
+
     @Test
     void should_create_new_movie() throws Exception {
 
@@ -145,6 +204,93 @@ class JsonApiWebMvcIntegrationTest extends AbstractJsonApiTest {
         compareWithFile(movieJson, "patchedMovie.json");
     }
 
+    @Test
+    void should_get_single_movie_as_smile() throws Exception {
+        byte[] movieSmile = this.mockMvc
+                .perform(get("/movies/1").accept(JSON_API_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JSON_API_SMILE))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        JsonNode movie = new ObjectMapper(new SmileFactory()).readTree(movieSmile);
+        compareWithFile(movie.toString(), "movieEntityModelWithLinks.json");
+    }
+
+    @Test
+    void should_create_new_movie_from_cbor() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        byte[] input = cborMapper.writeValueAsBytes(cborMapper.readTree(readFile("postMovie.json")));
+
+        this.mockMvc.perform(post("/movies")
+                .content(input)
+                .contentType(JSON_API_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(header().stringValues(HttpHeaders.LOCATION, "http://localhost/movies/3"));
+
+        String movieJson = this.mockMvc.perform(get("/movies/3")
+                .accept(JSON_API))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        compareWithFile(movieJson, "movieCreated.json");
+    }
+
+    @Test
+    void should_add_server_timing_header() throws Exception {
+        MockMvc mockMvcWithServerTiming =
+                webAppContextSetup(this.context).addFilters(new JsonApiServerTimingFilter()).build();
+
+        String movieJson = mockMvcWithServerTiming
+                .perform(get("/movies/1").accept(JSON_API))
+                .andExpect(status().isOk())
+                .andExpect(header().string(JsonApiServerTimingFilter.SERVER_TIMING,
+                        containsString("jsonapi-data;desc=\"JSON:API resource extraction (1 resources)\";dur=")))
+                .andExpect(header().string(JsonApiServerTimingFilter.SERVER_TIMING,
+                        containsString("jsonapi-links;")))
+                .andExpect(header().string(JsonApiServerTimingFilter.SERVER_TIMING,
+                        containsString("jsonapi-write;")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        compareWithFile(movieJson, "movieEntityModelWithLinks.json");
+    }
+
+    @Test
+    void should_add_server_timing_header_to_async_response() throws Exception {
+        MockMvc mockMvcWithServerTiming =
+                webAppContextSetup(this.context).addFilters(new JsonApiServerTimingFilter()).build();
+
+        MvcResult mvcResult = mockMvcWithServerTiming
+                .perform(get("/asyncMovies/1").accept(JSON_API))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().doesNotExist(JsonApiServerTimingFilter.SERVER_TIMING))
+                .andReturn();
+
+        String movieJson = mockMvcWithServerTiming
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(JsonApiServerTimingFilter.SERVER_TIMING,
+                        containsString("jsonapi-data;desc=\"JSON:API resource extraction (1 resources)\";dur=")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        compareWithFile(movieJson, "movieEntityModelWithLinks.json");
+    }
+
+    @Test
+    void should_not_add_server_timing_header_without_filter() throws Exception {
+        this.mockMvc
+                .perform(get("/movies/1").accept(JSON_API))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(JsonApiServerTimingFilter.SERVER_TIMING));
+    }
+
     @Test
     void should_return_error() throws Exception {
 
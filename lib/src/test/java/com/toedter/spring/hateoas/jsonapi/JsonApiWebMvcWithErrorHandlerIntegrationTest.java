@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.toedter.spring.hateoas.jsonapi;
+package com.toedter.spring.hateoas.jsonapi;
+
+import com.toedter.spring.hateoas.jsonapi.support.WebMvcMovieController;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+/**
+ * @author Kai Toedter
+ */
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApi WebMvc with Error Handler Integration Test")
+@EnableAutoConfiguration
+class JsonApiWebMvcWithErrorHandlerIntegrationTest extends AbstractJsonApiTest {
+    @Autowired
+    WebApplicationContext context;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = webAppContextSetup(this.context).build();
+        WebMvcMovieController.reset();
+    }
+
+    @Test
+    void should_handle_exceeded_request_limit_with_exception_handler_of_application() throws Exception {
+        this.mockMvc
+                .perform(post("/movies").content(readFile("postMovie.json")).contentType(JSON_API))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("handled by application"));
+    }
+
+    @Configuration
+    @WebAppConfiguration
+    @EnableWebMvc
+    @EnableAutoConfiguration
+    static class TestConfig {
+        @Bean
+        WebMvcMovieController movieController() {
+            return new WebMvcMovieController();
+        }
+
+        @Bean
+        ApplicationExceptionHandler applicationExceptionHandler() {
+            return new ApplicationExceptionHandler();
+        }
+
+        @Bean
+        JsonApiConfiguration jsonApiConfiguration() {
+            return new JsonApiConfiguration().withMaxRequestStringLength(10);
+        }
+    }
+
+    @ControllerAdvice
+    static class ApplicationExceptionHandler {
+        @ExceptionHandler(HttpMessageNotReadableException.class)
+        ResponseEntity<String> handleNotReadable() {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("handled by application");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.toedter.spring.hateoas.jsonapi;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toedter.spring.hateoas.jsonapi.support.WebMvcMovieController;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+/**
+ * @author Kai Toedter
+ */
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DisplayName("JsonApi WebMvc with Limits Integration Test")
+@EnableAutoConfiguration
+class JsonApiWebMvcWithLimitsIntegrationTest extends AbstractJsonApiTest {
+    @Autowired
+    WebApplicationContext context;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = webAppContextSetup(this.context).build();
+        WebMvcMovieController.reset();
+    }
+
+    @Test
+    void should_render_exceeded_response_limit_as_json_api_error() throws Exception {
+        String errorsJson = this.mockMvc
+                .perform(get("/movies").accept(JSON_API))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(JSON_API))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode error = new ObjectMapper().readTree(errorsJson).get("errors").get(0);
+        assertThat(error.get("status").asText()).isEqualTo("400");
+        assertThat(error.get("source").get("parameter").asText()).isEqualTo("page[size]");
+    }
+
+    @Test
+    void should_get_single_movie_within_response_limits() throws Exception {
+        this.mockMvc
+                .perform(get("/movies/1").accept(JSON_API))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void should_render_exceeded_request_string_length_as_json_api_error() throws Exception {
+        String errorsJson = this.mockMvc
+                .perform(post("/movies").content(readFile("postMovie.json")).contentType(JSON_API))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().contentTypeCompatibleWith(JSON_API))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode error = new ObjectMapper().readTree(errorsJson).get("errors").get(0);
+        assertThat(error.get("status").asText()).isEqualTo("413");
+        assertThat(error.get("source").get("pointer").asText()).isEqualTo("/data/attributes/title");
+    }
+
+    @Test
+    void should_reject_request_document_that_exceeds_max_bytes() throws Exception {
+        StringBuilder input = new StringBuilder("{\"data\":{\"attributes\":{\"title\":\"Batman\"}}}");
+        for (int i = 0; i < 200; i++) {
+            input.append(' ');
+        }
+
+        this.mockMvc
+                .perform(post("/movies").content(input.toString()).contentType(JSON_API))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().contentTypeCompatibleWith(JSON_API));
+    }
+
+    @Test
+    void should_create_movie_within_request_limits() throws Exception {
+        this.mockMvc
+                .perform(post("/movies")
+                        .content("{\"data\":{\"attributes\":{\"title\":\"Batman\"}}}")
+                        .contentType(JSON_API))
+                .andExpect(status().isCreated());
+    }
+
+    @Configuration
+    @WebAppConfiguration
+    @EnableWebMvc
+    @EnableAutoConfiguration
+    static class TestConfig {
+        @Bean
+        WebMvcMovieController movieController() {
+            return new WebMvcMovieController();
+        }
+
+        @Bean
+        JsonApiConfiguration jsonApiConfiguration() {
+            return new JsonApiConfiguration()
+                    .withMaxDataResources(1)
+                    .withMaxRequestStringLength(10)
+                    .withMaxRequestDocumentBytes(200);
+        }
+    }
+}
@@ -15,9 +15,13 @@
  */
 package com.toedter.spring.hateoas.jsonapi.support;
 
+import com.toedter.spring.hateoas.jsonapi.JsonApiAtomicOperation;
+import com.toedter.spring.hateoas.jsonapi.JsonApiAtomicOperations;
+import com.toedter.spring.hateoas.jsonapi.JsonApiAtomicResults;
 import com.toedter.spring.hateoas.jsonapi.JsonApiError;
 import com.toedter.spring.hateoas.jsonapi.JsonApiErrors;
 import com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder;
+import com.toedter.spring.hateoas.jsonapi.MediaTypes;
 import org.springframework.hateoas.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -71,6 +76,12 @@ public class WebMvcMovieController {
                 selfLink);
     }
 
+    @GetMapping("/asyncMovies/{id}")
+    public Callable<EntityModel<Movie>> findOneAsync(@PathVariable Integer id) {
+        EntityModel<Movie> movie = findOne(id);
+        return () -> movie;
+    }
+
     @GetMapping("/moviesWithDirectors/{id}")
     public RepresentationModel<?> findOneWidthDirectors(@PathVariable Integer id) {
         WebMvcMovieController controller = methodOn(WebMvcMovieController.class);
@@ -125,6 +136,20 @@ public class WebMvcMovieController {
         return ResponseEntity.created(link.toUri()).build();
     }
 
+    @PostMapping(value = "/operations", consumes = MediaTypes.JSON_API_ATOMIC_VALUE)
+    public JsonApiAtomicResults operations(@RequestBody JsonApiAtomicOperations operations) {
+        return operations.execute(operation -> {
+            if (operation.getOp() == JsonApiAtomicOperation.Op.ADD && operation.getRelationship() == null) {
+                int newMovieId = MOVIES.size() + 1;
+                Movie movie = operation.getResource(Movie.class);
+                movie.setId("" + newMovieId);
+                MOVIES.put(newMovieId, movie);
+                return movie;
+            }
+            return null;
+        });
+    }
+
     @PatchMapping("/movies/{id}")
     public ResponseEntity<?> partiallyUpdateMovie(@RequestBody EntityModel<Movie> movie,
                                                   @PathVariable Integer id) {